@@ -1,5 +1,3 @@
-import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.Serializable;
 import java.util.*;
 
@@ -11,7 +9,7 @@ import static java.util.Collections.min;
  * @version 1
  */
 public class AI extends Player implements Serializable {
-    private ArrayList<String> dictionary;
+    private transient LexiconRegistry.Handle dictionary; // taken from the model the first time it is needed
     private Board board;
     private ScrabbleModel model;
     private boolean isTest; // true if test case, false otherwise
@@ -19,10 +17,9 @@ public class AI extends Player implements Serializable {
     /**
      * Constructor for AI class
      */
-    public AI(ScrabbleModel scrabble, String name, ArrayList<String> dictionary, Board board) {
+    public AI(ScrabbleModel scrabble, String name, Board board) {
         super(name);
         this.model = scrabble;
-        this.dictionary = dictionary;
         this.board = board;
         isTest = false;
     }
@@ -30,7 +27,6 @@ public class AI extends Player implements Serializable {
     // /* Testing methods
     public AI(String name) {
         super(name);
-        this.dictionary = createDictionary();
         ArrayList<Tile> AIT = new ArrayList<Tile>();
         AIT.add(new Tile('C', 2, false));
         AIT.add(new Tile('H', 1, false));
@@ -42,22 +38,6 @@ public class AI extends Player implements Serializable {
         setRack(AIT);
         isTest = true;
     }
-
-    private ArrayList<String> createDictionary() {
-        ArrayList<String> dictionary = new ArrayList<String>();
-        File dictFile = new File("CollinsScrabbleWords.txt");
-        Scanner scanner;
-        try {
-            scanner = new Scanner(dictFile);
-        } catch (FileNotFoundException e) {
-            System.out.println("Dictionary File \"CollinsScrabbleWords.txt\" is missing");
-            throw new RuntimeException(e);
-        }
-        while (scanner.hasNextLine()) {
-            dictionary.add(scanner.nextLine().toLowerCase());
-        }
-        return dictionary;
-    }
     // end of testing methods */
 
     /**
@@ -89,11 +69,14 @@ public class AI extends Player implements Serializable {
             }
         }
 
-        //No blank tiles? Try playing a word
-        ArrayList<String> highestScoringWords = getHighestScoringWordList();
+        //No blank tiles? Play the highest scoring placement through the anchor squares
+        LinkedHashMap<Position, Tile> bestPlay = findBestPlay();
+        if (bestPlay != null && tryWordPlacement(bestPlay)) {
+            return "play";
+        }
 
-        // If there are no words to play, exchange 3 tiles from rack
-        if (highestScoringWords.isEmpty()) {
+        // If the rack cannot make a word on its own, exchange 3 tiles from rack
+        if (getValidWordCombinations().isEmpty()) {
             System.out.println("Entered Exchange");
             for (int i = 0; i < Math.min(3, rack.size()); i++) {
                 tilesToExchange.add(String.valueOf(rack.get(i).getLetter()));
@@ -102,77 +85,181 @@ public class AI extends Player implements Serializable {
                 return "exchange"; // exchange successful
             }
         }
-
-        // attempt to place word on board starting from the highest scoring word
-        for (String word : highestScoringWords) {
-            for (int row = 0; row < 15; row++) {
-                for (int col = 0; col < 15; col++) {
-                    Position start = board.getPosition(row, col);
-
-                    if (tryWordPlacement(word, start, true)) {
-                        return "play";
-                    }
-                    // Attempt vertical placement
-                    if (tryWordPlacement(word, start, false)) {
-                        return "play";
-                    }
-                }
-            }
-        }
         // no other valid play, pass
         model.handlePass(this);
         return "pass";
     }
 
     /**
-     * from a starting position and specified direction this function will attempt to play
-     * a word from its rack
+     * Finds the highest scoring play the rack can make. Every placement is generated with the GADDAG out from
+     * each anchor square, across and down, taking in the letters already on the board and only placing letters
+     * the board's cross-checks allow. Each placement is then checked and scored by the model.
      *
-     * @param word         the word to be played
-     * @param start        the starting position
-     * @param isHorizontal if the play is horizontal (true) or vertical (false)
-     * @return true if play is successful, false otherwise
-     * @author Andrew Roberts
+     * @return the tiles of the best play by position, or null if there is none
      */
-    private boolean tryWordPlacement(String word, Position start, boolean isHorizontal) {
-        LinkedHashMap<Position, Tile> tilesToPlay = new LinkedHashMap<>();
+    private LinkedHashMap<Position, Tile> findBestPlay() {
+        MoveSearch search = new MoveSearch(getDictionary().getGaddag());
+        Bitboard anchors = board.getAnchors();
+        for (int anchor = anchors.first(); anchor != -1; anchor = anchors.next(anchor + 1)) {
+            search.searchFrom(anchor, true);
+            search.searchFrom(anchor, false);
+        }
+        return search.best;
+    }
+
+    /**
+     * Class MoveSearch walks the GADDAG from an anchor square, first left (or up) through the reversed part of
+     * a word, then right (or down) after the separator, filling empty squares from the rack
+     */
+    private final class MoveSearch {
+        private final Gaddag gaddag;
+        private final int size = board.getSize();
+        private final int[] counts = new int[26]; // the rack's tiles of each letter not yet placed
+        private final Tile[] tiles = new Tile[26]; // a rack tile of each letter
+        private final int[] placed = new int[size * size]; // the squares filled from the rack so far
+        private final Tile[] placedTiles = new Tile[size * size];
+        private int count;
+        private boolean horizontal;
+        private int line; // the row of an across search or the column of a down search
+        private int anchorAlong; // the anchor's column in an across search or row in a down search
+        private LinkedHashMap<Position, Tile> best;
+        private int bestScore = -1;
+
+        /**
+         * Constructor for class MoveSearch
+         *
+         * @param gaddag the GADDAG of the game's word list
+         */
+        private MoveSearch(Gaddag gaddag) {
+            this.gaddag = gaddag;
+            for (Tile tile : rack) {
+                int index = Lexicon.letterIndex(tile.getLetter());
+                if (index >= 0 && !tile.isBlank()) {
+                    counts[index]++;
+                    tiles[index] = tile;
+                }
+            }
+        }
 
-        int row = start.getRow();
-        int col = start.getCol();
+        /**
+         * Generates every placement whose leftmost (or topmost) anchor is the given one
+         *
+         * @param anchor     the anchor square
+         * @param horizontal true to search across the row, false to search down the column
+         */
+        private void searchFrom(int anchor, boolean horizontal) {
+            this.horizontal = horizontal;
+            line = horizontal ? anchor / size : anchor % size;
+            anchorAlong = horizontal ? anchor % size : anchor / size;
+            extend(anchorAlong, gaddag.root());
+        }
 
-        for (char letter : word.toCharArray()) {
-            // Ensure position is within bounds nad not occupied
-            if (row >= 15 || col >= 15 || row < 0 || col < 0) {
-                return false;
+        /**
+         * Fills a square of the line, with the board's letter or each rack letter the GADDAG and cross-checks allow
+         *
+         * @param along the square's place in the line
+         * @param node  the GADDAG node reached so far
+         */
+        private void extend(int along, int node) {
+            int row = horizontal ? line : along;
+            int col = horizontal ? along : line;
+            if (board.isOccupied(row, col)) {
+                step(along, gaddag.child(node, board.getLetter(row, col)));
+                return;
             }
-            if (board.getPosition(row, col).isOccupied()) {
-                return false;
+            int checks = board.getCrossChecks(row, col, horizontal);
+            for (int letter = 0; letter < 26; letter++) {
+                if (counts[letter] > 0 && (checks & (1 << letter)) != 0) {
+                    int next = gaddag.child(node, (char) ('A' + letter));
+                    if (next != Gaddag.NO_NODE) {
+                        counts[letter]--;
+                        placed[count] = row * size + col;
+                        placedTiles[count++] = tiles[letter];
+                        step(along, next);
+                        count--;
+                        counts[letter]++;
+                    }
+                }
             }
+        }
 
-            // Find the corresponding tile in the rack
-            Tile tileToPlay = null;
-            for (Tile tile : rack) {
-                if (Character.toUpperCase(tile.getLetter()) == Character.toUpperCase(letter)) {
-                    tileToPlay = tile;
-                    break;
+        /**
+         * Records the word ending at a square if there is one, then carries on along the line
+         *
+         * @param along the place in the line of the square just filled
+         * @param node  the GADDAG node reached with its letter, or NO_NODE
+         */
+        private void step(int along, int node) {
+            if (node == Gaddag.NO_NODE) {
+                return;
+            }
+            if (along <= anchorAlong) {
+                // still extending left, a word may end at the anchor
+                if (gaddag.isTerminal(node) && isEmpty(along - 1) && isEmpty(anchorAlong + 1)) {
+                    record();
+                }
+                // an empty anchor further left is searched from itself
+                if (along > 0 && !(isEmpty(along - 1) && board.getAnchors().get(square(along - 1)))) {
+                    extend(along - 1, node);
+                }
+                int separator = gaddag.child(node, Gaddag.SEPARATOR);
+                if (separator != Gaddag.NO_NODE && isEmpty(along - 1) && anchorAlong + 1 < size) {
+                    extend(anchorAlong + 1, separator);
+                }
+            } else {
+                if (gaddag.isTerminal(node) && isEmpty(along + 1)) {
+                    record();
+                }
+                if (along + 1 < size) {
+                    extend(along + 1, node);
                 }
             }
+        }
 
-            if (tileToPlay == null) {
-                return false; // Missing tile in rack
-            }
+        /**
+         * Gets a square of the line
+         *
+         * @param along the place in the line
+         * @return the square, row * size + col
+         */
+        private int square(int along) {
+            return horizontal ? line * size + along : along * size + line;
+        }
 
-            // remove tile from rack and add it to tiles that will be played
-            tilesToPlay.put(board.getPosition(row, col), tileToPlay);
+        /**
+         * Checks if a place in the line is off the board or an empty square
+         *
+         * @param along the place in the line
+         * @return true if no tile is there
+         */
+        private boolean isEmpty(int along) {
+            return along < 0 || along >= size || !board.getOccupancy().get(square(along));
+        }
 
-            // Move to the next position
-            if (isHorizontal) {
-                col++;
-            } else {
-                row++;
+        /**
+         * Scores the tiles placed so far as a play, keeping them if they are the best play yet
+         */
+        private void record() {
+            LinkedHashMap<Position, Tile> placement = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                placement.put(board.getPosition(placed[i] / size, placed[i] % size), placedTiles[i]);
+            }
+            PlayResult result = model.checkPlay(placement);
+            if (result.isValid() && result.getScore() > bestScore) {
+                best = placement;
+                bestScore = result.getScore();
             }
         }
+    }
 
+    /**
+     * Plays the tiles of a placement found by the move search
+     *
+     * @param tilesToPlay the tiles to play, by position
+     * @return true if play is successful, false otherwise
+     * @author Andrew Roberts
+     */
+    private boolean tryWordPlacement(LinkedHashMap<Position, Tile> tilesToPlay) {
         // Attempt to play the word
         setTilesPlayed(tilesToPlay); // Assign tiles to the AI
         Map<Position, Tile> tempTilesToPlay = new HashMap<>(tilesToPlay); // stores copy of tiles to play for GUI update
@@ -229,38 +316,36 @@ public class AI extends Player implements Serializable {
 
 
     /**
-     * Creates a possible list of words from the tiles held
+     * Creates a possible list of words from the tiles held. The anagram index looks up each selection of
+     * the rack's letters, so only words made from the rack are ever looked at.
      *
-     * @return an ArrayList of strings of all valid words with current hand ONLY
+     * @return an ArrayList of strings of all valid words with current hand ONLY, in alphabetical order
      * @author Nick Fuda
      */
     public ArrayList<String> getValidWordCombinations() {
-        ArrayList<String> possibleWords = new ArrayList<>();
-        ArrayList<Tile> tiles = getRack();
-        ArrayList<Character> tileLetters = new ArrayList<>();
+        int[] letterCounts = new int[26];
 
-        //get a list of letters from the tiles on the rack
-        for (Tile t : tiles) {
-            tileLetters.add(t.getLetter());
+        //count the letters on the rack, blank tiles are not used to form words
+        for (Tile t : getRack()) {
+            int index = Lexicon.letterIndex(t.getLetter());
+            if (index >= 0) {
+                letterCounts[index]++;
+            }
         }
 
-        for (String word : dictionary) {
-            ArrayList<Character> lettersCopy = new ArrayList<Character>(tileLetters);
-            char[] check = word.toUpperCase().toCharArray();
+        return new ArrayList<>(getDictionary().getAnagramIndex().findWords(letterCounts, 0, 2));
+    }
 
-            for (int i = 0; i < word.length(); i++) {
-                if (word.length() > 7 || word.length() < 2) {
-                    break;
-                }
-                lettersCopy.remove(Character.valueOf(check[i]));
-                if (lettersCopy.size() != tileLetters.size() - (i + 1)) {
-                    break;
-                } else if (i == word.length() - 1) {
-                    possibleWords.add(word);
-                }
-            }
+    /**
+     * Gets the word list of the game the AI plays in
+     *
+     * @return the dictionary handle
+     */
+    private LexiconRegistry.Handle getDictionary() {
+        if (dictionary == null) {
+            dictionary = model.getDictionary(); // the dictionary may still have been loading when the AI was made
         }
-        return possibleWords;
+        return dictionary;
     }
 
     /**
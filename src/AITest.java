@@ -1,6 +1,7 @@
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 
 import static org.junit.Assert.*;
 
@@ -115,6 +116,7 @@ public class AITest {
         AIT.add(new Tile('E', 1, false));
         AIT.add(new Tile('Y', 2, false));
         ai.setRack(AIT);
+        ai.setModel(game);
         //System.out.println(ai.getValidWordCombinations());
         //Words contained
         assertTrue(ai.getValidWordCombinations().contains("cheesy"));
@@ -156,6 +158,7 @@ public class AITest {
         AIT.add(new Tile('E', 1, false));
         AIT.add(new Tile('Y', 3, false));
         ai.setRack(AIT);
+        ai.setModel(game);
 
         ArrayList<String> rankedWords = ai.getHighestScoringWordList();
         //Longest, highest scoring word is cheesy. Words with same points ranked in order of appearance
@@ -281,4 +284,38 @@ public class AITest {
         // AI should pass as it can form a word it just can't place it this turn
         assertEquals("pass", ai.play());
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that the AI finds plays through the letters already on the board, which its rack alone cannot spell
+     */
+    @Test
+    public void testAIPlayThroughBoard() {
+        ArrayList<Player> playerList = new ArrayList<>();
+        Player player1 = new Player("John");
+        AI ai = new AI("AI");
+        playerList.add(player1);
+        playerList.add(ai);
+        ScrabbleModel game = new ScrabbleModel(playerList);
+        ai.setBoard(game.getGameBoard());
+        ai.setModel(game);
+
+        LinkedHashMap<Position, Tile> cat = new LinkedHashMap<>();
+        cat.put(new Position(7, 6), Tile.of('C'));
+        cat.put(new Position(7, 7), Tile.of('A'));
+        cat.put(new Position(7, 8), Tile.of('T'));
+        player1.setTilesPlayed(cat);
+        assertTrue(game.handlePlay(player1));
+
+        //the only words are made with CAT, and SCAT or CATS score the most
+        ArrayList<Tile> AIT = new ArrayList<>();
+        AIT.add(Tile.of('S'));
+        for (int i = 0; i < 6; i++) {
+            AIT.add(Tile.of('Q'));
+        }
+        ai.setRack(AIT);
+        assertTrue(ai.getValidWordCombinations().isEmpty());
+        assertEquals("play", ai.play());
+        assertEquals(6, ai.getScore());
+        assertTrue(game.getGameBoard().getLetter(7, 5) == 'S' || game.getGameBoard().getLetter(7, 9) == 'S');
+    }
+}
@@ -0,0 +1,254 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+
+/**
+ * Class AnagramIndex finds every word that can be made from a rack of tiles. Each word is filed under the
+ * signature of its letter counts, so all anagrams share one signature, and the words are grouped by length.
+ * A rack is searched by going through each selection of its letters (at most 128 for seven tiles), working
+ * out the signature of that selection, and looking it up. No other word in the list is looked at.
+ * <p>
+ * A signature is the sum of a random 64-bit number for every letter in the word. Two different sets of
+ * letters practically never share a sum, and each word found is checked against the letters anyway.
+ *
+ * @version 1
+ */
+public class AnagramIndex {
+    private static final long[] LETTER_KEYS = new long[26];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5C2A88B1E5L); // fixed so signatures never change
+        for (int i = 0; i < LETTER_KEYS.length; i++) {
+            LETTER_KEYS[i] = random.nextLong();
+        }
+    }
+
+    private final long[][] signatures; // for each length, the signature of every word, sorted
+    private final byte[][] letters; // for each length, the letter indexes of every word in signature order
+    private final int wordCount;
+
+    /**
+     * Constructor for class AnagramIndex
+     *
+     * @param words the words to index; words with characters other than letters are left out
+     */
+    public AnagramIndex(Iterable<String> words) {
+        ArrayList<ArrayList<String>> byLength = new ArrayList<>();
+        int count = 0;
+        for (String word : words) {
+            if (word.isEmpty() || !isLetters(word)) {
+                continue;
+            }
+            while (byLength.size() <= word.length()) {
+                byLength.add(new ArrayList<>());
+            }
+            byLength.get(word.length()).add(word);
+            count++;
+        }
+
+        signatures = new long[byLength.size()][];
+        letters = new byte[byLength.size()][];
+        for (int length = 0; length < byLength.size(); length++) {
+            ArrayList<String> group = byLength.get(length);
+            long[] groupSignatures = new long[group.size()];
+            Integer[] order = new Integer[group.size()];
+            for (int i = 0; i < group.size(); i++) {
+                groupSignatures[i] = signature(group.get(i));
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Long.compare(groupSignatures[a], groupSignatures[b]));
+
+            signatures[length] = new long[group.size()];
+            letters[length] = new byte[group.size() * length];
+            for (int i = 0; i < order.length; i++) {
+                signatures[length][i] = groupSignatures[order[i]];
+                String word = group.get(order[i]);
+                for (int j = 0; j < length; j++) {
+                    letters[length][i * length + j] = (byte) Lexicon.letterIndex(word.charAt(j));
+                }
+            }
+        }
+        wordCount = count;
+    }
+
+    /**
+     * Creates an index holding every word of a lexicon
+     *
+     * @param lexicon the lexicon
+     * @return the index
+     */
+    public static AnagramIndex of(WordList lexicon) {
+        ArrayList<String> words = new ArrayList<>(lexicon.size());
+        lexicon.forEachWord(words::add);
+        return new AnagramIndex(words);
+    }
+
+    /**
+     * Finds every word that can be made from some or all of a rack's tiles
+     *
+     * @param letterCounts how many of each letter, A to Z, are on the rack
+     * @param blanks       how many blank tiles are on the rack, each of which may stand for any letter
+     * @param minLength    the shortest word to find
+     * @return the words found, in lower case and alphabetical order
+     */
+    public List<String> findWords(int[] letterCounts, int blanks, int minLength) {
+        int tiles = blanks;
+        for (int count : letterCounts) {
+            tiles += count;
+        }
+        if (tiles < Math.max(1, minLength)) {
+            return Collections.emptyList();
+        }
+        Search search = new Search(Math.max(1, minLength), blanks);
+        search.chooseLetters(letterCounts, 0, 0, 0L);
+        return new ArrayList<>(search.found);
+    }
+
+    /**
+     * Getter for the number of words in the index
+     *
+     * @return the number of words
+     */
+    public int size() {
+        return wordCount;
+    }
+
+    /**
+     * Works out the signature of a word's letters
+     *
+     * @param word the word, made only of letters
+     * @return the signature
+     */
+    static long signature(CharSequence word) {
+        long signature = 0;
+        for (int i = 0; i < word.length(); i++) {
+            signature += LETTER_KEYS[Lexicon.letterIndex(word.charAt(i))];
+        }
+        return signature;
+    }
+
+    /**
+     * Checks if a word is made only of letters
+     *
+     * @param word the word
+     * @return true if every character is a letter A to Z
+     */
+    private static boolean isLetters(CharSequence word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (Lexicon.letterIndex(word.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The state of one rack search: the letters chosen so far and the words found
+     */
+    private final class Search {
+        private final int minLength;
+        private final int blanks;
+        private final int[] chosen = new int[26]; // how many of each letter the current selection uses
+        private final int[] remaining = new int[26]; // scratch counts for checking a word
+        private final TreeSet<String> found = new TreeSet<>();
+
+        private Search(int minLength, int blanks) {
+            this.minLength = minLength;
+            this.blanks = blanks;
+        }
+
+        /**
+         * Chooses how many of each rack letter to use, from a letter onwards, then fills in blanks
+         *
+         * @param letterCounts the letters on the rack
+         * @param letter       the next letter to choose a count for
+         * @param length       the number of letters chosen so far
+         * @param signature    the signature of the letters chosen so far
+         */
+        private void chooseLetters(int[] letterCounts, int letter, int length, long signature) {
+            if (letter == 26) {
+                chooseBlanks(0, 0, length, signature);
+                return;
+            }
+            for (int count = 0; count <= letterCounts[letter]; count++) {
+                chosen[letter] = count;
+                chooseLetters(letterCounts, letter + 1, length + count, signature + count * LETTER_KEYS[letter]);
+            }
+            chosen[letter] = 0;
+        }
+
+        /**
+         * Chooses letters for the blanks, in alphabetical order so each set of letters is tried once,
+         * looking up the selection before each further blank is used
+         *
+         * @param used      the number of blanks used so far
+         * @param from      the first letter the next blank may stand for
+         * @param length    the number of letters chosen so far
+         * @param signature the signature of the letters chosen so far
+         */
+        private void chooseBlanks(int used, int from, int length, long signature) {
+            lookUp(length, signature);
+            if (used == blanks) {
+                return;
+            }
+            for (int letter = from; letter < 26; letter++) {
+                chosen[letter]++;
+                chooseBlanks(used + 1, letter, length + 1, signature + LETTER_KEYS[letter]);
+                chosen[letter]--;
+            }
+        }
+
+        /**
+         * Adds every word whose letters are exactly the current selection
+         *
+         * @param length    the number of letters chosen
+         * @param signature the signature of the letters chosen
+         */
+        private void lookUp(int length, long signature) {
+            if (length < minLength || length >= signatures.length) {
+                return;
+            }
+            long[] group = signatures[length];
+            int low = 0;
+            int high = group.length;
+            while (low < high) { // find the first word with the signature
+                int middle = (low + high) >>> 1;
+                if (group[middle] < signature) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            for (int i = low; i < group.length && group[i] == signature; i++) {
+                if (usesChosenLetters(letters[length], i * length, length)) {
+                    char[] word = new char[length];
+                    for (int j = 0; j < length; j++) {
+                        word[j] = (char) ('a' + letters[length][i * length + j]);
+                    }
+                    found.add(new String(word));
+                }
+            }
+        }
+
+        /**
+         * Checks that a word uses exactly the chosen letters, ruling out a shared signature by chance
+         *
+         * @param groupLetters the letters of the word's length group
+         * @param start        the index of the word's first letter
+         * @param length       the length of the word
+         * @return true if the word's letters are the chosen letters
+         */
+        private boolean usesChosenLetters(byte[] groupLetters, int start, int length) {
+            System.arraycopy(chosen, 0, remaining, 0, 26);
+            for (int j = start; j < start + length; j++) {
+                if (--remaining[groupLetters[j]] < 0) {
+                    return false;
+                }
+            }
+            return true; // same length and no letter overused, so the counts are equal
+        }
+    }
+}
@@ -13,41 +13,60 @@ import java.util.HashMap;
 public class Bag implements Serializable {
     private List<Tile> tiles; // a list containing all the available tiles
     private static final Map<Character, Integer> letterFrequencies = new HashMap<>(); // map containing the letters and corresponding frequencies
-    private static final Map<Character, Integer> letterPoints = new HashMap<>(); // map containing the letters and corresponding point value
 
     /**
      * creates new bag object that contains all tiles available for play
      */
     public Bag(boolean isTest) {
         tiles = new ArrayList<>(); // initialize the tiles list
-        // initialize letter frequencies and points
+        // initialize letter frequencies
         if (!isTest) {
             initializeLetterFrequencies();
         } else if (isTest) {
             testLetterFrequencies();
         }
-        initializeLetterPoints();
 
         // add tiles to the bag based on frequencies
         for (Map.Entry<Character, Integer> entry : letterFrequencies.entrySet()) {
             char letter = entry.getKey();
             int count = entry.getValue();
-            int points = letterPoints.get(letter);
-
-            // initiates blank tiles isBlank field to true
-            if (letter == ' ') {
-                for (int i = 0; i < count; i++) {
-                    tiles.add(new Tile(letter, points, true));
-                }
-            } else {
-                for (int i = 0; i < count; i++) {
-                    tiles.add(new Tile(letter, points, false));
-                }
+            // every tile of a letter is the same shared tile, blanks included
+            Tile tile = Tile.of(letter);
+            for (int i = 0; i < count; i++) {
+                tiles.add(tile);
             }
         }
         Collections.shuffle(tiles); //  randomize tile order
     }
 
+    /**
+     * Creates a bag holding the tiles given, in that order
+     *
+     * @param tiles the tiles, which the bag takes over
+     */
+    private Bag(List<Tile> tiles) {
+        this.tiles = tiles;
+    }
+
+    /**
+     * Copies the bag, so tiles can be drawn from the copy without changing this one. The tiles themselves
+     * are shared.
+     *
+     * @return the copy, holding the same tiles in the same order
+     */
+    public Bag copy() {
+        return new Bag(new ArrayList<>(tiles));
+    }
+
+    /**
+     * Getter for the tiles left in the bag
+     *
+     * @return the tiles in the order they will be drawn, as a list that cannot be changed
+     */
+    public List<Tile> getTiles() {
+        return Collections.unmodifiableList(tiles);
+    }
+
     /**
      * Initialize each letters' frequency
      */
@@ -82,40 +101,6 @@ public class Bag implements Serializable {
         letterFrequencies.put(' ', 2);
     }
 
-    /**
-     * Initialize each letters' point value
-     */
-    private void initializeLetterPoints() {
-        letterPoints.put('E', 1);
-        letterPoints.put('A', 1);
-        letterPoints.put('I', 1);
-        letterPoints.put('O', 1);
-        letterPoints.put('N', 1);
-        letterPoints.put('R', 1);
-        letterPoints.put('T', 1);
-        letterPoints.put('L', 1);
-        letterPoints.put('S', 1);
-        letterPoints.put('U', 1);
-        letterPoints.put('D', 2);
-        letterPoints.put('G', 2);
-        letterPoints.put('B', 3);
-        letterPoints.put('C', 3);
-        letterPoints.put('M', 3);
-        letterPoints.put('P', 3);
-        letterPoints.put('F', 4);
-        letterPoints.put('H', 4);
-        letterPoints.put('V', 4);
-        letterPoints.put('W', 4);
-        letterPoints.put('Y', 4);
-        letterPoints.put('K', 5);
-        letterPoints.put('J', 8);
-        letterPoints.put('X', 8);
-        letterPoints.put('Q', 10);
-        letterPoints.put('Z', 10);
-        //Blank tile points
-        letterPoints.put(' ', 0);
-    }
-
     /**
      * Method to draw a single tile, removing it from the bag
      *
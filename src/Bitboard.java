@@ -0,0 +1,302 @@
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Class Bitboard is a set of squares on the board held as bits in an array of longs, square
+ * {@code row * size + col} being bit {@code square % 64} of long {@code square / 64}. Checks over many squares,
+ * such as whether a play leaves a gap or covers an anchor, become a few shifts and masks instead of a loop over
+ * positions. A bitboard is made for one board size, and the masks for each size are worked out once.
+ *
+ * @version 3
+ */
+public class Bitboard implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final Geometry[] GEOMETRIES = new Geometry[Board.MAX_SIZE + 1];
+
+    static {
+        for (int size = 1; size <= Board.MAX_SIZE; size++) {
+            GEOMETRIES[size] = new Geometry(size);
+        }
+    }
+
+    private final int size;
+    private final long[] words;
+    private transient Geometry geometry;
+
+    /**
+     * Constructor for an empty bitboard
+     *
+     * @param size the number of rows and columns of the board
+     */
+    public Bitboard(int size) {
+        this(geometry(size));
+    }
+
+    /**
+     * Constructor for an empty bitboard of a known geometry
+     *
+     * @param geometry the masks for the board size
+     */
+    private Bitboard(Geometry geometry) {
+        this.geometry = geometry;
+        size = geometry.size;
+        words = new long[geometry.words];
+    }
+
+    /**
+     * Copy constructor
+     *
+     * @param other the bitboard to copy
+     */
+    public Bitboard(Bitboard other) {
+        geometry = other.geometry;
+        size = other.size;
+        words = other.words.clone();
+    }
+
+    /**
+     * Creates a bitboard of the squares of some positions
+     *
+     * @param size      the number of rows and columns of the board
+     * @param positions the positions
+     * @return the bitboard
+     */
+    public static Bitboard of(int size, Collection<Position> positions) {
+        Bitboard squares = new Bitboard(size);
+        for (Position position : positions) {
+            squares.set(position.getRow() * size + position.getCol());
+        }
+        return squares;
+    }
+
+    /**
+     * Gets the squares of a column
+     *
+     * @param size the number of rows and columns of the board
+     * @param col  the column
+     * @return the bitboard of the column, which must not be changed
+     */
+    public static Bitboard column(int size, int col) {
+        return geometry(size).columns[col];
+    }
+
+    /**
+     * Getter for the board size the bitboard is for
+     *
+     * @return the number of rows and columns
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Checks if a square is in the set
+     *
+     * @param square the square
+     * @return true if it is
+     */
+    public boolean get(int square) {
+        return (words[square >>> 6] & (1L << square)) != 0;
+    }
+
+    /**
+     * Adds a square to the set
+     *
+     * @param square the square
+     */
+    public void set(int square) {
+        words[square >>> 6] |= 1L << square;
+    }
+
+    /**
+     * Removes a square from the set
+     *
+     * @param square the square
+     */
+    public void clear(int square) {
+        words[square >>> 6] &= ~(1L << square);
+    }
+
+    /**
+     * Adds every square of the board to the set
+     */
+    public void setAll() {
+        System.arraycopy(geometry.all, 0, words, 0, words.length);
+    }
+
+    /**
+     * Removes every square from the set
+     */
+    public void clearAll() {
+        Arrays.fill(words, 0);
+    }
+
+    /**
+     * Checks if the set is empty
+     *
+     * @return true if no square is in the set
+     */
+    public boolean isEmpty() {
+        long any = 0;
+        for (long word : words) {
+            any |= word;
+        }
+        return any == 0;
+    }
+
+    /**
+     * Counts the squares in the set
+     *
+     * @return the number of squares
+     */
+    public int count() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Gets the lowest square in the set
+     *
+     * @return the square, or -1 if the set is empty
+     */
+    public int first() {
+        for (int word = 0; word < words.length; word++) {
+            if (words[word] != 0) {
+                return word * 64 + Long.numberOfTrailingZeros(words[word]);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the highest square in the set
+     *
+     * @return the square, or -1 if the set is empty
+     */
+    public int last() {
+        for (int word = words.length - 1; word >= 0; word--) {
+            if (words[word] != 0) {
+                return word * 64 + 63 - Long.numberOfLeadingZeros(words[word]);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the lowest square in the set from a given square on, for walking the set in order
+     *
+     * @param from the square to start from
+     * @return the square, or -1 if there is none
+     */
+    public int next(int from) {
+        if (from >= geometry.squares) {
+            return -1;
+        }
+        int word = from >>> 6;
+        long bits = words[word] & (-1L << from);
+        while (bits == 0) {
+            if (++word == words.length) {
+                return -1;
+            }
+            bits = words[word];
+        }
+        return word * 64 + Long.numberOfTrailingZeros(bits);
+    }
+
+    /**
+     * Checks if the set shares a square with another
+     *
+     * @param other the other set
+     * @return true if some square is in both
+     */
+    public boolean intersects(Bitboard other) {
+        long shared = 0;
+        for (int word = 0; word < words.length; word++) {
+            shared |= words[word] & other.words[word];
+        }
+        return shared != 0;
+    }
+
+    /**
+     * Checks if every square of a run, or every square of the run in a mask, is in this set or another
+     *
+     * @param from  the first square of the run
+     * @param to    the square after the last
+     * @param mask  the squares to check, or null for the whole run
+     * @param other a set whose squares count as well, or null for this set alone
+     * @return true if no square to check is missing from both sets
+     */
+    public boolean containsRange(int from, int to, Bitboard mask, Bitboard other) {
+        long missing = 0;
+        for (int word = from >>> 6; word < words.length && word * 64 < to; word++) {
+            int low = Math.max(from, word * 64) - word * 64;
+            int high = Math.min(to, word * 64 + 64) - word * 64;
+            long run = ((high == 64) ? -1L : (1L << high) - 1) & (-1L << low);
+            if (mask != null) {
+                run &= mask.words[word];
+            }
+            missing |= run & ~words[word] & ((other != null) ? ~other.words[word] : -1L);
+        }
+        return missing == 0;
+    }
+
+    /**
+     * Gets the masks for a board size
+     *
+     * @param size the number of rows and columns
+     * @return the geometry
+     */
+    private static Geometry geometry(int size) {
+        if (size < 1 || size > Board.MAX_SIZE) {
+            throw new IllegalArgumentException("Board size must be from 1 to " + Board.MAX_SIZE + ", not " + size);
+        }
+        return GEOMETRIES[size];
+    }
+
+    /**
+     * Finds the shared masks again after a bitboard is read from a saved game
+     *
+     * @param in the stream the bitboard is read from
+     * @throws IOException            if the stream cannot be read
+     * @throws ClassNotFoundException if a class in the stream cannot be found
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        geometry = geometry(size);
+    }
+
+    /**
+     * The masks for one board size: every square, and each column
+     */
+    private static final class Geometry {
+        private final int size;
+        private final int squares;
+        private final int words;
+        private final long[] all;
+        private final Bitboard[] columns;
+
+        private Geometry(int size) {
+            this.size = size;
+            squares = size * size;
+            words = (squares + 63) / 64;
+            all = new long[words];
+            columns = new Bitboard[size];
+            for (int col = 0; col < size; col++) {
+                columns[col] = new Bitboard(this);
+            }
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    int square = row * size + col;
+                    all[square >>> 6] |= 1L << square;
+                    columns[col].set(square);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * Class BloomFilter is a compact, approximate set of words. It never rejects a word that was added,
+ * but accepts a word that was not added with a probability chosen when the filter is built. Checking a word
+ * reads a few bits from one table and allocates nothing, so it can cheaply reject most impossible words
+ * before an exact lookup.
+ *
+ * @version 1
+ */
+public class BloomFilter {
+    private final long[] bits;
+    private final int bitCount;
+    private final int hashCount;
+
+    /**
+     * Constructor for class BloomFilter
+     *
+     * @param expectedWords     the number of words that will be added
+     * @param falsePositiveRate the chance of accepting a word that was not added, between 0 and 1
+     */
+    public BloomFilter(int expectedWords, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1: " + falsePositiveRate);
+        }
+        // optimal sizes: m = -n ln p / (ln 2)^2 bits and k = m / n ln 2 hashes
+        long optimalBits = (long) Math.ceil(-Math.max(1, expectedWords) * Math.log(falsePositiveRate)
+                / (Math.log(2) * Math.log(2)));
+        bitCount = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, optimalBits));
+        hashCount = Math.max(1, (int) Math.round((double) bitCount / Math.max(1, expectedWords) * Math.log(2)));
+        bits = new long[(bitCount + 63) / 64];
+    }
+
+    /**
+     * Creates a filter holding every word of a lexicon
+     *
+     * @param lexicon           the lexicon
+     * @param falsePositiveRate the chance of accepting a word that is not in the lexicon
+     * @return the filter
+     */
+    public static BloomFilter of(WordList lexicon, double falsePositiveRate) {
+        BloomFilter filter = new BloomFilter(lexicon.size(), falsePositiveRate);
+        lexicon.forEachWord(filter::add);
+        return filter;
+    }
+
+    /**
+     * Adds a word to the filter
+     *
+     * @param word the word, made only of letters
+     */
+    public void add(CharSequence word) {
+        long hash = hash(word);
+        if (hash == 0) {
+            return;
+        }
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = Integer.remainderUnsigned(h1 + i * h2, bitCount);
+            bits[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    /**
+     * Checks if a word may have been added
+     *
+     * @param word the word to check
+     * @return false if the word was certainly not added, true if it probably was
+     */
+    public boolean mightContain(CharSequence word) {
+        long hash = hash(word);
+        if (hash == 0) {
+            return false;
+        }
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = Integer.remainderUnsigned(h1 + i * h2, bitCount);
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Getter for the size of the bit table
+     *
+     * @return the number of bits
+     */
+    public int getBitCount() {
+        return bitCount;
+    }
+
+    /**
+     * Getter for the number of bits set for each word
+     *
+     * @return the number of hashes
+     */
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    /**
+     * Hashes the letters of a word, ignoring case. The two halves of the hash give the start and step of
+     * the bits for the word.
+     *
+     * @param word the word
+     * @return the hash, or 0 if the word is empty or has a character that is not a letter
+     */
+    private static long hash(CharSequence word) {
+        if (word.length() == 0) {
+            return 0;
+        }
+        long hash = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < word.length(); i++) {
+            int letter = Lexicon.letterIndex(word.charAt(i));
+            if (letter < 0) {
+                return 0;
+            }
+            hash = (hash ^ (letter + 1)) * 0x100000001B3L;
+        }
+        // MurmurHash3 finalizer, so every letter affects every bit of both halves
+        hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+        hash = (hash ^ (hash >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return (hash == 0) ? 1 : hash;
+    }
+}
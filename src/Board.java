@@ -14,72 +14,226 @@ import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
- * Class Board models a board in a game of scrabble
+ * Class Board models a board in a game of scrabble.
+ * The squares are stored packed: one byte per square for its letter, and one bit per square in each of
+ * an occupancy bitboard and a blank tile bitboard, so scanning the board reads a few small arrays and
+ * copying it is a handful of array copies. The Position objects handed out are views of their square on the board.
+ * <p>
+ * Copies share their arrays with the board they were made from until one of the two is changed, which
+ * then copies the arrays for itself. A snapshot is such a copy that cannot be changed: it can be read
+ * from other threads while the game goes on, and forked into boards on which moves can be tried out.
  * @author Nick Fuda
  * @author Andrew Roberts
  * @version 2
  */
 public class Board implements Serializable {
-    private Position[][] board;
-    private HashMap<String, Integer> premiumPositions = new HashMap<>();
+    public static final int SIZE = 15; // rows and columns of a standard board
+    public static final int MAX_SIZE = 21; // rows and columns of the largest board, a super board
+    public static final int NO_PREMIUM = 0;
+    public static final int DOUBLE_LETTER = 2;
+    public static final int DOUBLE_WORD = 3;
+    public static final int TRIPLE_LETTER = 4;
+    public static final int TRIPLE_WORD = 5;
+    public static final int ALL_LETTERS = (1 << 26) - 1; // cross-check mask allowing every letter, bit 0 is A
+
+    private final int size; // rows and columns
+    private final int squares;
+    private final int center; // the square the first play covers, H8 on a standard board
+    private byte[] letters; // the letter on each square, 0 if empty
+    private Bitboard occupied; // the squares holding a tile
+    private Bitboard blanks; // the squares holding a blank tile
+    private Bitboard anchors; // the empty squares a play must cover one of
+    private Tile[] tiles; // the tiles placed, for callers that need the tile itself
+    private final Position[] positions; // made when first asked for
+    private byte[] premiums; // the premium of each square, NO_PREMIUM for none
+    private Bitboard usedPremiums; // premium squares already scored, which count as plain squares
+    private int[] acrossChecks; // letters an across play may put on each empty square
+    private int[] downChecks; // letters a down play may put on each empty square
+    private long key; // the Zobrist key of the tiles placed and premiums used
+    private boolean shared; // true while the arrays are shared with a copy, so must be copied before a change
+    private final boolean readOnly; // true for a snapshot
 
+    /**
+     * Constructor for a standard board with the standard premium squares
+     */
     public Board() {
-        board = new Position[15][15];
-        initializeBoard();
+        this(SIZE);
         initDefaultPremiums();
     }
 
     /**
-     *  Constructor for custom board
+     * Constructor for an empty board of any size, without premium squares
+     * @param size the number of rows and columns, from 1 to MAX_SIZE
+     */
+    public Board(int size) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Board size must be from 1 to " + MAX_SIZE + ", not " + size);
+        }
+        this.size = size;
+        squares = size * size;
+        center = (size / 2) * size + size / 2;
+        readOnly = false;
+        letters = new byte[squares];
+        tiles = new Tile[squares];
+        positions = new Position[squares];
+        premiums = new byte[squares];
+        occupied = new Bitboard(size);
+        blanks = new Bitboard(size);
+        anchors = new Bitboard(size);
+        anchors.set(center);
+        usedPremiums = new Bitboard(size);
+        acrossChecks = new int[squares];
+        downChecks = new int[squares];
+        Arrays.fill(acrossChecks, ALL_LETTERS);
+        Arrays.fill(downChecks, ALL_LETTERS);
+    }
+
+    /**
+     *  Constructor for custom board, of the size the XML gives or the standard size if it gives none
      * @param customName the name of the file where the board XML is stored.
+     * @throws IllegalArgumentException if the file cannot be read or is not a board layout
      */
     public Board(String customName){
-        board = new Position[15][15];
-        initializeBoard();
-        importCustomBoardXML(customName);
+        this(readLayout(customName));
     }
 
     /**
-     * Initialize the board with empty spaces and an array for tile positions
+     * Constructor for a board laid out from XML
+     * @param layout the layout read
      */
-    private void initializeBoard() {
-        for (int i = 0; i < 15; i++) {
-            for (int j = 0; j < 15; j++) {
-                board[i][j] = new Position(i, j); // each position is empty initially
-            }
+    private Board(BoardHandler layout) {
+        this(layout.size);
+        applyLayout(layout);
+    }
+
+    /**
+     * Copy constructor, the copy shares the other board's arrays until either board is changed
+     * @param other the board to copy
+     * @param readOnly true to make a snapshot
+     */
+    private Board(Board other, boolean readOnly) {
+        size = other.size;
+        squares = other.squares;
+        center = other.center;
+        positions = new Position[squares];
+        letters = other.letters;
+        occupied = other.occupied;
+        blanks = other.blanks;
+        anchors = other.anchors;
+        tiles = other.tiles;
+        premiums = other.premiums;
+        usedPremiums = other.usedPremiums;
+        acrossChecks = other.acrossChecks;
+        downChecks = other.downChecks;
+        key = other.key;
+        shared = true;
+        other.shared = true;
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * Copies the board, sharing the tiles but none of the squares
+     * @return the copy
+     */
+    public Board copy() {
+        return fork();
+    }
+
+    /**
+     * Takes a snapshot of the board's squares, premiums and cross-checks, which no later change to the board
+     * affects. It costs no more than a fork, as the arrays are only copied when the board is next changed.
+     * @return the snapshot, which throws UnsupportedOperationException if changed
+     */
+    public Board snapshot() {
+        return new Board(this, true);
+    }
+
+    /**
+     * Makes a board to try moves on, starting from this board or snapshot. Neither board sees the
+     * other's changes.
+     * @return the fork
+     */
+    public Board fork() {
+        return new Board(this, false);
+    }
+
+    /**
+     * Checks if the board is a snapshot
+     * @return true if it cannot be changed
+     */
+    public boolean isSnapshot() {
+        return readOnly;
+    }
+
+    /**
+     * Gets the board ready to be changed, copying any arrays it shares with a copy
+     */
+    private void beforeChange() {
+        if (readOnly) {
+            throw new UnsupportedOperationException("A board snapshot cannot be changed, fork it instead");
+        }
+        if (shared) {
+            letters = letters.clone();
+            occupied = new Bitboard(occupied);
+            blanks = new Bitboard(blanks);
+            anchors = new Bitboard(anchors);
+            tiles = tiles.clone();
+            premiums = premiums.clone();
+            usedPremiums = new Bitboard(usedPremiums);
+            acrossChecks = acrossChecks.clone();
+            downChecks = downChecks.clone();
+            shared = false;
         }
     }
 
+    /**
+     * Getter for the size of the board
+     * @return the number of rows, which is also the number of columns
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Getter for the center square, which the first play must cover
+     * @return the square, row * size + col
+     */
+    public int getCenter() {
+        return center;
+    }
+
     /**
      *  Display the board in the console, used mostly for debugging
      */
     public void displayBoard() {
         System.out.print("\t  "); // Initial spacing for column headers
-        for (char j = 'A'; j < 'P'; j++) {
+        for (char j = 'A'; j < 'A' + size; j++) {
             System.out.print(j + "\t  "); // Print column numbers
         }
         System.out.println(); // New line after column headers
         System.out.print("\t-");
-        for (int j = 0; j < 15; j++) {
+        for (int j = 0; j < size; j++) {
             System.out.print("----"); // Print top horizontal border
         }
         System.out.println();
 
-        for (int i = 0; i < 15; i++) {
+        for (int i = 0; i < size; i++) {
             System.out.print(i + 1 + "\t"); // Print row numbers
-            for (int j = 0; j < 15; j++) {
-                char tile = board[i][j].isOccupied() ? board[i][j].getTile().getLetter() : ' ';
-                System.out.print("| " + tile + " "); // Print the cell with vertical borders
+            for (int j = 0; j < size; j++) {
+                System.out.print("| " + getLetter(i, j) + " "); // Print the cell with vertical borders
             }
             System.out.println("|"); // End of row with a vertical border
 
             // Print horizontal border
             System.out.print("\t"); // Initial spacing for row border
-            for (int j = 0; j < 15; j++) {
+            for (int j = 0; j < size; j++) {
                 System.out.print("----"); // Print horizontal borders between cells
             }
             System.out.println("-"); // End of row with a horizontal border
@@ -93,10 +247,170 @@ public class Board implements Serializable {
      * @return the position
      */
     public Position getPosition(int row, int col) {
-        if (row < 0 || row >= 15 || col < 0 || col >= 15) {
+        if (row < 0 || row >= size || col < 0 || col >= size) {
             return null;
         }
-        return board[row][col];
+        int square = row * size + col;
+        Position position = positions[square];
+        if (position == null) {
+            position = new Position(this, row, col);
+            if (!readOnly) {
+                positions[square] = position; // snapshots may be read by many threads, so make a new view each time
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Checks if a square holds a tile
+     * @param row the row of the square
+     * @param col the column of the square
+     * @return true if occupied, false if empty or off the board
+     */
+    public boolean isOccupied(int row, int col) {
+        if (row < 0 || row >= size || col < 0 || col >= size) {
+            return false;
+        }
+        return occupied.get(row * size + col);
+    }
+
+    /**
+     * Getter for the squares holding a tile, kept up to date as tiles are placed and taken back
+     * @return the occupancy bitboard, which must not be changed
+     */
+    public Bitboard getOccupancy() {
+        return occupied;
+    }
+
+    /**
+     * Getter for the Zobrist key of the board, which identifies the tiles on it, blanks included, and the
+     * premium squares used. Kept up to date as tiles are placed and taken back and premiums are used.
+     * @return the key, the same for any two boards in the same state
+     */
+    public long getKey() {
+        return key;
+    }
+
+    /**
+     * Getter for the anchor squares, the empty squares next to a tile, or the center square on an empty
+     * board. Every play covers at least one of them. Kept up to date as tiles are placed and taken back.
+     * @return the anchor bitboard, which must not be changed
+     */
+    public Bitboard getAnchors() {
+        return anchors;
+    }
+
+    /**
+     * Updates the anchors after the square given changed between empty and occupied. Only that square
+     * and its neighbours can have changed, and the center square when the board became empty or stopped being.
+     * @param square the square that changed
+     */
+    private void updateAnchors(int square) {
+        int row = square / size;
+        int col = square % size;
+        updateAnchor(row, col);
+        updateAnchor(row - 1, col);
+        updateAnchor(row + 1, col);
+        updateAnchor(row, col - 1);
+        updateAnchor(row, col + 1);
+        updateAnchor(center / size, center % size);
+    }
+
+    /**
+     * Works out if a square is an anchor
+     * @param row the row of the square
+     * @param col the column of the square, ignored with the row if off the board
+     */
+    private void updateAnchor(int row, int col) {
+        if (row < 0 || row >= size || col < 0 || col >= size) {
+            return;
+        }
+        int square = row * size + col;
+        boolean anchor = !occupied.get(square) && (isOccupied(row - 1, col) || isOccupied(row + 1, col)
+                || isOccupied(row, col - 1) || isOccupied(row, col + 1) || (square == center && occupied.isEmpty()));
+        if (anchor) {
+            anchors.set(square);
+        } else {
+            anchors.clear(square);
+        }
+    }
+
+    /**
+     * Gets the letter on a square
+     * @param row the row of the square
+     * @param col the column of the square
+     * @return the letter, or a space if the square is empty
+     */
+    public char getLetter(int row, int col) {
+        byte letter = letters[row * size + col];
+        return (letter == 0) ? ' ' : (char) letter;
+    }
+
+    /**
+     * Checks if the tile on a square is a blank tile
+     * @param row the row of the square
+     * @param col the column of the square
+     * @return true if the square holds a blank tile
+     */
+    public boolean isBlank(int row, int col) {
+        return blanks.get(row * size + col);
+    }
+
+    /**
+     * Gets the tile on a square
+     * @param row the row of the square
+     * @param col the column of the square
+     * @return the tile, or null if the square is empty
+     */
+    public Tile getTile(int row, int col) {
+        return tiles[row * size + col];
+    }
+
+    /**
+     * Puts a tile on a square or takes it off, keeping the packed squares up to date
+     * @param row the row of the square
+     * @param col the column of the square
+     * @param tile the tile, or null to empty the square
+     */
+    void setTile(int row, int col, Tile tile) {
+        beforeChange();
+        int square = row * size + col;
+        if (tiles[square] != null) {
+            key ^= Zobrist.tile(square, (char) letters[square], blanks.get(square));
+        }
+        tiles[square] = tile;
+        if (tile == null) {
+            letters[square] = 0;
+            occupied.clear(square);
+            blanks.clear(square);
+        } else {
+            letters[square] = (byte) tile.getLetter();
+            occupied.set(square);
+            if (tile.isBlank()) {
+                blanks.set(square);
+            } else {
+                blanks.clear(square);
+            }
+            key ^= Zobrist.tile(square, tile.getLetter(), tile.isBlank());
+        }
+        updateAnchors(square);
+    }
+
+    /**
+     * Marks a square as occupied or empty without changing its tile
+     * @param row the row of the square
+     * @param col the column of the square
+     * @param isOccupied true to mark the square occupied
+     */
+    void setOccupied(int row, int col, boolean isOccupied) {
+        beforeChange();
+        int square = row * size + col;
+        if (isOccupied) {
+            occupied.set(square);
+        } else {
+            occupied.clear(square);
+        }
+        updateAnchors(square);
     }
 
     /**
@@ -108,14 +422,13 @@ public class Board implements Serializable {
      */
     public boolean placeTile(Tile tile, int row, int col) {
         // checks if row and column provided are within board boundaries
-        if (row < 0 || row >= 15 || col < 0 || col >= 15) {
+        if (row < 0 || row >= size || col < 0 || col >= size) {
             System.out.println("invalid position: out of bounds");
             return false;
         }
-        Position pos = board[row][col];
         // checks if position is occupied, adding the tile to the board if it isn't
-        if (!pos.isOccupied()) {
-            pos.setTile(tile);
+        if (!isOccupied(row, col)) {
+            setTile(row, col, tile);
             return true;
         }
         // position occupied
@@ -148,10 +461,30 @@ public class Board implements Serializable {
         col = colChar - 'A';
 
         // check if row and column are within bounds
-        if (row < 0 || row >= 15 || col < 0 || col >= 15) {
+        return getPosition(row, col);
+    }
+
+    /**
+     * Converts a square key, as used in board XML files and the premium map, to a place on the array
+     * @param key the row number followed by the column letter (e.g. 8H)
+     * @return the position on the board, or null if the key is not a square on the board
+     */
+    private Position parseSquareKey(String key) {
+        if (key == null || key.length() < 2) {
+            return null;
+        }
+        key = key.trim().toUpperCase();
+        int col = key.charAt(key.length() - 1) - 'A';
+        int row;
+        try {
+            row = Integer.parseInt(key.substring(0, key.length() - 1)) - 1;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (row < 0 || row >= size || col < 0 || col >= size) {
             return null;
         }
-        return board[row][col];
+        return getPosition(row, col);
     }
 
     /**
@@ -160,64 +493,111 @@ public class Board implements Serializable {
      */
     public Map<Map<Position, Tile>, String> gatherWordsOnBoard() {
         Map<Map<Position, Tile>, String> wordsToTiles = new HashMap<>();
+        for (int line = 0; line < size; line++) {
+            gatherWords(line * size, 1, wordsToTiles); // horizontal words
+            gatherWords(line, size, wordsToTiles); // vertical words
+        }
+        return wordsToTiles;
+    }
 
-        // check horizontal words
-        for (int row = 0; row < 15; row++) {
-            StringBuilder currentWord = new StringBuilder();
-            Map<Position, Tile> currentTiles = new HashMap<>();
-
-            for (int col = 0; col < 15; col++) {
-                Position position = this.getPosition(row, col);
-                if (position.isOccupied()) {
-                    currentWord.append(position.getTile().getLetter());
-                    currentTiles.put(position, position.getTile());
-                } else {
-                    if (currentWord.length() > 1) {
-                        wordsToTiles.put(new HashMap<>(currentTiles), currentWord.toString());
-                    }
-                    currentWord.setLength(0); // reset word
-                    currentTiles.clear(); // reset tile list
-                }
+    /**
+     * Gathers the words of two or more letters along one row or column
+     * @param first the first square of the line
+     * @param step the distance between squares along the line, 1 for a row or size for a column
+     * @param wordsToTiles the map to add the words to
+     */
+    private void gatherWords(int first, int step, Map<Map<Position, Tile>, String> wordsToTiles) {
+        int end = first + step * size;
+        int square = first;
+        while (square < end) {
+            if (!occupied.get(square)) {
+                square += step;
+                continue;
             }
-            if (currentWord.length() > 1) {
-                wordsToTiles.put(new HashMap<>(currentTiles), currentWord.toString());
+            int start = square;
+            while (square < end && occupied.get(square)) {
+                square += step;
             }
-        }
-        // check vertical words
-        for (int col = 0; col < 15; col++) {
-            StringBuilder currentWord = new StringBuilder();
-            Map<Position, Tile> currentTiles = new HashMap<>();
-
-            for (int row = 0; row < 15; row++) {
-                Position position = this.getPosition(row, col);
-                if (position.isOccupied()) {
-                    currentWord.append(position.getTile().getLetter());
-                    currentTiles.put(position, position.getTile());
-                } else {
-                    if (currentWord.length() > 1) {
-                        wordsToTiles.put(new HashMap<>(currentTiles), currentWord.toString());
-                    }
-                    currentWord.setLength(0); // reset word
-                    currentTiles.clear(); // reset tile list
+            int length = (square - start) / step;
+            if (length > 1) {
+                char[] word = new char[length];
+                Map<Position, Tile> wordTiles = new HashMap<>();
+                for (int i = 0; i < length; i++) {
+                    int s = start + i * step;
+                    word[i] = (char) letters[s];
+                    wordTiles.put(getPosition(s / size, s % size), tiles[s]);
                 }
+                wordsToTiles.put(wordTiles, new String(word));
             }
-            if (currentWord.length() > 1) {
-                wordsToTiles.put(new HashMap<>(currentTiles), currentWord.toString());
+        }
+    }
+
+    /**
+     * Finds the words a play makes, walking out from the tiles placed rather than scanning the board:
+     * the main word along the play and the cross-word through each placed tile. Only words of two or more
+     * letters are returned. The tiles are either on the board or laid over it, in a line with no gaps, so a
+     * play can be checked and scored without changing the board.
+     * @param overlay the tiles of the play by square, or null if they are on the board
+     * @param placed the squares of the tiles placed
+     * @param count the number of tiles placed
+     * @return the words made by the play, the main word first
+     */
+    public List<WordSpan> wordsThrough(Tile[] overlay, int[] placed, int count) {
+        List<WordSpan> words = new ArrayList<>(count + 1);
+        boolean horizontal = count < 2 || placed[0] / size == placed[1] / size;
+        addWordThrough(placed[0], horizontal, overlay, words);
+        for (int i = 0; i < count; i++) {
+            addWordThrough(placed[i], !horizontal, overlay, words);
+        }
+        return words;
+    }
+
+    /**
+     * Adds the word through a square in one direction, if it has two or more letters
+     * @param square the square
+     * @param horizontal true to read across the row, false to read down the column
+     * @param overlay the tiles of the play by square, or null if they are on the board
+     * @param words the list to add the word to
+     */
+    private void addWordThrough(int square, boolean horizontal, Tile[] overlay, List<WordSpan> words) {
+        int step = horizontal ? 1 : size;
+        int along = horizontal ? square % size : square / size;
+        int start = along;
+        while (start > 0 && getTile(square - (along - start + 1) * step, overlay) != null) {
+            start--;
+        }
+        int end = along;
+        while (end < size - 1 && getTile(square + (end - along + 1) * step, overlay) != null) {
+            end++;
+        }
+        if (end > start) {
+            int first = square - (along - start) * step;
+            char[] word = new char[end - start + 1];
+            for (int i = 0; i < word.length; i++) {
+                word[i] = getTile(first + i * step, overlay).getLetter();
             }
+            words.add(new WordSpan(first / size, first % size, horizontal, new String(word)));
         }
-        return wordsToTiles;
+    }
+
+    /**
+     * Gets the tile on a square, or the tile a play lays over it
+     * @param square the square, {@code row * size + col}
+     * @param overlay the tiles of the play by square, or null for the board alone
+     * @return the tile, or null if the square is empty
+     */
+    public Tile getTile(int square, Tile[] overlay) {
+        Tile tile = (overlay != null) ? overlay[square] : null;
+        return (tile != null) ? tile : tiles[square];
     }
 
     /**
      * method to set all board positions to occupied (for testing)
      */
     public void setAllPositionsOccupied() {
-        for (int row = 0; row < 15; row++) {
-            for (int col = 0; col < 15; col++) {
-                Position position = getPosition(row, col);
-                position.setOccupied(true);
-            }
-        }
+        beforeChange();
+        occupied.setAll();
+        anchors.clearAll();
     }
 
     /**
@@ -227,181 +607,354 @@ public class Board implements Serializable {
         //2LS (double letter square)
         int doubleLetterScore = 2;
         Position a4 = new Position(3,0);
-        premiumPositions.put(a4.toString(),doubleLetterScore);
+        setPremium(a4, doubleLetterScore);
         Position a12 = new Position(11,0);
-        premiumPositions.put(a12.toString(),doubleLetterScore);
+        setPremium(a12, doubleLetterScore);
         Position c7 = new Position(6,2);
-        premiumPositions.put(c7.toString(),doubleLetterScore);
+        setPremium(c7, doubleLetterScore);
         Position c9 = new Position(8,2);
-        premiumPositions.put(c9.toString(),doubleLetterScore);
+        setPremium(c9, doubleLetterScore);
         Position d1= new Position(0,3);
-        premiumPositions.put(d1.toString(),doubleLetterScore);
+        setPremium(d1, doubleLetterScore);
         Position d8 = new Position(7,3);
-        premiumPositions.put(d8.toString(),doubleLetterScore);
+        setPremium(d8, doubleLetterScore);
         Position d15 = new Position(14,3);
-        premiumPositions.put(d15.toString(),doubleLetterScore);
+        setPremium(d15, doubleLetterScore);
         Position g3 = new Position(2,6);
-        premiumPositions.put(g3.toString(),doubleLetterScore);
+        setPremium(g3, doubleLetterScore);
         Position g7 = new Position(6,6);
-        premiumPositions.put(g7.toString(),doubleLetterScore);
+        setPremium(g7, doubleLetterScore);
         Position g9 = new Position(8,6);
-        premiumPositions.put(g9.toString(),doubleLetterScore);
+        setPremium(g9, doubleLetterScore);
         Position g13 = new Position(12,6);
-        premiumPositions.put(g13.toString(),doubleLetterScore);
+        setPremium(g13, doubleLetterScore);
         Position h4 = new Position(3,7);
-        premiumPositions.put(h4.toString(),doubleLetterScore);
+        setPremium(h4, doubleLetterScore);
         Position h12 = new Position(11,7);
-        premiumPositions.put(h12.toString(),doubleLetterScore);
+        setPremium(h12, doubleLetterScore);
         Position i3 = new Position(2,8);
-        premiumPositions.put(i3.toString(),doubleLetterScore);
+        setPremium(i3, doubleLetterScore);
         Position i7 = new Position(6,8);
-        premiumPositions.put(i7.toString(),doubleLetterScore);
+        setPremium(i7, doubleLetterScore);
         Position i9 = new Position(8,8);
-        premiumPositions.put(i9.toString(),doubleLetterScore);
+        setPremium(i9, doubleLetterScore);
         Position i13 = new Position(12,8);
-        premiumPositions.put(i13.toString(),doubleLetterScore);
+        setPremium(i13, doubleLetterScore);
         Position l1 = new Position(0,11);
-        premiumPositions.put(l1.toString(),doubleLetterScore);
+        setPremium(l1, doubleLetterScore);
         Position l8 = new Position(7,11);
-        premiumPositions.put(l8.toString(),doubleLetterScore);
+        setPremium(l8, doubleLetterScore);
         Position l15 = new Position(14,11);
-        premiumPositions.put(l15.toString(),doubleLetterScore);
+        setPremium(l15, doubleLetterScore);
         Position m7= new Position(6,12);
-        premiumPositions.put(m7.toString(),doubleLetterScore);
+        setPremium(m7, doubleLetterScore);
         Position m9= new Position(8,12);
-        premiumPositions.put(m9.toString(),doubleLetterScore);
+        setPremium(m9, doubleLetterScore);
         Position o4= new Position(3,14);
-        premiumPositions.put(o4.toString(),doubleLetterScore);
+        setPremium(o4, doubleLetterScore);
         Position o12= new Position(11,14);
-        premiumPositions.put(o12.toString(),doubleLetterScore);
+        setPremium(o12, doubleLetterScore);
 
         //2WS (double word square)
         int doubleWordSquare = 3;
         Position b2= new Position(1,1);
-        premiumPositions.put(b2.toString(),doubleWordSquare);
+        setPremium(b2, doubleWordSquare);
         Position b14= new Position(13,1);
-        premiumPositions.put(b14.toString(),doubleWordSquare);
+        setPremium(b14, doubleWordSquare);
         Position c3= new Position(2,2);
-        premiumPositions.put(c3.toString(),doubleWordSquare);
+        setPremium(c3, doubleWordSquare);
         Position c13= new Position(12,2);
-        premiumPositions.put(c13.toString(),doubleWordSquare);
+        setPremium(c13, doubleWordSquare);
         Position d4= new Position(3,3);
-        premiumPositions.put(d4.toString(),doubleWordSquare);
+        setPremium(d4, doubleWordSquare);
         Position d12= new Position(11,3);
-        premiumPositions.put(d12.toString(),doubleWordSquare);
+        setPremium(d12, doubleWordSquare);
         Position e5= new Position(4,4);
-        premiumPositions.put(e5.toString(),doubleWordSquare);
+        setPremium(e5, doubleWordSquare);
         Position e11= new Position(10,4);
-        premiumPositions.put(e11.toString(),doubleWordSquare);
+        setPremium(e11, doubleWordSquare);
         Position h8 = new Position(7,7);
-        premiumPositions.put(h8.toString(), doubleWordSquare);
+        setPremium(h8, doubleWordSquare);
         Position k5= new Position(4,10);
-        premiumPositions.put(k5.toString(),doubleWordSquare);
+        setPremium(k5, doubleWordSquare);
         Position k11= new Position(10,10);
-        premiumPositions.put(k11.toString(),doubleWordSquare);
+        setPremium(k11, doubleWordSquare);
         Position l4= new Position(3,11);
-        premiumPositions.put(l4.toString(),doubleWordSquare);
+        setPremium(l4, doubleWordSquare);
         Position l12= new Position(11,11);
-        premiumPositions.put(l12.toString(),doubleWordSquare);
+        setPremium(l12, doubleWordSquare);
         Position m3= new Position(2,12);
-        premiumPositions.put(m3.toString(),doubleWordSquare);
+        setPremium(m3, doubleWordSquare);
         Position m13= new Position(12,12);
-        premiumPositions.put(m13.toString(),doubleWordSquare);
+        setPremium(m13, doubleWordSquare);
         Position n2= new Position(1,13);
-        premiumPositions.put(n2.toString(),doubleWordSquare);
+        setPremium(n2, doubleWordSquare);
         Position n14= new Position(13,13);
-        premiumPositions.put(n14.toString(),doubleWordSquare);
+        setPremium(n14, doubleWordSquare);
 
         //3LS (triple letter square)
         int tripleLetterSquare = 4;
         Position b6 = new Position(5,1);
-        premiumPositions.put(b6.toString(),tripleLetterSquare);
+        setPremium(b6, tripleLetterSquare);
         Position b10= new Position(9,1);
-        premiumPositions.put(b10.toString(),tripleLetterSquare);
+        setPremium(b10, tripleLetterSquare);
         Position f2 = new Position(1,5);
-        premiumPositions.put(f2.toString(),tripleLetterSquare);
+        setPremium(f2, tripleLetterSquare);
         Position f6 = new Position(5,5);
-        premiumPositions.put(f6.toString(),tripleLetterSquare);
+        setPremium(f6, tripleLetterSquare);
         Position f10= new Position(9,5);
-        premiumPositions.put(f10.toString(),tripleLetterSquare);
+        setPremium(f10, tripleLetterSquare);
         Position f14= new Position(13,5);
-        premiumPositions.put(f14.toString(),tripleLetterSquare);
+        setPremium(f14, tripleLetterSquare);
         Position j2 = new Position(1,9);
-        premiumPositions.put(j2.toString(),tripleLetterSquare);
+        setPremium(j2, tripleLetterSquare);
         Position j6 = new Position(5,9);
-        premiumPositions.put(j6.toString(),tripleLetterSquare);
+        setPremium(j6, tripleLetterSquare);
         Position j10= new Position(9,9);
-        premiumPositions.put(j10.toString(),tripleLetterSquare);
+        setPremium(j10, tripleLetterSquare);
         Position j14= new Position(13,9);
-        premiumPositions.put(j14.toString(),tripleLetterSquare);
+        setPremium(j14, tripleLetterSquare);
         Position n6 = new Position(5,13);
-        premiumPositions.put(n6.toString(),tripleLetterSquare);
+        setPremium(n6, tripleLetterSquare);
         Position n10= new Position(9,13);
-        premiumPositions.put(n10.toString(),tripleLetterSquare);
+        setPremium(n10, tripleLetterSquare);
 
         //3WS (triple word square)
         int tripleWordSquare = 5;
         Position a1= new Position(0,0);
-        premiumPositions.put(a1.toString(),tripleWordSquare);
+        setPremium(a1, tripleWordSquare);
         Position a8= new Position(7,0);
-        premiumPositions.put(a8.toString(),tripleWordSquare);
+        setPremium(a8, tripleWordSquare);
         Position a15= new Position(14,0);
-        premiumPositions.put(a15.toString(),tripleWordSquare);
+        setPremium(a15, tripleWordSquare);
         Position h1= new Position(0,7);
-        premiumPositions.put(h1.toString(),tripleWordSquare);
+        setPremium(h1, tripleWordSquare);
         Position h15= new Position(14,7);
-        premiumPositions.put(h15.toString(),tripleWordSquare);
+        setPremium(h15, tripleWordSquare);
         Position o1= new Position(0,14);
-        premiumPositions.put(o1.toString(),tripleWordSquare);
+        setPremium(o1, tripleWordSquare);
         Position o8= new Position(7,14);
-        premiumPositions.put(o8.toString(),tripleWordSquare);
+        setPremium(o8, tripleWordSquare);
         Position o15= new Position(14,14);
-        premiumPositions.put(o15.toString(),tripleWordSquare);
+        setPremium(o15, tripleWordSquare);
+    }
+
+    /**
+     * Gets the letters that may be placed on a square, those that make a valid word, if any, across the
+     * direction of play. Bit 0 stands for A and bit 25 for Z.
+     * @param row the row of the square
+     * @param col the column of the square
+     * @param horizontal true for a play across a row, false for one down a column
+     * @return the mask of letters, ALL_LETTERS if no tile borders the square across the play and 0 if the
+     * square is occupied
+     */
+    public int getCrossChecks(int row, int col, boolean horizontal) {
+        int square = row * size + col;
+        return horizontal ? acrossChecks[square] : downChecks[square];
+    }
+
+    /**
+     * Updates the cross-checks after a play. Only the empty squares at either end of the lines of tiles
+     * through the placed tiles can have gained or changed a crossing word, so only those are checked.
+     * @param placed the positions of the tiles placed
+     * @param dictionary the set of valid words
+     */
+    public void updateCrossChecks(List<Position> placed, WordSet dictionary) {
+        beforeChange();
+        Bitboard across = new Bitboard(size); // squares whose word down the column changed
+        Bitboard down = new Bitboard(size); // squares whose word along the row changed
+        for (Position position : placed) {
+            int row = position.getRow();
+            int col = position.getCol();
+            acrossChecks[row * size + col] = 0;
+            downChecks[row * size + col] = 0;
+            markLineEnds(row, col, 1, 0, across);
+            markLineEnds(row, col, 0, 1, down);
+        }
+        for (int square = across.first(); square != -1; square = across.next(square + 1)) {
+            acrossChecks[square] = computeCrossChecks(square / size, square % size, 1, 0, dictionary);
+        }
+        for (int square = down.first(); square != -1; square = down.next(square + 1)) {
+            downChecks[square] = computeCrossChecks(square / size, square % size, 0, 1, dictionary);
+        }
     }
 
     /**
-     * getter for premium positions
-     * @return premium positions
+     * Marks the first empty square past each end of the line of tiles through a square
+     * @param row the row of the square
+     * @param col the column of the square
+     * @param rowStep 1 for a line down a column, otherwise 0
+     * @param colStep 1 for a line along a row, otherwise 0
+     * @param ends the set to add the empty squares to
+     */
+    private void markLineEnds(int row, int col, int rowStep, int colStep, Bitboard ends) {
+        int r = row;
+        int c = col;
+        while (isOccupied(r, c)) {
+            r -= rowStep;
+            c -= colStep;
+        }
+        if (r >= 0 && c >= 0) {
+            ends.set(r * size + c);
+        }
+        r = row;
+        c = col;
+        while (isOccupied(r, c)) {
+            r += rowStep;
+            c += colStep;
+        }
+        if (r < size && c < size) {
+            ends.set(r * size + c);
+        }
+    }
+
+    /**
+     * Works out which letters make a valid word with the tiles on either side of an empty square
+     * @param row the row of the square
+     * @param col the column of the square
+     * @param rowStep 1 to read the word down the column, otherwise 0
+     * @param colStep 1 to read the word along the row, otherwise 0
+     * @param dictionary the set of valid words
+     * @return the mask of letters
+     */
+    private int computeCrossChecks(int row, int col, int rowStep, int colStep, WordSet dictionary) {
+        StringBuilder before = new StringBuilder();
+        for (int r = row - rowStep, c = col - colStep; isOccupied(r, c); r -= rowStep, c -= colStep) {
+            before.append(getLetter(r, c));
+        }
+        before.reverse();
+        StringBuilder after = new StringBuilder();
+        for (int r = row + rowStep, c = col + colStep; isOccupied(r, c); r += rowStep, c += colStep) {
+            after.append(getLetter(r, c));
+        }
+        if (before.length() == 0 && after.length() == 0) {
+            return ALL_LETTERS; // nothing to cross
+        }
+        StringBuilder word = new StringBuilder(before).append(' ').append(after);
+        int mask = 0;
+        for (int letter = 0; letter < 26; letter++) {
+            word.setCharAt(before.length(), (char) ('A' + letter));
+            if (dictionary.contains(word)) {
+                mask |= 1 << letter;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Sets the premium of a square
+     * @param position the square
+     * @param premium the premium, one of the premium constants
+     */
+    private void setPremium(Position position, int premium) {
+        premiums[position.getRow() * size + position.getCol()] = (byte) premium;
+    }
+
+    /**
+     * Gets the premium of a square that has not been scored yet
+     * @param row the row of the square
+     * @param col the column of the square
+     * @return the premium, or NO_PREMIUM if the square has none or it has been used
+     */
+    public int getPremium(int row, int col) {
+        int square = row * size + col;
+        return usedPremiums.get(square) ? NO_PREMIUM : premiums[square];
+    }
+
+    /**
+     * Marks the premium of a square as used, so it is not scored again
+     * @param row the row of the square
+     * @param col the column of the square
+     */
+    public void usePremium(int row, int col) {
+        beforeChange();
+        int square = row * size + col;
+        if (!usedPremiums.get(square)) {
+            usedPremiums.set(square);
+            key ^= Zobrist.usedPremium(square);
+        }
+    }
+
+    /**
+     * getter for premium positions, built from the premium table
+     * @return the premium of every square not scored yet, keyed by position (e.g. 8H)
      */
     public HashMap<String,Integer> getPremiumPositions(){
+        HashMap<String, Integer> premiumPositions = new HashMap<>();
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                if (getPremium(row, col) != NO_PREMIUM) {
+                    premiumPositions.put(getPosition(row, col).toString(), getPremium(row, col));
+                }
+            }
+        }
         return premiumPositions;
     }
 
     /**
-     * method to remove position from premium position map once it's been used
-     * @param key the position to remove
+     * Replaces the premium squares with those of a board XML file, which must be for a board of this size
+     * @param fileName the name of the file where the board XML is stored
+     * @throws IllegalArgumentException if the file cannot be read, is not a board layout or is for another size
      */
-    public void removePremiumPosition(String key){
-        premiumPositions.remove(key);
+    public void importCustomBoardXML(String fileName){
+        BoardHandler layout = readLayout(fileName);
+        if (layout.size != size) {
+            throw new IllegalArgumentException("The board in " + fileName + " is " + layout.size + " squares wide, not " + size);
+        }
+        applyLayout(layout);
     }
 
-    public void importCustomBoardXML(String fileName){
-        premiumPositions.clear();
+    /**
+     * Reads a board XML file
+     * @param fileName the name of the file where the board XML is stored
+     * @return the layout read
+     * @throws IllegalArgumentException if the file cannot be read or is not a board layout
+     */
+    private static BoardHandler readLayout(String fileName) {
+        BoardHandler layout = new BoardHandler();
         try {
             SAXParserFactory factory = SAXParserFactory.newInstance();
             SAXParser saxParser = factory.newSAXParser();
 
             //Parse the XML file using a custom handler
-            saxParser.parse(new File(fileName), new BoardHandler(this));
-
+            saxParser.parse(new File(fileName), layout);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("The board file " + fileName + " could not be read", e);
+        } catch (SAXException | ParserConfigurationException e) {
+            throw new IllegalArgumentException("The board file " + fileName + " is not valid board XML", e);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The board file " + fileName + " has a size or type that is not a number", e);
+        }
+        return layout;
+    }
 
-        } catch (IOException e){
-            e.printStackTrace();
-        } catch (ParserConfigurationException e) {
-            throw new RuntimeException(e);
-        } catch (SAXException e) {
-            throw new RuntimeException(e);
+    /**
+     * Replaces the premium squares with those of a layout read from XML
+     * @param layout the layout, for a board of this size
+     */
+    private void applyLayout(BoardHandler layout) {
+        beforeChange();
+        Arrays.fill(premiums, (byte) NO_PREMIUM);
+        for (int square = usedPremiums.first(); square != -1; square = usedPremiums.next(square + 1)) {
+            key ^= Zobrist.usedPremium(square);
+        }
+        usedPremiums.clearAll();
+        for (Map.Entry<String, Integer> premium : layout.premiums.entrySet()) {
+            Position square = parseSquareKey(premium.getKey());
+            if (square == null) {
+                throw new IllegalArgumentException("Invalid square position: " + premium.getKey());
+            }
+            setPremium(square, premium.getValue());
         }
     }
 
     private static class BoardHandler extends DefaultHandler {
-        private Board customBoard;
+        private int size = SIZE; // the standard size unless the XML gives a size
+        private final Map<String, Integer> premiums = new LinkedHashMap<>(); // the type of each square, by key
         private String position;
         private int type;
         private String currentElement;
 
-        public BoardHandler(Board board) {this.customBoard = board;}
-
         @Override
         public void startElement(String uri, String localName, String qName, Attributes attributes){
             currentElement = qName;
@@ -410,7 +963,7 @@ public class Board implements Serializable {
         @Override
         public void endElement(String uri, String localName, String qName) throws SAXException{
             if ("square".equalsIgnoreCase(qName)){
-                customBoard.premiumPositions.put(position, type);
+                premiums.put(position, type);
                 position = null;
                 type = 0;
             }
@@ -422,6 +975,8 @@ public class Board implements Serializable {
             String content = new String(ch, start, length).trim();
             if (currentElement != null & !content.isEmpty()){
                 switch (currentElement.toLowerCase()){
+                    case "size": size = Integer.parseInt(content);
+                        break;
                     case "pos": position = content;
                     System.out.println(position);
                         break;
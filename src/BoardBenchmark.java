@@ -0,0 +1,361 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Class BoardBenchmark times the placement checks made for every play: whether a play touches a tile
+ * already on the board, whether a play leaves an empty square between its tiles, and whether the first
+ * play covers the center square. Each is timed walking the board's Position objects square by square, as
+ * the checks used to, with the bitboard checks PlayValidator makes for every play, and with a bitboard whose
+ * geometry is hard-coded for the standard board, to show that boards of any size cost the standard board
+ * nothing. The bitboard checks are then timed on a super board.
+ * <p>
+ * Run as a program: {@code java BoardBenchmark}
+ *
+ * @version 3
+ */
+public class BoardBenchmark {
+    private static final int BOARDS = 64;
+    private static final int PLAYS = 100_000;
+    private static final int ROUNDS = 5;
+    private static final int OBJECTS = 0;
+    private static final int BITBOARD = 1;
+    private static final int FIXED = 2;
+
+    // the masks of a bitboard hard-coded for the standard board
+    private static final int FIXED_WORDS = 4;
+    private static final int FIXED_CENTER = 7 * 15 + 7;
+    private static final long[] FIXED_ALL = new long[FIXED_WORDS];
+    private static final long[] FIXED_NOT_FIRST_COLUMN = new long[FIXED_WORDS];
+    private static final long[] FIXED_NOT_LAST_COLUMN = new long[FIXED_WORDS];
+    private static final long[][] FIXED_COLUMNS = new long[15][FIXED_WORDS];
+
+    static {
+        for (int square = 0; square < 225; square++) {
+            int col = square % 15;
+            FIXED_ALL[square >>> 6] |= 1L << square;
+            FIXED_COLUMNS[col][square >>> 6] |= 1L << square;
+            if (col != 0) {
+                FIXED_NOT_FIRST_COLUMN[square >>> 6] |= 1L << square;
+            }
+            if (col != 14) {
+                FIXED_NOT_LAST_COLUMN[square >>> 6] |= 1L << square;
+            }
+        }
+    }
+
+    /**
+     * Runs the benchmark
+     *
+     * @param args none
+     */
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        Board[] boards = new Board[BOARDS];
+        for (int i = 0; i < BOARDS; i++) {
+            boards[i] = randomBoard(random, 0.3);
+        }
+        List<List<Position>> plays = new ArrayList<>();
+        for (int i = 0; i < PLAYS; i++) {
+            plays.add(randomPlay(random));
+        }
+        Board[] superBoards = new Board[BOARDS];
+        for (int i = 0; i < BOARDS; i++) {
+            superBoards[i] = randomBoard(random, 0.3, Board.MAX_SIZE);
+        }
+        List<List<Position>> superPlays = new ArrayList<>();
+        for (int i = 0; i < PLAYS; i++) {
+            superPlays.add(randomPlay(random, Board.MAX_SIZE));
+        }
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            long[] objects = timeChecks(boards, plays, OBJECTS);
+            long[] bitboard = timeChecks(boards, plays, BITBOARD);
+            long[] fixed = timeChecks(boards, plays, FIXED);
+            long[] superBitboard = timeChecks(superBoards, superPlays, BITBOARD);
+            System.out.printf("Round %d: adjacency %,d / %,d / %,d ns, gaps %,d / %,d / %,d ns, center %,d / %,d / %,d ns"
+                            + " per play (objects / bitboard / fixed 15x15 bitboard)%n", round,
+                    objects[0], bitboard[0], fixed[0], objects[1], bitboard[1], fixed[1],
+                    objects[2], bitboard[2], fixed[2]);
+            System.out.printf("         21x21 bitboard: adjacency %,d ns, gaps %,d ns, center %,d ns per play%n",
+                    superBitboard[0], superBitboard[1], superBitboard[2]);
+        }
+    }
+
+    /**
+     * Times the three checks over every play, each play checked against one of the boards
+     *
+     * @param boards the boards
+     * @param plays  the plays
+     * @param mode   OBJECTS for the object walks, BITBOARD for PlayValidator or FIXED for the hard-coded bitboard
+     * @return the average time of the adjacency, gap and center checks in nanoseconds
+     */
+    private static long[] timeChecks(Board[] boards, List<List<Position>> plays, int mode) {
+        PlayValidator[] validators = new PlayValidator[boards.length];
+        long[][] occupancies = new long[boards.length][];
+        for (int i = 0; i < boards.length; i++) {
+            validators[i] = new PlayValidator(boards[i], null);
+            occupancies[i] = fixedOccupancy(boards[i]);
+        }
+        long[] times = new long[3];
+        int passed = 0;
+        for (int check = 0; check < 3; check++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < plays.size(); i++) {
+                List<Position> play = plays.get(i);
+                Board board = boards[i % boards.length];
+                PlayValidator validator = validators[i % boards.length];
+                long[] occupancy = occupancies[i % boards.length];
+                boolean result;
+                if (check == 0) {
+                    result = (mode == BITBOARD) ? validator.coversAnchor(Bitboard.of(board.getSize(), play))
+                            : (mode == FIXED) ? fixedTouchesTile(occupancy, play) : touchesTile(board, play);
+                } else if (check == 1) {
+                    result = (mode == BITBOARD) ? validator.hasNoGaps(Bitboard.of(board.getSize(), play))
+                            : (mode == FIXED) ? fixedHasNoGaps(occupancy, play) : hasNoGaps(board, play);
+                } else {
+                    result = (mode == BITBOARD) ? validator.coversCenter(Bitboard.of(board.getSize(), play))
+                            : (mode == FIXED) ? (fixedSquares(play)[FIXED_CENTER >>> 6] & (1L << FIXED_CENTER)) != 0
+                            : play.contains(board.parsePosition("H8"));
+                }
+                if (result) {
+                    passed++;
+                }
+            }
+            times[check] = (System.nanoTime() - start) / plays.size();
+        }
+        if (passed < 0) {
+            System.out.println(passed); // keeps the checks from being optimized away
+        }
+        return times;
+    }
+
+    /**
+     * Checks if a play touches a tile by walking the positions around each of its squares
+     *
+     * @param board the board
+     * @param play  the squares of the play
+     * @return true if a square next to the play holds a tile
+     */
+    static boolean touchesTile(Board board, List<Position> play) {
+        int size = board.getSize();
+        for (Position pos : play) {
+            int row = pos.getRow();
+            int col = pos.getCol();
+            if ((row > 0 && board.getPosition(row - 1, col).isOccupied()) ||
+                    (row < size - 1 && board.getPosition(row + 1, col).isOccupied()) ||
+                    (col > 0 && board.getPosition(row, col - 1).isOccupied()) ||
+                    (col < size - 1 && board.getPosition(row, col + 1).isOccupied())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if a play leaves no empty square between its tiles by walking the positions between them. The play's
+     * tiles are not on the board, so its own squares count as holding a tile.
+     *
+     * @param board the board
+     * @param play  the squares of the play, in a straight line
+     * @return true if every square between the first and last tile holds a tile
+     */
+    static boolean hasNoGaps(Board board, List<Position> play) {
+        if (play.size() < 2) {
+            return true;
+        }
+        boolean vertical = play.get(0).getCol() == play.get(1).getCol();
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (Position pos : play) {
+            int along = vertical ? pos.getRow() : pos.getCol();
+            min = Math.min(min, along);
+            max = Math.max(max, along);
+        }
+        for (int i = min + 1; i < max; i++) {
+            Position between = vertical ? board.getPosition(i, play.get(0).getCol())
+                    : board.getPosition(play.get(0).getRow(), i);
+            if (!between.isOccupied() && !inPlay(play, between.getRow(), between.getCol())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if a play covers a square
+     *
+     * @param play the squares of the play
+     * @param row  the row of the square
+     * @param col  the column of the square
+     * @return true if the square is one of the play's
+     */
+    private static boolean inPlay(List<Position> play, int row, int col) {
+        for (Position pos : play) {
+            if (pos.getRow() == row && pos.getCol() == col) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if a play touches a tile with the hard-coded standard board bitboard
+     *
+     * @param occupancy the squares holding a tile
+     * @param play      the squares of the play
+     * @return true if a square next to the play holds a tile
+     */
+    static boolean fixedTouchesTile(long[] occupancy, List<Position> play) {
+        long[] squares = fixedSquares(play);
+        long touching = 0;
+        for (int word = 0; word < FIXED_WORDS; word++) {
+            long current = squares[word];
+            long previous = (word > 0) ? squares[word - 1] : 0;
+            long next = (word < FIXED_WORDS - 1) ? squares[word + 1] : 0;
+            long left = (current >>> 1) | (next << 63);
+            long right = (current << 1) | (previous >>> 63);
+            long above = (current >>> 15) | (next << 49);
+            long below = (current << 15) | (previous >>> 49);
+            long neighbours = ((left & FIXED_NOT_LAST_COLUMN[word]) | (right & FIXED_NOT_FIRST_COLUMN[word])
+                    | above | below) & FIXED_ALL[word];
+            touching |= neighbours & occupancy[word];
+        }
+        return touching != 0;
+    }
+
+    /**
+     * Checks if a play leaves no empty square between its tiles with the hard-coded standard board bitboard
+     *
+     * @param occupancy the squares holding a tile
+     * @param play      the squares of the play, in a straight line
+     * @return true if every square between the first and last tile holds a tile
+     */
+    static boolean fixedHasNoGaps(long[] occupancy, List<Position> play) {
+        if (play.size() < 2) {
+            return true;
+        }
+        long[] squares = fixedSquares(play);
+        int first = -1;
+        int last = -1;
+        for (int word = 0; word < FIXED_WORDS; word++) {
+            if (squares[word] != 0) {
+                if (first == -1) {
+                    first = word * 64 + Long.numberOfTrailingZeros(squares[word]);
+                }
+                last = word * 64 + 63 - Long.numberOfLeadingZeros(squares[word]);
+            }
+        }
+        boolean vertical = play.get(0).getCol() == play.get(1).getCol();
+        long missing = 0;
+        for (int word = 0; word < FIXED_WORDS; word++) {
+            int low = Math.max(first + 1, word * 64) - word * 64;
+            int high = Math.min(last, word * 64 + 64) - word * 64;
+            if (low < high) {
+                long between = ((high == 64) ? -1L : (1L << high) - 1) & (-1L << low);
+                if (vertical) {
+                    between &= FIXED_COLUMNS[play.get(0).getCol()][word];
+                }
+                missing |= between & ~occupancy[word] & ~squares[word];
+            }
+        }
+        return missing == 0;
+    }
+
+    /**
+     * Gets the squares of a play as a hard-coded standard board bitboard
+     *
+     * @param play the squares of the play
+     * @return the bits of the squares
+     */
+    private static long[] fixedSquares(List<Position> play) {
+        long[] squares = new long[FIXED_WORDS];
+        for (Position pos : play) {
+            int square = pos.getRow() * 15 + pos.getCol();
+            squares[square >>> 6] |= 1L << square;
+        }
+        return squares;
+    }
+
+    /**
+     * Gets the squares holding a tile as a hard-coded standard board bitboard
+     *
+     * @param board the board, which is only read if it is a standard board
+     * @return the bits of the squares
+     */
+    private static long[] fixedOccupancy(Board board) {
+        long[] occupancy = new long[FIXED_WORDS];
+        if (board.getSize() == Board.SIZE) {
+            for (int square = 0; square < 225; square++) {
+                if (board.isOccupied(square / 15, square % 15)) {
+                    occupancy[square >>> 6] |= 1L << square;
+                }
+            }
+        }
+        return occupancy;
+    }
+
+    /**
+     * Creates a standard board with tiles on a share of its squares
+     *
+     * @param random  the source of randomness
+     * @param density the share of squares holding a tile
+     * @return the board
+     */
+    static Board randomBoard(Random random, double density) {
+        return randomBoard(random, density, Board.SIZE);
+    }
+
+    /**
+     * Creates a board with tiles on a share of its squares
+     *
+     * @param random  the source of randomness
+     * @param density the share of squares holding a tile
+     * @param size    the number of rows and columns
+     * @return the board
+     */
+    static Board randomBoard(Random random, double density, int size) {
+        Board board = new Board(size);
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                if (random.nextDouble() < density) {
+                    board.placeTile(Tile.of((char) ('A' + random.nextInt(26))), row, col);
+                }
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Creates a play on a standard board
+     *
+     * @param random the source of randomness
+     * @return the squares of the play
+     */
+    static List<Position> randomPlay(Random random) {
+        return randomPlay(random, Board.SIZE);
+    }
+
+    /**
+     * Creates a play of two to seven squares in a row or column, not necessarily next to each other
+     *
+     * @param random the source of randomness
+     * @param size   the number of rows and columns of the board
+     * @return the squares of the play
+     */
+    static List<Position> randomPlay(Random random, int size) {
+        boolean vertical = random.nextBoolean();
+        int line = random.nextInt(size);
+        int tiles = 2 + random.nextInt(6);
+        List<Position> play = new ArrayList<>();
+        List<Integer> used = new ArrayList<>();
+        while (play.size() < tiles) {
+            int along = random.nextInt(size);
+            if (!used.contains(along)) {
+                used.add(along);
+                play.add(vertical ? new Position(along, line) : new Position(line, along));
+            }
+        }
+        return play;
+    }
+}
@@ -1,6 +1,21 @@
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
 
 public class BoardTest {
 
@@ -14,4 +29,498 @@ public class BoardTest {
         System.out.println(board.getPremiumPositions());
 
     }
-}
\ No newline at end of file
+
+    @Test
+    /**
+     * Tests that positions, words and copies all read the packed squares
+     */
+    public void packedSquares() {
+        Board board = new Board();
+        Tile blank = new Tile('T', 0, true);
+        assertTrue(board.placeTile(new Tile('C', 3, false), 7, 6));
+        assertTrue(board.placeTile(new Tile('A', 1, false), 7, 7));
+        assertFalse(board.getPosition(7, 8).isOccupied());
+        board.getPosition(7, 8).setTile(blank);
+        assertFalse(board.placeTile(new Tile('X', 8, false), 7, 8));
+
+        assertTrue(board.isOccupied(7, 8));
+        assertTrue(board.isBlank(7, 8));
+        assertEquals('A', board.getLetter(7, 7));
+        assertEquals(' ', board.getLetter(8, 7));
+        assertSame(blank, board.getPosition(7, 8).getTile());
+        Map<Map<Position, Tile>, String> words = board.gatherWordsOnBoard();
+        assertEquals(1, words.size());
+        assertTrue(words.containsValue("CAT"));
+
+        //the copy shares no squares with the board
+        Board copy = board.copy();
+        copy.getPosition(7, 6).setTile(null);
+        assertFalse(copy.isOccupied(7, 6));
+        assertTrue(board.isOccupied(7, 6));
+        assertEquals("AT", copy.gatherWordsOnBoard().values().iterator().next());
+        assertEquals(board.getPremiumPositions(), copy.getPremiumPositions());
+    }
+
+    @Test
+    /**
+     * Tests that the bitboard placement checks agree with walking the board square by square
+     */
+    public void bitboardChecks() {
+        //a tile on the right edge of a row is not next to the left edge of the row below
+        Board board = new Board();
+        board.placeTile(new Tile('A', 1, false), 3, 14);
+        PlayValidator validator = new PlayValidator(board, null);
+        assertFalse(validator.coversAnchor(Bitboard.of(Board.SIZE, Arrays.asList(new Position(4, 0), new Position(4, 1)))));
+        assertTrue(validator.coversAnchor(Bitboard.of(Board.SIZE, Arrays.asList(new Position(4, 14), new Position(5, 14)))));
+        assertTrue(validator.coversCenter(Bitboard.of(Board.SIZE, Arrays.asList(new Position(7, 6), new Position(7, 7)))));
+        assertFalse(validator.coversCenter(Bitboard.of(Board.SIZE, Arrays.asList(new Position(6, 7), new Position(6, 8)))));
+
+        Random random = new Random(7);
+        for (int i = 0; i < 200; i++) {
+            board = BoardBenchmark.randomBoard(random, 0.3);
+            validator = new PlayValidator(board, null);
+            for (int j = 0; j < 50; j++) {
+                checkAgainstWalk(board, validator, BoardBenchmark.randomPlay(random));
+            }
+        }
+
+        //and on super boards, whose rows do not line up with the longs
+        for (int i = 0; i < 50; i++) {
+            board = BoardBenchmark.randomBoard(random, 0.3, Board.MAX_SIZE);
+            validator = new PlayValidator(board, null);
+            for (int j = 0; j < 50; j++) {
+                checkAgainstWalk(board, validator, BoardBenchmark.randomPlay(random, Board.MAX_SIZE));
+            }
+        }
+    }
+
+    /**
+     * Checks a play with a validator's bitboard checks and by walking the board, which must agree
+     * @param board the board
+     * @param validator the validator for the board
+     * @param play the squares of the play
+     */
+    private void checkAgainstWalk(Board board, PlayValidator validator, List<Position> play) {
+        Bitboard squares = Bitboard.of(board.getSize(), play);
+        assertEquals(BoardBenchmark.hasNoGaps(board, play), validator.hasNoGaps(squares));
+        //an anchor is an empty square next to a tile, so only plays on empty squares can be compared
+        if (!squares.intersects(board.getOccupancy())) {
+            assertEquals(BoardBenchmark.touchesTile(board, play), validator.coversAnchor(squares));
+        }
+    }
+
+    @Test
+    /**
+     * Tests that a validator returns the words of a play, found from the tiles placed, main word first
+     */
+    public void wordsThrough() {
+        Board board = new Board();
+        //CAT across row 8, then ATE down from its A with E added below
+        board.placeTile(new Tile('C', 3, false), 7, 6);
+        board.placeTile(new Tile('A', 1, false), 7, 7);
+        board.placeTile(new Tile('T', 1, false), 7, 8);
+        board.placeTile(new Tile('S', 1, false), 9, 8);
+        PlayValidator validator = new PlayValidator(board, Dawg.fromWords(Arrays.asList("ate", "es", "tt", "tts")));
+        Map<Position, Tile> play = new LinkedHashMap<>();
+        play.put(new Position(8, 7), new Tile('T', 1, false));
+        play.put(new Position(9, 7), new Tile('E', 1, false));
+        List<WordSpan> words = validator.validate(play).getWords();
+        assertEquals(2, words.size());
+        assertEquals("ATE", words.get(0).getWord());
+        assertFalse(words.get(0).isHorizontal());
+        assertEquals(7, words.get(0).getRow(0));
+        assertEquals(9, words.get(0).getRow(2));
+        assertEquals("ES", words.get(1).getWord());
+        assertEquals(8, words.get(1).getCol(1));
+
+        //a single tile makes words both ways, T joins TT down and TT across
+        board.placeTile(new Tile('T', 1, false), 8, 7);
+        board.placeTile(new Tile('E', 1, false), 9, 7);
+        play.clear();
+        play.put(new Position(8, 8), new Tile('T', 1, false));
+        List<WordSpan> single = validator.validate(play).getWords();
+        assertEquals(2, single.size());
+        assertEquals("TT", single.get(0).getWord());
+        assertTrue(single.get(0).isHorizontal());
+        assertEquals("TTS", single.get(1).getWord());
+    }
+
+    @Test
+    /**
+     * Tests that the default and XML layouts both fill the premium table and that a used premium is not scored again
+     */
+    public void premiumTable() {
+        Board board = new Board();
+        assertEquals(Board.TRIPLE_WORD, board.getPremium(0, 0));
+        assertEquals(Board.DOUBLE_WORD, board.getPremium(7, 7));
+        assertEquals(Board.NO_PREMIUM, board.getPremium(0, 1));
+
+        Board copy = board.copy();
+        board.usePremium(0, 0);
+        assertEquals(Board.NO_PREMIUM, board.getPremium(0, 0));
+        assertFalse(board.getPremiumPositions().containsKey("1A"));
+        assertEquals(Board.TRIPLE_WORD, copy.getPremium(0, 0));
+
+        //XML.txt puts a double letter on 7A
+        Board custom = new Board("XML.txt");
+        assertEquals(Board.DOUBLE_LETTER, custom.getPremium(6, 0));
+        assertEquals(Integer.valueOf(Board.DOUBLE_LETTER), custom.getPremiumPositions().get("7A"));
+    }
+
+    @Test
+    /**
+     * Tests that the cross-checks of the squares around a play are updated from the word list
+     */
+    public void crossChecks() {
+        Board board = new Board();
+        WordSet words = Dawg.fromWords(Arrays.asList("at", "cat", "hat", "ate", "tat"));
+        assertEquals(Board.ALL_LETTERS, board.getCrossChecks(6, 7, true));
+
+        //AT across row 8
+        board.placeTile(new Tile('A', 1, false), 7, 7);
+        board.placeTile(new Tile('T', 1, false), 7, 8);
+        board.updateCrossChecks(Arrays.asList(board.getPosition(7, 7), board.getPosition(7, 8)), words);
+
+        //only C, H and T make a word in front of AT, only E after it
+        int front = (1 << ('C' - 'A')) | (1 << ('H' - 'A')) | (1 << ('T' - 'A'));
+        assertEquals(front, board.getCrossChecks(7, 6, false));
+        assertEquals(1 << ('E' - 'A'), board.getCrossChecks(7, 9, false));
+        //a square above A would make a two letter word down the column, and none are in the list but AT
+        assertEquals(0, board.getCrossChecks(6, 7, true));
+        assertEquals(1 << ('T' - 'A'), board.getCrossChecks(8, 7, true));
+        //the played squares and the squares not touching the play are unchanged
+        assertEquals(0, board.getCrossChecks(7, 7, true));
+        assertEquals(Board.ALL_LETTERS, board.getCrossChecks(0, 0, true));
+        assertEquals(Board.ALL_LETTERS, board.getCrossChecks(7, 6, true));
+    }
+
+    @Test
+    /**
+     * Tests that the anchor squares follow the tiles as they are placed and taken back
+     */
+    public void anchors() {
+        Board board = new Board();
+        assertEquals(1, board.getAnchors().count());
+        assertTrue(board.getAnchors().get(board.getCenter()));
+
+        board.placeTile(new Tile('A', 1, false), 7, 7);
+        board.placeTile(new Tile('T', 1, false), 7, 8);
+        //the six squares around AT
+        assertEquals(6, board.getAnchors().count());
+        assertFalse(board.getAnchors().get(board.getCenter()));
+        assertTrue(board.getAnchors().get(7 * Board.SIZE + 9));
+        assertTrue(board.getAnchors().get(8 * Board.SIZE + 8));
+
+        PlayValidator validator = new PlayValidator(board, null);
+        assertTrue(validator.coversAnchor(Bitboard.of(Board.SIZE, Arrays.asList(new Position(6, 7), new Position(5, 7)))));
+        assertFalse(validator.coversAnchor(Bitboard.of(Board.SIZE, Arrays.asList(new Position(0, 0), new Position(0, 1)))));
+
+        //taking the tiles back leaves only the center
+        board.getPosition(7, 8).setTile(null);
+        assertEquals(4, board.getAnchors().count());
+        board.getPosition(7, 7).setTile(null);
+        assertEquals(1, board.getAnchors().count());
+        assertTrue(board.getAnchors().get(board.getCenter()));
+    }
+
+    @Test
+    /**
+     * Tests that snapshots and forks share squares until changed and never see each other's changes
+     */
+    public void snapshotsAndForks() {
+        Board board = new Board();
+        board.placeTile(new Tile('A', 1, false), 7, 7);
+        Board snapshot = board.snapshot();
+        Board fork = snapshot.fork();
+
+        //the live board and the fork both change without the snapshot seeing it
+        board.placeTile(new Tile('T', 1, false), 7, 8);
+        board.usePremium(0, 0);
+        fork.placeTile(new Tile('N', 1, false), 8, 7);
+        assertTrue(snapshot.isSnapshot());
+        assertFalse(snapshot.isOccupied(7, 8));
+        assertFalse(snapshot.isOccupied(8, 7));
+        assertEquals(Board.TRIPLE_WORD, snapshot.getPremium(0, 0));
+        assertEquals('A', snapshot.getLetter(7, 7));
+        assertFalse(fork.isOccupied(7, 8));
+        assertFalse(board.isOccupied(8, 7));
+        assertEquals(4, snapshot.getAnchors().count());
+
+        try {
+            snapshot.placeTile(new Tile('S', 1, false), 6, 7);
+            fail("a snapshot cannot be changed");
+        } catch (UnsupportedOperationException expected) {
+            assertFalse(snapshot.isOccupied(6, 7));
+        }
+
+        //the bag in a game snapshot is drawn from separately
+        Bag bag = new Bag(true);
+        GameSnapshot game = new GameSnapshot(board, bag, 1);
+        int left = game.getBagTiles().size();
+        bag.drawTile();
+        assertEquals(left, game.getBagTiles().size());
+        assertNotNull(game.forkBag().drawTile());
+        assertEquals(left, game.getBagTiles().size());
+    }
+
+    @Test
+    /**
+     * Tests that board and rack keys depend only on the position, not on how it was reached
+     */
+    public void zobristKeys() {
+        Board board = new Board();
+        Board other = new Board();
+        long empty = board.getKey();
+        board.placeTile(new Tile('A', 1, false), 7, 7);
+        board.placeTile(new Tile('T', 1, false), 7, 8);
+        other.placeTile(new Tile('T', 1, false), 7, 8);
+        other.placeTile(new Tile('A', 1, false), 7, 7);
+        assertEquals(board.getKey(), other.getKey());
+        assertNotEquals(empty, board.getKey());
+
+        //a blank standing for A is not an A, and a used premium changes the key
+        Board blank = new Board();
+        blank.placeTile(Tile.blank().designate('A'), 7, 7);
+        blank.placeTile(new Tile('T', 1, false), 7, 8);
+        assertNotEquals(board.getKey(), blank.getKey());
+        other.usePremium(7, 7);
+        assertNotEquals(board.getKey(), other.getKey());
+
+        //taking the tiles back gives the empty board's key
+        board.getPosition(7, 7).setTile(null);
+        board.getPosition(7, 8).setTile(null);
+        assertEquals(empty, board.getKey());
+
+        Player first = new Player("First");
+        Player second = new Player("Second");
+        first.setRack(new ArrayList<>(Arrays.asList(new Tile('E', 1, false), new Tile('E', 1, false), new Tile('Q', 10, false))));
+        second.setRack(new ArrayList<>(Arrays.asList(new Tile('Q', 10, false), new Tile('E', 1, false))));
+        assertNotEquals(first.getRackKey(), second.getRackKey());
+        first.removeTile("E");
+        assertEquals(first.getRackKey(), second.getRackKey());
+    }
+
+    @Test
+    /**
+     * Tests that tiles are shared per letter and blank, including after a saved game is read back
+     */
+    public void sharedTiles() throws Exception {
+        assertSame(Tile.of('E'), Tile.of('e'));
+        assertSame(Tile.blank(), Tile.of(' '));
+        assertSame(Tile.blank().designate('Q'), Tile.blank().designate('q'));
+        assertEquals(0, Tile.blank().designate('Q').getPointValue());
+        assertEquals(10, Tile.of('Q').getPointValue());
+        for (Tile tile : new Bag(false).getTiles()) {
+            assertSame(Tile.of(tile.getLetter()), tile);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(Tile.blank().designate('Z'));
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertSame(Tile.blank().designate('Z'), in.readObject());
+        }
+    }
+
+    @Test
+    /**
+     * Tests that a 21x21 board can be loaded from XML and checked and searched like a standard one
+     */
+    public void superBoard() throws Exception {
+        File xml = File.createTempFile("super", ".xml");
+        xml.deleteOnExit();
+        try (PrintWriter out = new PrintWriter(xml)) {
+            out.println("<board><size>21</size>");
+            out.println("<square><pos>1A</pos><type>5</type></square>");
+            out.println("<square><pos>21U</pos><type>4</type></square>");
+            out.println("</board>");
+        }
+        Board board = new Board(xml.getPath());
+        assertEquals(21, board.getSize());
+        assertEquals(10 * 21 + 10, board.getCenter());
+        assertEquals(Board.TRIPLE_WORD, board.getPremium(0, 0));
+        assertEquals(Board.TRIPLE_LETTER, board.getPremium(20, 20));
+        assertEquals(Board.NO_PREMIUM, board.getPremium(7, 7));
+
+        //a play in the last column, touching a tile at the bottom right
+        board.placeTile(new Tile('A', 1, false), 20, 19);
+        PlayValidator validator = new PlayValidator(board, null);
+        Bitboard play = Bitboard.of(Board.MAX_SIZE, Arrays.asList(board.getPosition(19, 20), board.getPosition(20, 20)));
+        assertTrue(validator.coversAnchor(play));
+        assertTrue(validator.hasNoGaps(play));
+        assertFalse(validator.hasNoGaps(Bitboard.of(Board.MAX_SIZE, Arrays.asList(board.getPosition(0, 20), board.getPosition(20, 20)))));
+        assertFalse(validator.coversAnchor(Bitboard.of(Board.MAX_SIZE, Arrays.asList(board.getPosition(0, 20), board.getPosition(1, 20)))));
+        board.placeTile(new Tile('T', 1, false), 20, 20);
+        assertEquals("AT", board.wordsThrough(null, new int[]{20 * Board.MAX_SIZE + 20}, 1).get(0).getWord());
+
+        //a standard board's layout cannot be loaded onto it
+        try {
+            board.importCustomBoardXML("XML.txt");
+            fail("the layout is for another size");
+        } catch (IllegalArgumentException expected) {
+            assertEquals(Board.TRIPLE_WORD, board.getPremium(0, 0));
+        }
+    }
+
+    @Test
+    /**
+     * Tests that a play is checked and scored in one pass without changing the board
+     */
+    public void playValidator() {
+        Board board = new Board();
+        long key = board.getKey();
+        PlayValidator validator = new PlayValidator(board, Dawg.fromWords(Arrays.asList("cat", "cats", "at")));
+        Map<Position, Tile> play = new LinkedHashMap<>();
+        play.put(new Position(7, 6), Tile.of('C'));
+        play.put(new Position(7, 7), Tile.of('A'));
+        play.put(new Position(7, 8), Tile.of('T'));
+        PlayResult result = validator.validate(play);
+        assertTrue(result.isValid());
+        assertEquals("CAT", result.getWords().get(0).getWord());
+        assertEquals(1, result.getWords().size());
+        assertEquals((3 + 1 + 1) * 2, result.getScore()); //the center is a double word square
+        assertTrue(board.getOccupancy().isEmpty());
+        assertEquals(key, board.getKey());
+
+        //the reasons a play is refused
+        Map<Position, Tile> refused = new LinkedHashMap<>();
+        assertEquals(PlayResult.Problem.NO_TILES, validator.validate(refused).getProblem());
+        refused.put(new Position(6, 6), Tile.of('A'));
+        refused.put(new Position(7, 7), Tile.of('T'));
+        assertEquals(PlayResult.Problem.NOT_ALIGNED, validator.validate(refused).getProblem());
+        refused.clear();
+        refused.put(new Position(7, 7), Tile.of('A'));
+        assertEquals(PlayResult.Problem.TOO_SHORT, validator.validate(refused).getProblem());
+        refused.put(new Position(7, 9), Tile.of('T'));
+        assertEquals(PlayResult.Problem.GAP, validator.validate(refused).getProblem());
+        refused.clear();
+        refused.put(new Position(7, 6), Tile.of('T'));
+        refused.put(new Position(7, 7), Tile.of('C'));
+        assertEquals(PlayResult.Problem.INVALID_WORD, validator.validate(refused).getProblem());
+        refused.clear();
+        refused.put(new Position(0, 0), Tile.of('A'));
+        refused.put(new Position(0, 1), Tile.of('T'));
+        assertEquals("First word must cover center square (H8)", validator.validate(refused).getMessage());
+
+        //a play that extends a word already on the board
+        for (Map.Entry<Position, Tile> entry : play.entrySet()) {
+            board.placeTile(entry.getValue(), entry.getKey().getRow(), entry.getKey().getCol());
+        }
+        Map<Position, Tile> extension = new LinkedHashMap<>();
+        extension.put(new Position(7, 9), Tile.of('S'));
+        result = validator.validate(extension);
+        assertTrue(result.isValid());
+        assertEquals("CATS", result.getWords().get(0).getWord());
+        extension.put(new Position(7, 8), Tile.of('S'));
+        assertEquals(PlayResult.Problem.OCCUPIED, validator.validate(extension).getProblem());
+        extension.clear();
+        extension.put(new Position(0, 0), Tile.of('A'));
+        assertEquals(PlayResult.Problem.NOT_CONNECTED, validator.validate(extension).getProblem());
+    }
+
+    @Test
+    /**
+     * Tests that a play is scored without changing the board, premiums counting in every word through them
+     */
+    public void scoreCalculator() throws Exception {
+        Board board = new Board();
+        ScoreCalculator calculator = new ScoreCalculator(board);
+        Map<Position, Tile> play = new LinkedHashMap<>();
+        play.put(new Position(7, 6), Tile.of('C'));
+        play.put(new Position(7, 7), Tile.of('A'));
+        play.put(new Position(7, 8), Tile.of('T'));
+        assertEquals((3 + 1 + 1) * 2, calculator.score(play));
+        for (Map.Entry<Position, Tile> entry : play.entrySet()) {
+            board.placeTile(entry.getValue(), entry.getKey().getRow(), entry.getKey().getCol());
+        }
+        long key = board.getKey();
+
+        //A on a double letter square makes AT across and AT down, doubled in both
+        assertEquals(Board.DOUBLE_LETTER, board.getPremium(6, 8));
+        Map<Position, Tile> cross = new LinkedHashMap<>();
+        cross.put(new Position(6, 8), Tile.of('A'));
+        cross.put(new Position(6, 9), Tile.of('T'));
+        assertEquals((1 * 2 + 1) + (1 * 2 + 1), calculator.score(cross));
+        assertEquals(key, board.getKey());
+        assertEquals(Board.DOUBLE_LETTER, board.getPremium(6, 8));
+
+        //the center's double word is not counted again for a tile already on the board
+        Map<Position, Tile> extension = new LinkedHashMap<>();
+        extension.put(new Position(7, 9), Tile.of('S'));
+        assertEquals(3 + 1 + 1 + 1, calculator.score(extension));
+
+        //two double word squares in one word multiply it by four, a blank scores nothing, and all seven
+        //tiles earn the bingo bonus
+        File xml = File.createTempFile("doubles", ".xml");
+        xml.deleteOnExit();
+        try (PrintWriter out = new PrintWriter(xml)) {
+            out.println("<board><size>7</size>");
+            out.println("<square><pos>1A</pos><type>3</type></square>");
+            out.println("<square><pos>1G</pos><type>3</type></square>");
+            out.println("</board>");
+        }
+        Map<Position, Tile> bingo = new LinkedHashMap<>();
+        for (int col = 0; col < 7; col++) {
+            bingo.put(new Position(0, col), (col == 3) ? Tile.blank().designate('E') : Tile.of('E'));
+        }
+        assertEquals(6 * 4 + ScoreCalculator.BINGO_BONUS, new ScoreCalculator(new Board(xml.getPath())).score(bingo));
+    }
+
+    @Test
+    /**
+     * Tests that a new tile on a word premium multiplies each word through it, the cross-word as well as the
+     * main word, and that each word is multiplied on its own rather than the play's running total
+     */
+    public void crossWordOnPremium() {
+        Board board = new Board();
+        board.placeTile(Tile.of('C'), 0, 1);
+        board.placeTile(Tile.of('T'), 2, 1);
+        assertEquals(Board.DOUBLE_WORD, board.getPremium(1, 1));
+        assertEquals(Board.NO_PREMIUM, board.getPremium(1, 2));
+
+        //A on the double word makes AT across and CAT down, both doubled
+        Map<Position, Tile> play = new LinkedHashMap<>();
+        play.put(new Position(1, 1), Tile.of('A'));
+        play.put(new Position(1, 2), Tile.of('T'));
+        assertEquals((1 + 1) * 2 + (3 + 1 + 1) * 2, new ScoreCalculator(board).score(play));
+
+        //a later play through the square does not score its premium again
+        board.placeTile(Tile.of('A'), 1, 1);
+        board.usePremium(1, 1);
+        Map<Position, Tile> plural = new LinkedHashMap<>();
+        plural.put(new Position(3, 1), Tile.of('S'));
+        assertEquals(3 + 1 + 1 + 1, new ScoreCalculator(board).score(plural));
+    }
+
+    @Test
+    /**
+     * Tests that a board file that is missing or is not board XML is refused with a message, not a crash
+     */
+    public void unusableLayout() throws IOException {
+        try {
+            new Board("no such board.xml");
+            fail("a missing file should be refused");
+        } catch (IllegalArgumentException expected) {
+            assertTrue(expected.getMessage().contains("could not be read"));
+        }
+
+        File xml = File.createTempFile("broken", ".xml");
+        xml.deleteOnExit();
+        try (PrintWriter out = new PrintWriter(xml)) {
+            out.println("<board><size>21</size><square><pos>1A</pos>");
+        }
+        try {
+            new Board(xml.getPath());
+            fail("malformed XML should be refused");
+        } catch (IllegalArgumentException expected) {
+            assertTrue(expected.getMessage().contains("not valid board XML"));
+        }
+        try {
+            new Board().importCustomBoardXML(xml.getPath());
+            fail("malformed XML should be refused");
+        } catch (IllegalArgumentException expected) {
+            assertTrue(expected.getMessage().contains("not valid board XML"));
+        }
+    }
+}
@@ -0,0 +1,226 @@
+import java.io.Serializable;
+
+/**
+ * Class CommandLog records the tiles a player moves during a turn, onto the board or into the exchange panel,
+ * so they can be undone and redone. Each entry is the rack slot the tile came from, the square or exchange slot
+ * it went to, and the tile itself, a blank carrying the letter it was given. The entries are kept in parallel
+ * arrays used as a ring buffer: recording, undoing and redoing only move a cursor and never allocate, and once
+ * the log is full the oldest entry is dropped to make room.
+ * <p>
+ * Entries are handed out as ints, read with the getters, and are only good until the next entry is recorded.
+ * The log only moves its cursor; undoing or redoing the move itself is up to ScrabbleModel, which does so for
+ * each entry it steps over.
+ *
+ * @version 1
+ */
+public class CommandLog implements Serializable {
+    private static final long serialVersionUID = 1L;
+    public static final int DEFAULT_CAPACITY = 32;
+
+    private final int[] rackSlots; // the rack slot each tile came from, -1 if not known
+    private final int[] targets; // the square (row * Board.MAX_SIZE + col) or exchange slot each tile went to
+    private final boolean[] exchanges; // true if the tile went to the exchange panel
+    private final Tile[] tiles;
+    private int head; // the index of the oldest entry
+    private int done; // the number of entries not undone
+    private int recorded; // the number of entries, undone ones that can still be redone included
+
+    /**
+     * Constructor for a log of the default capacity
+     */
+    public CommandLog() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor for class CommandLog
+     *
+     * @param capacity the number of entries kept before the oldest is dropped
+     */
+    public CommandLog(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1, not " + capacity);
+        }
+        rackSlots = new int[capacity];
+        targets = new int[capacity];
+        exchanges = new boolean[capacity];
+        tiles = new Tile[capacity];
+    }
+
+    /**
+     * Records a tile placed on the board. Any undone entries can no longer be redone.
+     *
+     * @param rackSlot the rack slot the tile came from, or -1 if not known
+     * @param row      the row of the square
+     * @param col      the column of the square
+     * @param tile     the tile, a blank with the letter it was given
+     */
+    public void recordPlacement(int rackSlot, int row, int col, Tile tile) {
+        record(rackSlot, row * Board.MAX_SIZE + col, false, tile);
+    }
+
+    /**
+     * Records a tile put in the exchange panel. Any undone entries can no longer be redone.
+     *
+     * @param rackSlot     the rack slot the tile came from, or -1 if not known
+     * @param exchangeSlot the slot of the exchange panel
+     * @param tile         the tile
+     */
+    public void recordExchange(int rackSlot, int exchangeSlot, Tile tile) {
+        record(rackSlot, exchangeSlot, true, tile);
+    }
+
+    /**
+     * Adds an entry after the last one done, dropping the oldest entry if the log is full
+     *
+     * @param rackSlot the rack slot the tile came from
+     * @param target   the square or exchange slot the tile went to
+     * @param exchange true if the tile went to the exchange panel
+     * @param tile     the tile
+     */
+    private void record(int rackSlot, int target, boolean exchange, Tile tile) {
+        if (done == tiles.length) {
+            head = (head + 1) % tiles.length;
+            done--;
+        }
+        int entry = (head + done) % tiles.length;
+        rackSlots[entry] = rackSlot;
+        targets[entry] = target;
+        exchanges[entry] = exchange;
+        tiles[entry] = tile;
+        done++;
+        recorded = done;
+    }
+
+    /**
+     * Steps back over the last entry done
+     *
+     * @return the entry to undo, or -1 if there is none
+     */
+    public int undo() {
+        if (done == 0) {
+            return -1;
+        }
+        done--;
+        return (head + done) % tiles.length;
+    }
+
+    /**
+     * Steps forward over the first entry undone
+     *
+     * @return the entry to redo, or -1 if there is none
+     */
+    public int redo() {
+        if (done == recorded) {
+            return -1;
+        }
+        int entry = (head + done) % tiles.length;
+        done++;
+        return entry;
+    }
+
+    /**
+     * Gets the entry the next undo would step back over, without moving
+     *
+     * @return the entry, or -1 if there is none
+     */
+    public int peekUndo() {
+        return (done == 0) ? -1 : (head + done - 1) % tiles.length;
+    }
+
+    /**
+     * Gets the entry the next redo would step forward over, without moving
+     *
+     * @return the entry, or -1 if there is none
+     */
+    public int peekRedo() {
+        return (done == recorded) ? -1 : (head + done) % tiles.length;
+    }
+
+    /**
+     * Empties the log for the next turn
+     */
+    public void clear() {
+        head = 0;
+        done = 0;
+        recorded = 0;
+    }
+
+    /**
+     * Getter for the number of entries that can be undone
+     *
+     * @return the number of entries done
+     */
+    public int getDoneCount() {
+        return done;
+    }
+
+    /**
+     * Getter for the number of entries that can be redone
+     *
+     * @return the number of entries undone
+     */
+    public int getUndoneCount() {
+        return recorded - done;
+    }
+
+    /**
+     * Checks if an entry moved a tile to the exchange panel
+     *
+     * @param entry the entry
+     * @return true for an exchange, false for a placement on the board
+     */
+    public boolean isExchange(int entry) {
+        return exchanges[entry];
+    }
+
+    /**
+     * Getter for the rack slot an entry's tile came from
+     *
+     * @param entry the entry
+     * @return the slot, or -1 if not known
+     */
+    public int getRackSlot(int entry) {
+        return rackSlots[entry];
+    }
+
+    /**
+     * Getter for the row a placement went to
+     *
+     * @param entry the entry, a placement
+     * @return the row
+     */
+    public int getRow(int entry) {
+        return targets[entry] / Board.MAX_SIZE;
+    }
+
+    /**
+     * Getter for the column a placement went to
+     *
+     * @param entry the entry, a placement
+     * @return the column
+     */
+    public int getCol(int entry) {
+        return targets[entry] % Board.MAX_SIZE;
+    }
+
+    /**
+     * Getter for the exchange panel slot an exchange went to
+     *
+     * @param entry the entry, an exchange
+     * @return the slot
+     */
+    public int getExchangeSlot(int entry) {
+        return targets[entry];
+    }
+
+    /**
+     * Getter for the tile an entry moved
+     *
+     * @param entry the entry
+     * @return the tile, a blank with the letter it was given
+     */
+    public Tile getTile(int entry) {
+        return tiles[entry];
+    }
+}
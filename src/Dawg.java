@@ -0,0 +1,315 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Class Dawg is an immutable lexicon stored as a minimized DAWG (directed acyclic word graph), so words
+ * that share an ending share the nodes for it. The whole graph is a single table of int arcs, either an
+ * array on the heap or a compiled lexicon file mapped into memory (see LexiconFile). A node is the index
+ * of its first arc, and its arcs follow in alphabetical order. Each arc packs its letter, whether a word
+ * ends after it, whether it is the node's last arc, and the index of the node it leads to.
+ * <p>
+ * The table holds two graphs: the words forwards, for membership and prefix checks, and the words
+ * reversed, for suffix checks. Every query follows a single path, so it takes time proportional to the
+ * length of the word. Games get their lexicon through LexiconRegistry, which loads each word list once,
+ * mapped from its compiled file when one is up to date.
+ *
+ * @version 1
+ */
+public class Dawg implements WordList {
+    /**
+     * Largest footprint a DAWG may have, in bytes. The shared Collins lexicon uses under half of it,
+     * so a word list may grow a lot before the budget is reached.
+     */
+    public static final long MEMORY_BUDGET_BYTES = 8L * 1024 * 1024;
+    public static final String DEFAULT_WORD_LIST = "CollinsScrabbleWords.txt";
+    public static final String[] WORD_LISTS = {DEFAULT_WORD_LIST, "scrabblewords.txt"}; // the lists a game can use
+
+    static final int LETTER_MASK = 0x1F; // bits 0 to 4 hold the letter index
+    static final int END_OF_WORD = 1 << 5; // a word ends after this arc's letter
+    static final int LAST_ARC = 1 << 6; // this is the last arc of its node
+    static final int TARGET_SHIFT = 7; // bits 7 to 31 hold the node the arc leads to
+    private static final int NO_ARC = -1;
+    private static final long OBJECT_OVERHEAD_BYTES = 64; // object headers, fields and array header
+
+    private final IntBuffer arcs;
+    private final int forwardRoot;
+    private final int reverseRoot;
+    private final int wordCount;
+
+    /**
+     * Constructor for class Dawg
+     *
+     * @param arcs        the arc table, read with absolute gets only
+     * @param forwardRoot the root node of the forward graph
+     * @param reverseRoot the root node of the reversed graph
+     * @param wordCount   the number of words stored
+     */
+    Dawg(IntBuffer arcs, int forwardRoot, int reverseRoot, int wordCount) {
+        this.arcs = arcs;
+        this.forwardRoot = forwardRoot;
+        this.reverseRoot = reverseRoot;
+        this.wordCount = wordCount;
+        if (getFootprintBytes() > MEMORY_BUDGET_BYTES) {
+            throw new IllegalStateException("Lexicon needs " + getFootprintBytes()
+                    + " bytes, over the budget of " + MEMORY_BUDGET_BYTES);
+        }
+    }
+
+    /**
+     * Creates a DAWG from words in any order
+     *
+     * @param words the words to store, each made only of letters
+     * @return the DAWG holding the words
+     */
+    public static Dawg fromWords(Iterable<String> words) {
+        ArrayList<String> sorted = new ArrayList<>();
+        for (String word : words) {
+            sorted.add(word.toLowerCase());
+        }
+        Collections.sort(sorted);
+        return fromSortedWords(sorted);
+    }
+
+    /**
+     * Creates a DAWG from a word list file with one word per line, parsing it in parallel
+     *
+     * @param fileName the name of the word list file
+     * @return the DAWG holding every word in the file
+     */
+    public static Dawg fromFile(String fileName) {
+        try {
+            LexiconLoader loader = new LexiconLoader();
+            Dawg dawg = loader.load(fileName);
+            System.out.println("Loaded " + fileName + ": " + loader);
+            return dawg;
+        } catch (IOException e) {
+            System.out.println("Dictionary File \"" + fileName + "\" is missing");
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Builds both graphs from words already in alphabetical order
+     *
+     * @param words the words in alphabetical order
+     * @return the DAWG holding the words
+     */
+    private static Dawg fromSortedWords(ArrayList<String> words) {
+        DawgBuilder builder = new DawgBuilder();
+        ArrayList<String> reversed = new ArrayList<>(words.size());
+        for (String word : words) {
+            if (builder.add(word)) {
+                reversed.add(new StringBuilder(word.toLowerCase()).reverse().toString());
+            }
+        }
+        int forwardRoot = builder.finishGraph();
+        int count = builder.getWordCount();
+
+        Collections.sort(reversed);
+        for (String word : reversed) {
+            builder.add(word);
+        }
+        int reverseRoot = builder.finishGraph();
+        return new Dawg(IntBuffer.wrap(builder.toArcTable()), forwardRoot, reverseRoot, count);
+    }
+
+    /**
+     * Loads a word list, mapping its compiled lexicon file if that is at least as new as the list.
+     * Otherwise the list is parsed and compiled so the next start can map it.
+     *
+     * @param wordListFile the name of the word list file
+     * @return the lexicon for the word list
+     */
+    public static Dawg load(String wordListFile) {
+        File wordList = new File(wordListFile);
+        File compiled = new File(LexiconFile.compiledName(wordListFile));
+        if (compiled.isFile() && compiled.lastModified() >= wordList.lastModified()) {
+            try {
+                return LexiconFile.map(compiled.getPath());
+            } catch (IOException e) {
+                System.out.println("Compiled lexicon \"" + compiled + "\" is unusable, rebuilding: " + e.getMessage());
+            }
+        }
+        Dawg dawg = fromFile(wordListFile);
+        try {
+            LexiconFile.write(dawg, compiled.getPath());
+        } catch (IOException e) {
+            System.out.println("Could not save compiled lexicon \"" + compiled + "\": " + e.getMessage());
+        }
+        return dawg;
+    }
+
+    /**
+     * Finds the arc leaving a node with a letter
+     *
+     * @param node   the node to search
+     * @param letter the letter index, 0 to 25
+     * @return the index of the arc, or NO_ARC if the node has no arc with that letter
+     */
+    private int findArc(int node, int letter) {
+        if (node == 0 || letter < 0) {
+            return NO_ARC;
+        }
+        for (int i = node; ; i++) {
+            int arc = arcs.get(i);
+            int arcLetter = arc & LETTER_MASK;
+            if (arcLetter == letter) {
+                return i;
+            }
+            if (arcLetter > letter || (arc & LAST_ARC) != 0) {
+                return NO_ARC;
+            }
+        }
+    }
+
+    @Override
+    public boolean contains(CharSequence word) {
+        int node = forwardRoot;
+        int arc = NO_ARC;
+        for (int i = 0; i < word.length(); i++) {
+            arc = findArc(node, Lexicon.letterIndex(word.charAt(i)));
+            if (arc == NO_ARC) {
+                return false;
+            }
+            node = arcs.get(arc) >>> TARGET_SHIFT;
+        }
+        return arc != NO_ARC && (arcs.get(arc) & END_OF_WORD) != 0;
+    }
+
+    @Override
+    public boolean hasPrefix(CharSequence prefix) {
+        int node = forwardRoot;
+        for (int i = 0; i < prefix.length(); i++) {
+            int arc = findArc(node, Lexicon.letterIndex(prefix.charAt(i)));
+            if (arc == NO_ARC) {
+                return false;
+            }
+            node = arcs.get(arc) >>> TARGET_SHIFT;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean hasSuffix(CharSequence suffix) {
+        int node = reverseRoot;
+        for (int i = suffix.length() - 1; i >= 0; i--) {
+            int arc = findArc(node, Lexicon.letterIndex(suffix.charAt(i)));
+            if (arc == NO_ARC) {
+                return false;
+            }
+            node = arcs.get(arc) >>> TARGET_SHIFT;
+        }
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return wordCount;
+    }
+
+    @Override
+    public void forEachWord(Consumer<String> action) {
+        forEachWord(forwardRoot, new StringBuilder(), action);
+    }
+
+    @Override
+    public Iterator<String> query(WordQuery query) {
+        return query.iterator(this);
+    }
+
+    /**
+     * Performs an action for every word reachable from a node
+     *
+     * @param node   the node to start from
+     * @param prefix the letters on the path to the node
+     * @param action the action to perform on each word
+     */
+    private void forEachWord(int node, StringBuilder prefix, Consumer<String> action) {
+        if (node == 0) {
+            return;
+        }
+        for (int i = node; ; i++) {
+            int arc = arcs.get(i);
+            prefix.append((char) ('a' + (arc & LETTER_MASK)));
+            if ((arc & END_OF_WORD) != 0) {
+                action.accept(prefix.toString());
+            }
+            forEachWord(arc >>> TARGET_SHIFT, prefix, action);
+            prefix.setLength(prefix.length() - 1);
+            if ((arc & LAST_ARC) != 0) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Getter for the number of arcs in both graphs
+     *
+     * @return the number of arcs
+     */
+    public int getArcCount() {
+        return arcs.limit();
+    }
+
+    /**
+     * Getter for the memory used by this lexicon. For a mapped lexicon the arcs live in the operating
+     * system's page cache, shared with other processes mapping the same file, rather than on the heap.
+     *
+     * @return the footprint in bytes
+     */
+    public long getFootprintBytes() {
+        return (long) arcs.limit() * Integer.BYTES + OBJECT_OVERHEAD_BYTES;
+    }
+
+    /**
+     * Checks if the arcs are read in place from a mapped file
+     *
+     * @return true if mapped, false if held on the heap
+     */
+    public boolean isMapped() {
+        return arcs.isDirect();
+    }
+
+    /**
+     * Getter for the arc table, for writing it to a file
+     *
+     * @return a read-only view of the arcs
+     */
+    IntBuffer getArcs() {
+        return arcs.asReadOnlyBuffer();
+    }
+
+    /**
+     * Getter for one arc of the table, for walking the graph. A node's arcs start at the node's index and
+     * run up to the arc with LAST_ARC set; TARGET_SHIFT gives the node an arc leads to, 0 having no arcs.
+     *
+     * @param index the index of the arc
+     * @return the packed arc
+     */
+    int arcAt(int index) {
+        return arcs.get(index);
+    }
+
+    /**
+     * Getter for the root node of the forward graph
+     *
+     * @return the forward root
+     */
+    int getForwardRoot() {
+        return forwardRoot;
+    }
+
+    /**
+     * Getter for the root node of the reversed graph
+     *
+     * @return the reverse root
+     */
+    int getReverseRoot() {
+        return reverseRoot;
+    }
+}
@@ -0,0 +1,240 @@
+import java.util.Arrays;
+
+/**
+ * Class DawgBuilder builds the arc table of a minimized DAWG (directed acyclic word graph) from words
+ * given in alphabetical order. Each node is frozen as soon as no later word can pass through it, and a
+ * node whose arcs match an already frozen node is replaced by it, so the graph stays minimal while it
+ * is built and never holds more than the current word's path in an unfinished state.
+ * <p>
+ * Several graphs may be built into the same table one after the other, each with its own root,
+ * and frozen nodes are shared between them.
+ *
+ * @version 1
+ */
+public class DawgBuilder {
+    static final int MAX_WORD_LENGTH = 64;
+
+    private int[] arcs; // frozen arcs, encoded as in Dawg
+    private int arcCount;
+    private int[] register; // open addressing table of frozen node indexes, 0 marks an empty slot
+    private int registered;
+
+    private final int[][] pendingArcs; // arcs of the unfinished node at each depth of the current path
+    private final int[] pendingCount;
+    private final byte[] previousWord; // letter indexes of the last word added
+    private final byte[] wordLetters; // letter indexes of the word being added
+    private int previousLength;
+    private int wordCount;
+
+    /**
+     * Constructor for class DawgBuilder
+     */
+    public DawgBuilder() {
+        arcs = new int[1 << 16];
+        arcCount = 1; // index 0 stands for the node with no arcs
+        register = new int[1 << 15];
+        pendingArcs = new int[MAX_WORD_LENGTH + 1][26];
+        pendingCount = new int[MAX_WORD_LENGTH + 1];
+        previousWord = new byte[MAX_WORD_LENGTH];
+        wordLetters = new byte[MAX_WORD_LENGTH];
+        previousLength = -1; // nothing added to the current graph yet
+    }
+
+    /**
+     * Adds the next word to the current graph. Words must come in strictly increasing alphabetical order;
+     * a repeat of the previous word is ignored.
+     *
+     * @param word the word, made only of letters
+     * @return true if the word was added, false if it was a repeat or was not made only of letters
+     */
+    public boolean add(CharSequence word) {
+        int length = word.length();
+        if (length == 0 || length > MAX_WORD_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            int letter = Lexicon.letterIndex(word.charAt(i));
+            if (letter < 0) {
+                return false;
+            }
+            wordLetters[i] = (byte) letter;
+        }
+        return add(wordLetters, 0, length);
+    }
+
+    /**
+     * Adds the next word to the current graph, given as letter indexes. Words must come in strictly
+     * increasing alphabetical order; a repeat of the previous word is ignored.
+     *
+     * @param letters an array holding the word's letter indexes, 0 for A through 25 for Z
+     * @param start   the index of the word's first letter
+     * @param length  the number of letters in the word
+     * @return true if the word was added, false if it was a repeat or too long
+     */
+    public boolean add(byte[] letters, int start, int length) {
+        if (length == 0 || length > MAX_WORD_LENGTH) {
+            return false;
+        }
+
+        // find how much of the path to the previous word can be kept
+        int common = 0;
+        int shorter = Math.min(length, Math.max(previousLength, 0));
+        while (common < shorter && letters[start + common] == previousWord[common]) {
+            common++;
+        }
+        if (common == length && length == previousLength) {
+            return false; // repeated word
+        }
+        if (common < previousLength && (common == length || letters[start + common] < previousWord[common])) {
+            char[] word = new char[length];
+            for (int i = 0; i < length; i++) {
+                word[i] = (char) ('a' + letters[start + i]);
+            }
+            throw new IllegalArgumentException("Words must be added in alphabetical order: " + new String(word));
+        }
+
+        freezeDownTo(common);
+        for (int depth = common; depth < length; depth++) {
+            int letter = letters[start + depth];
+            pendingArcs[depth][pendingCount[depth]++] = letter;
+            pendingCount[depth + 1] = 0;
+            previousWord[depth] = (byte) letter;
+        }
+        pendingArcs[length - 1][pendingCount[length - 1] - 1] |= Dawg.END_OF_WORD;
+        previousLength = length;
+        wordCount++;
+        return true;
+    }
+
+    /**
+     * Freezes the rest of the current graph and starts a new one
+     *
+     * @return the index of the finished graph's root node
+     */
+    public int finishGraph() {
+        if (previousLength < 0) {
+            pendingCount[0] = 0;
+        }
+        freezeDownTo(0);
+        int root = freeze(0);
+        previousLength = -1;
+        pendingCount[0] = 0;
+        return root;
+    }
+
+    /**
+     * Getter for the number of words added to all graphs so far
+     *
+     * @return number of words added
+     */
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    /**
+     * Getter for the arc table built so far, trimmed to its used length
+     *
+     * @return a copy of the arc table
+     */
+    public int[] toArcTable() {
+        return Arrays.copyOf(arcs, arcCount);
+    }
+
+    /**
+     * Freezes the unfinished nodes below a depth, deepest first, pointing each parent arc at the result
+     *
+     * @param depth the depth of the deepest node that stays unfinished
+     */
+    private void freezeDownTo(int depth) {
+        for (int d = previousLength; d > depth; d--) {
+            int node = freeze(d);
+            pendingArcs[d - 1][pendingCount[d - 1] - 1] |= node << Dawg.TARGET_SHIFT;
+        }
+    }
+
+    /**
+     * Finds a frozen node with the same arcs as the unfinished node at a depth, or freezes it as a new node
+     *
+     * @param depth the depth of the node on the current path
+     * @return the index of the equivalent frozen node
+     */
+    private int freeze(int depth) {
+        int count = pendingCount[depth];
+        if (count == 0) {
+            return 0;
+        }
+        int[] pending = pendingArcs[depth];
+        pending[count - 1] |= Dawg.LAST_ARC;
+
+        int hash = 0;
+        for (int i = 0; i < count; i++) {
+            hash = hash * 31 + pending[i];
+        }
+        int mask = register.length - 1;
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        while (register[slot] != 0) {
+            int candidate = register[slot];
+            if (sameArcs(candidate, pending, count)) {
+                return candidate;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (arcCount + count > arcs.length) {
+            arcs = Arrays.copyOf(arcs, Math.max(arcs.length + (arcs.length >> 1), arcCount + count));
+        }
+        if ((arcCount + count) >>> (32 - Dawg.TARGET_SHIFT) != 0) {
+            throw new IllegalStateException("Too many arcs for a DAWG");
+        }
+        int node = arcCount;
+        System.arraycopy(pending, 0, arcs, node, count);
+        arcCount += count;
+
+        register[slot] = node;
+        if (++registered * 2 > register.length) {
+            growRegister();
+        }
+        return node;
+    }
+
+    /**
+     * Checks if a frozen node has exactly the given arcs
+     *
+     * @param node    the frozen node
+     * @param pending the arcs to compare with
+     * @param count   the number of arcs
+     * @return true if the arcs are identical
+     */
+    private boolean sameArcs(int node, int[] pending, int count) {
+        for (int i = 0; i < count; i++) {
+            if (arcs[node + i] != pending[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Doubles the register, re-inserting every frozen node
+     */
+    private void growRegister() {
+        int[] old = register;
+        register = new int[old.length * 2];
+        int mask = register.length - 1;
+        for (int node : old) {
+            if (node == 0) {
+                continue;
+            }
+            int hash = 0;
+            int i = node;
+            do {
+                hash = hash * 31 + arcs[i];
+            } while ((arcs[i++] & Dawg.LAST_ARC) == 0);
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while (register[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            register[slot] = node;
+        }
+    }
+}
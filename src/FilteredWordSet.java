@@ -0,0 +1,136 @@
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Class FilteredWordSet puts a Bloom filter in front of an exact set of words. Most invalid candidate words
+ * are rejected by the filter, and only words that pass it are looked up exactly, so the answers are the
+ * same as the exact set's. Counters record how many words the filter rejected, how many it passed, and how
+ * many of those passed were not words after all.
+ *
+ * @version 1
+ */
+public class FilteredWordSet implements WordSet {
+    private final BloomFilter filter;
+    private final WordSet exact;
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder passed = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    /**
+     * Constructor for class FilteredWordSet
+     *
+     * @param filter a Bloom filter holding every word of the exact set
+     * @param exact  the set that gives the final answer
+     */
+    public FilteredWordSet(BloomFilter filter, WordSet exact) {
+        this.filter = filter;
+        this.exact = exact;
+    }
+
+    @Override
+    public boolean contains(CharSequence word) {
+        if (!filter.mightContain(word)) {
+            rejected.increment();
+            return false;
+        }
+        passed.increment();
+        if (!exact.contains(word)) {
+            falsePositives.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks a batch of words, running every word through the filter before any exact lookup
+     *
+     * @param words the words to check
+     * @return whether each word is valid, in the same order
+     */
+    @Override
+    public boolean[] containsEach(CharSequence[] words) {
+        boolean[] valid = new boolean[words.length];
+        int survivors = 0;
+        for (int i = 0; i < words.length; i++) {
+            valid[i] = filter.mightContain(words[i]);
+            if (valid[i]) {
+                survivors++;
+            }
+        }
+        rejected.add(words.length - survivors);
+        passed.add(survivors);
+        for (int i = 0; i < words.length; i++) {
+            if (valid[i] && !exact.contains(words[i])) {
+                valid[i] = false;
+                falsePositives.increment();
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Checks that every word of a batch is valid. The whole batch goes through the filter first, so a
+     * play with one impossible word costs no exact lookups at all.
+     *
+     * @param words the words to check
+     * @return true if every word is valid
+     */
+    @Override
+    public boolean containsAll(CharSequence[] words) {
+        for (int i = 0; i < words.length; i++) {
+            if (!filter.mightContain(words[i])) {
+                passed.add(i); // the words before it got through the filter
+                rejected.increment();
+                return false;
+            }
+        }
+        passed.add(words.length);
+        for (CharSequence word : words) {
+            if (!exact.contains(word)) {
+                falsePositives.increment();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return exact.size();
+    }
+
+    /**
+     * Getter for the number of words rejected by the filter without an exact lookup
+     *
+     * @return number of words rejected
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Getter for the number of words the filter passed on to the exact lookup
+     *
+     * @return number of words passed
+     */
+    public long getPassedCount() {
+        return passed.sum();
+    }
+
+    /**
+     * Getter for the number of words the filter passed that the exact lookup then rejected
+     *
+     * @return number of false positives
+     */
+    public long getFalsePositiveCount() {
+        return falsePositives.sum();
+    }
+
+    /**
+     * Sets every counter back to zero
+     */
+    public void resetCounters() {
+        rejected.reset();
+        passed.reset();
+        falsePositives.reset();
+    }
+}
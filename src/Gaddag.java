@@ -0,0 +1,300 @@
+import java.util.Arrays;
+
+/**
+ * Class Gaddag is a lexicon stored as a GADDAG. Every word is stored once for each of its letters,
+ * as the letters before and including that letter in reverse, the separator, then the rest of the word
+ * (e.g. CAT is stored as C+AT, AC+T and TAC). Membership, prefix and suffix checks follow a single path
+ * from the root, so they take time proportional to the length of the word. Move generation can start
+ * at any letter already on the board, extending left with the reversed part and right after the separator.
+ * <p>
+ * Nodes are kept in parallel primitive arrays, with the children of each node linked in alphabetical order.
+ * The GADDAG stores every word once per letter, so it is several times the size of the DAWG; games check
+ * words with the DAWG, and LexiconRegistry builds a GADDAG of a list only when an AI first generates moves.
+ *
+ * @version 2
+ */
+public class Gaddag implements Lexicon {
+    public static final char SEPARATOR = '+'; // marks the switch from extending left to extending right
+    public static final int NO_NODE = -1; // returned when a path does not exist
+
+    private static final int ROOT = 0;
+    private static final byte SEPARATOR_LABEL = 26; // label of separator arcs, after the letters
+    private static final byte TERMINAL = 1; // node ends a complete path
+    private static final byte ENDS_REVERSED_WORD = 2; // a separator-free path from this node ends a word
+
+    private byte[] labels; // the label of the arc leading into each node
+    private int[] firstChild; // first child of each node, lowest label first
+    private int[] nextSibling; // next child of the same parent
+    private byte[] flags; // TERMINAL and ENDS_REVERSED_WORD bits of each node
+    private int nodeCount;
+    private int wordCount;
+
+    /**
+     * Constructor for class Gaddag
+     *
+     * @param words the words to store, each made only of letters
+     */
+    public Gaddag(Iterable<String> words) {
+        this();
+        for (String word : words) {
+            addWord(word);
+        }
+        markReversedWordEnds();
+        trim();
+    }
+
+    /**
+     * Creates an empty GADDAG with only a root node
+     */
+    private Gaddag() {
+        labels = new byte[1 << 16];
+        firstChild = new int[labels.length];
+        nextSibling = new int[labels.length];
+        flags = new byte[labels.length];
+        newNode(SEPARATOR_LABEL); // root, its label is never read
+    }
+
+    /**
+     * Creates a GADDAG of every word in a loaded word list
+     *
+     * @param words the word list
+     * @return the GADDAG holding every word in the list
+     */
+    public static Gaddag of(WordList words) {
+        Gaddag gaddag = new Gaddag();
+        words.forEachWord(gaddag::addWord);
+        gaddag.markReversedWordEnds();
+        gaddag.trim();
+        return gaddag;
+    }
+
+    /**
+     * Adds every path of a word: for each letter, the letters up to it reversed, then the separator
+     * and the remaining letters. The path for the last letter is the whole word reversed with no separator.
+     *
+     * @param word the word to add
+     */
+    private void addWord(String word) {
+        int length = word.length();
+        if (length == 0) {
+            return;
+        }
+        byte[] letters = new byte[length];
+        for (int i = 0; i < length; i++) {
+            int index = Lexicon.letterIndex(word.charAt(i));
+            if (index < 0) {
+                return; // not a playable word
+            }
+            letters[i] = (byte) index;
+        }
+
+        boolean added = false;
+        for (int split = 1; split <= length; split++) {
+            int node = ROOT;
+            for (int i = split - 1; i >= 0; i--) {
+                node = childOrNew(node, letters[i]);
+            }
+            if (split < length) {
+                node = childOrNew(node, SEPARATOR_LABEL);
+                for (int i = split; i < length; i++) {
+                    node = childOrNew(node, letters[i]);
+                }
+            }
+            if ((flags[node] & TERMINAL) == 0) {
+                flags[node] |= TERMINAL;
+                added = true;
+            }
+        }
+        if (added) {
+            wordCount++;
+        }
+    }
+
+    /**
+     * Finds the child of a node with a label, creating it in alphabetical position if it is missing
+     *
+     * @param node  the parent node
+     * @param label the label of the arc
+     * @return the child node
+     */
+    private int childOrNew(int node, byte label) {
+        int previous = NO_NODE;
+        int child = firstChild[node];
+        while (child != 0 && labels[child] < label) {
+            previous = child;
+            child = nextSibling[child];
+        }
+        if (child != 0 && labels[child] == label) {
+            return child;
+        }
+        int created = newNode(label);
+        nextSibling[created] = child;
+        if (previous == NO_NODE) {
+            firstChild[node] = created;
+        } else {
+            nextSibling[previous] = created;
+        }
+        return created;
+    }
+
+    /**
+     * Allocates a node, growing the arrays when they are full
+     *
+     * @param label the label of the arc leading into the node
+     * @return the index of the new node
+     */
+    private int newNode(byte label) {
+        if (nodeCount == labels.length) {
+            int capacity = labels.length + (labels.length >> 1);
+            labels = Arrays.copyOf(labels, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+        }
+        labels[nodeCount] = label;
+        return nodeCount++;
+    }
+
+    /**
+     * Shrinks the arrays to the nodes in use, once no more words will be added
+     */
+    private void trim() {
+        labels = Arrays.copyOf(labels, nodeCount);
+        firstChild = Arrays.copyOf(firstChild, nodeCount);
+        nextSibling = Arrays.copyOf(nextSibling, nodeCount);
+        flags = Arrays.copyOf(flags, nodeCount);
+    }
+
+    /**
+     * Marks each node from which a path without separators leads to the end of a word, so suffix
+     * queries need only one walk. Children are always created after their parent, so walking the nodes
+     * backwards sees every child before its parent.
+     */
+    private void markReversedWordEnds() {
+        for (int node = nodeCount - 1; node >= 0; node--) {
+            boolean endsWord = (flags[node] & TERMINAL) != 0;
+            for (int child = firstChild[node]; child != 0 && !endsWord; child = nextSibling[child]) {
+                endsWord = labels[child] != SEPARATOR_LABEL && (flags[child] & ENDS_REVERSED_WORD) != 0;
+            }
+            if (endsWord) {
+                flags[node] |= ENDS_REVERSED_WORD;
+            }
+        }
+    }
+
+    /**
+     * Getter for the root node, where every path starts
+     *
+     * @return the root node
+     */
+    public int root() {
+        return ROOT;
+    }
+
+    /**
+     * Follows the arc from a node with the given letter or separator
+     *
+     * @param node   the node to start from
+     * @param letter a letter, or SEPARATOR
+     * @return the node reached, or NO_NODE if there is no such arc
+     */
+    public int child(int node, char letter) {
+        int label = (letter == SEPARATOR) ? SEPARATOR_LABEL : Lexicon.letterIndex(letter);
+        if (node == NO_NODE || label < 0) {
+            return NO_NODE;
+        }
+        for (int child = firstChild[node]; child != 0; child = nextSibling[child]) {
+            if (labels[child] >= label) {
+                return labels[child] == label ? child : NO_NODE;
+            }
+        }
+        return NO_NODE;
+    }
+
+    /**
+     * Getter for the first child of a node, used to list every arc leaving it
+     *
+     * @param node the parent node
+     * @return the first child in alphabetical order, or NO_NODE if the node has none
+     */
+    public int firstChild(int node) {
+        int child = firstChild[node];
+        return child == 0 ? NO_NODE : child;
+    }
+
+    /**
+     * Getter for the next child of the same parent
+     *
+     * @param node a child node
+     * @return the next child in alphabetical order, or NO_NODE if it was the last one
+     */
+    public int nextSibling(int node) {
+        int sibling = nextSibling[node];
+        return sibling == 0 ? NO_NODE : sibling;
+    }
+
+    /**
+     * Getter for the label of the arc leading into a node
+     *
+     * @param node the node
+     * @return the upper case letter, or SEPARATOR
+     */
+    public char letterOf(int node) {
+        return labels[node] == SEPARATOR_LABEL ? SEPARATOR : (char) ('A' + labels[node]);
+    }
+
+    /**
+     * Checks if the path to a node spells a complete entry, meaning a word has been formed
+     *
+     * @param node the node to check
+     * @return true if a word ends at this node, false otherwise
+     */
+    public boolean isTerminal(int node) {
+        return node != NO_NODE && (flags[node] & TERMINAL) != 0;
+    }
+
+    /**
+     * Follows the letters of a sequence in reverse order from the root
+     *
+     * @param letters the letters to follow
+     * @return the node reached, or NO_NODE if the path does not exist
+     */
+    private int followReversed(CharSequence letters) {
+        int node = ROOT;
+        for (int i = letters.length() - 1; i >= 0 && node != NO_NODE; i--) {
+            node = child(node, letters.charAt(i));
+        }
+        return node;
+    }
+
+    @Override
+    public boolean contains(CharSequence word) {
+        return word.length() > 0 && isTerminal(followReversed(word));
+    }
+
+    @Override
+    public boolean hasPrefix(CharSequence prefix) {
+        int node = followReversed(prefix);
+        return node != NO_NODE && (node == ROOT || isTerminal(node) || child(node, SEPARATOR) != NO_NODE);
+    }
+
+    @Override
+    public boolean hasSuffix(CharSequence suffix) {
+        int node = followReversed(suffix);
+        return node != NO_NODE && (flags[node] & ENDS_REVERSED_WORD) != 0;
+    }
+
+    @Override
+    public int size() {
+        return wordCount;
+    }
+
+    /**
+     * Getter for the number of nodes in the GADDAG
+     *
+     * @return the number of nodes, including the root
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+}
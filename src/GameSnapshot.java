@@ -0,0 +1,72 @@
+import java.util.List;
+
+/**
+ * Class GameSnapshot holds the state of a game at one moment: the board with its premiums and cross-checks,
+ * and the tiles left in the bag. Taking one copies nothing until the game goes on, so it can be handed to a
+ * simulation worker, which forks its own board and bag from it to try moves on without locking the live game.
+ *
+ * @version 1
+ */
+public class GameSnapshot {
+    private final Board board;
+    private final Bag bag;
+    private final int turnNumber;
+
+    /**
+     * Constructor for class GameSnapshot
+     *
+     * @param board      the live board
+     * @param bag        the live bag
+     * @param turnNumber the number of plays made so far
+     */
+    public GameSnapshot(Board board, Bag bag, int turnNumber) {
+        this.board = board.snapshot();
+        this.bag = bag.copy();
+        this.turnNumber = turnNumber;
+    }
+
+    /**
+     * Getter for the board as it was when the snapshot was taken
+     *
+     * @return the board, which cannot be changed
+     */
+    public Board getBoard() {
+        return board;
+    }
+
+    /**
+     * Getter for the tiles that were left in the bag
+     *
+     * @return the tiles in the order they would be drawn, as a list that cannot be changed
+     */
+    public List<Tile> getBagTiles() {
+        return bag.getTiles();
+    }
+
+    /**
+     * Getter for the number of plays made before the snapshot
+     *
+     * @return the turn number
+     */
+    public int getTurnNumber() {
+        return turnNumber;
+    }
+
+    /**
+     * Makes a board to try moves on, starting from the snapshot
+     *
+     * @return a board of its own, sharing arrays with the snapshot until it is changed
+     */
+    public Board forkBoard() {
+        return board.fork();
+    }
+
+    /**
+     * Makes a bag to draw from, starting from the snapshot
+     *
+     * @return a bag of its own
+     */
+    public Bag forkBag() {
+        return bag.copy();
+    }
+}
@@ -0,0 +1,36 @@
+/**
+ * Interface Lexicon represents the list of words that are valid in a game of "Not Scrabble".
+ * Besides checking whole words it answers the prefix and suffix checks that move generation needs.
+ * Queries are case-insensitive, and any character that is not a letter A to Z never matches.
+ *
+ * @version 1
+ */
+public interface Lexicon extends WordSet {
+
+    /**
+     * Checks if at least one word in the lexicon starts with the given letters
+     *
+     * @param prefix the letters the word must start with
+     * @return true if some word starts with prefix, false otherwise
+     */
+    boolean hasPrefix(CharSequence prefix);
+
+    /**
+     * Checks if at least one word in the lexicon ends with the given letters
+     *
+     * @param suffix the letters the word must end with
+     * @return true if some word ends with suffix, false otherwise
+     */
+    boolean hasSuffix(CharSequence suffix);
+
+    /**
+     * Converts a letter to its index in the alphabet
+     *
+     * @param letter the letter to convert, upper or lower case
+     * @return 0 for A through 25 for Z, or -1 if the character is not a letter
+     */
+    static int letterIndex(char letter) {
+        int index = (letter | 0x20) - 'a'; // folds upper case onto lower case
+        return (index >= 0 && index < 26) ? index : -1;
+    }
+}
@@ -0,0 +1,107 @@
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.function.Predicate;
+
+/**
+ * Class LexiconBenchmark times exact word lookups, the only query made when a play is validated, against
+ * the original dictionary (an ArrayList of words searched with contains), the DAWG, the word hash index,
+ * and the DAWG behind a 1% Bloom filter.
+ * Half the queried words are in the list and half are the same words with one letter changed.
+ * <p>
+ * Run as a program: {@code java LexiconBenchmark [word list]}
+ *
+ * @version 1
+ */
+public class LexiconBenchmark {
+    private static final int QUERIES = 200_000;
+    private static final int LIST_QUERIES = 500; // the list scans every word on a miss, so it gets fewer
+    private static final int ROUNDS = 5;
+
+    /**
+     * Runs the benchmark
+     *
+     * @param args the name of the word list file, the Collins list if not given
+     * @throws FileNotFoundException if the word list is missing
+     */
+    public static void main(String[] args) throws FileNotFoundException {
+        String wordListFile = (args.length > 0) ? args[0] : Dawg.DEFAULT_WORD_LIST;
+        ArrayList<String> list = new ArrayList<>();
+        try (Scanner scanner = new Scanner(new File(wordListFile))) {
+            while (scanner.hasNextLine()) {
+                list.add(scanner.nextLine().trim().toLowerCase());
+            }
+        }
+
+        long start = System.nanoTime();
+        Dawg dawg = Dawg.load(wordListFile);
+        System.out.printf("DAWG loaded in %d ms, %d bytes%n", (System.nanoTime() - start) / 1_000_000,
+                dawg.getFootprintBytes());
+        start = System.nanoTime();
+        WordHashIndex index = new WordHashIndex(list);
+        System.out.printf("Hash index built in %d ms, %d bytes%n", (System.nanoTime() - start) / 1_000_000,
+                index.getFootprintBytes());
+
+        FilteredWordSet filtered = new FilteredWordSet(BloomFilter.of(dawg, 0.01), dawg);
+
+        String[] queries = queries(list, QUERIES);
+        for (int round = 1; round <= ROUNDS; round++) {
+            System.out.printf("Round %d: ArrayList %,d ns, DAWG %,d ns, hash index %,d ns, filtered DAWG %,d ns"
+                            + " per lookup%n", round,
+                    time(list::contains, queries, LIST_QUERIES),
+                    time(dawg::contains, queries, QUERIES),
+                    time(index::contains, queries, QUERIES),
+                    time(filtered::contains, queries, QUERIES));
+        }
+        System.out.printf("Filter rejected %,d words and passed %,d, of which %,d were not words%n",
+                filtered.getRejectedCount(), filtered.getPassedCount(), filtered.getFalsePositiveCount());
+    }
+
+    /**
+     * Picks words to look up, alternating words from the list with words that have one letter changed
+     *
+     * @param list  the word list
+     * @param count the number of words to pick
+     * @return the words to look up, in lower case like the list
+     */
+    private static String[] queries(List<String> list, int count) {
+        Random random = new Random(42);
+        String[] queries = new String[count];
+        for (int i = 0; i < count; i++) {
+            String word = list.get(random.nextInt(list.size()));
+            if (i % 2 == 1) {
+                char[] letters = word.toCharArray();
+                letters[random.nextInt(letters.length)] = (char) ('a' + random.nextInt(26));
+                word = new String(letters);
+            }
+            queries[i] = word;
+        }
+        return queries;
+    }
+
+    /**
+     * Times a lookup over the first words of a query set
+     *
+     * @param lookup  the lookup to time
+     * @param queries the words to look up
+     * @param count   how many of the words to look up
+     * @return the average time of one lookup in nanoseconds
+     */
+    private static long time(Predicate<String> lookup, String[] queries, int count) {
+        int found = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            if (lookup.test(queries[i])) {
+                found++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        if (found < 0) {
+            System.out.println(found); // keeps the lookups from being optimized away
+        }
+        return elapsed / count;
+    }
+}
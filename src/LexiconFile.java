@@ -0,0 +1,148 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Class LexiconFile compiles word lists into binary lexicon files and maps them back into memory.
+ * A mapped lexicon is queried in place, so loading one only reads the header and checks the checksum,
+ * and every process mapping the same file shares its pages through the operating system's page cache.
+ * <p>
+ * File layout, all values big-endian ints:
+ * magic "NSLX", format version, word count, forward root, reverse root, arc count, CRC32 of the arcs,
+ * one unused int, then the arc table of the Dawg.
+ * <p>
+ * Run as a program to compile a word list: {@code java LexiconFile CollinsScrabbleWords.txt}
+ *
+ * @version 1
+ */
+public class LexiconFile {
+    public static final int MAGIC = 0x4E534C58; // "NSLX"
+    public static final int VERSION = 1;
+    public static final String EXTENSION = ".lex";
+    private static final int HEADER_BYTES = 8 * Integer.BYTES;
+
+    /**
+     * Gets the name of the compiled lexicon file for a word list, replacing the .txt extension with .lex
+     *
+     * @param wordListFile the name of the word list file
+     * @return the name of its compiled lexicon file
+     */
+    public static String compiledName(String wordListFile) {
+        String base = wordListFile.endsWith(".txt")
+                ? wordListFile.substring(0, wordListFile.length() - ".txt".length()) : wordListFile;
+        return base + EXTENSION;
+    }
+
+    /**
+     * Compiles a word list into a lexicon file
+     *
+     * @param wordListFile the name of the word list file, one word per line in alphabetical order
+     * @param lexiconFile  the name of the lexicon file to write
+     * @return the compiled lexicon
+     * @throws IOException if the lexicon file cannot be written
+     */
+    public static Dawg compile(String wordListFile, String lexiconFile) throws IOException {
+        Dawg dawg = Dawg.fromFile(wordListFile);
+        write(dawg, lexiconFile);
+        return dawg;
+    }
+
+    /**
+     * Writes a lexicon to a file. The file is written under a temporary name and then moved into place,
+     * so a process mapping the old file never sees a half written one.
+     *
+     * @param dawg        the lexicon to write
+     * @param lexiconFile the name of the lexicon file to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Dawg dawg, String lexiconFile) throws IOException {
+        IntBuffer arcs = dawg.getArcs();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + arcs.limit() * Integer.BYTES);
+        buffer.position(HEADER_BYTES);
+        buffer.asIntBuffer().put(arcs);
+
+        CRC32 checksum = new CRC32();
+        checksum.update(buffer.duplicate().position(HEADER_BYTES));
+        buffer.position(0);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(dawg.size())
+                .putInt(dawg.getForwardRoot()).putInt(dawg.getReverseRoot())
+                .putInt(arcs.limit()).putInt((int) checksum.getValue()).putInt(0);
+        buffer.position(0);
+
+        Path target = Paths.get(lexiconFile).toAbsolutePath();
+        Path temporary = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Maps a lexicon file into memory and checks its header and checksum
+     *
+     * @param lexiconFile the name of the lexicon file
+     * @return the lexicon, reading its arcs from the mapped file
+     * @throws IOException if the file cannot be read, or is not a valid lexicon of this version
+     */
+    public static Dawg map(String lexiconFile) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(Paths.get(lexiconFile), StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("file is too short to be a lexicon");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("not a lexicon file");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("lexicon format version " + buffer.getInt(4) + " is not supported");
+        }
+        int wordCount = buffer.getInt(8);
+        int forwardRoot = buffer.getInt(12);
+        int reverseRoot = buffer.getInt(16);
+        int arcCount = buffer.getInt(20);
+        int expectedChecksum = buffer.getInt(24);
+        if (arcCount < 1 || (long) HEADER_BYTES + (long) arcCount * Integer.BYTES != buffer.capacity()
+                || forwardRoot < 0 || forwardRoot >= arcCount || reverseRoot < 0 || reverseRoot >= arcCount) {
+            throw new IOException("lexicon header does not match the file size");
+        }
+
+        CRC32 checksum = new CRC32();
+        checksum.update(buffer.duplicate().position(HEADER_BYTES));
+        if ((int) checksum.getValue() != expectedChecksum) {
+            throw new IOException("lexicon checksum does not match, the file is corrupt");
+        }
+
+        IntBuffer arcs = buffer.position(HEADER_BYTES).slice().asIntBuffer();
+        return new Dawg(arcs, forwardRoot, reverseRoot, wordCount);
+    }
+
+    /**
+     * Compiles the word lists given on the command line, or the Collins list if none are given
+     *
+     * @param args the names of the word list files
+     * @throws IOException if a lexicon file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        String[] wordLists = (args.length > 0) ? args : new String[]{Dawg.DEFAULT_WORD_LIST};
+        for (String wordList : wordLists) {
+            long start = System.nanoTime();
+            Dawg dawg = compile(wordList, compiledName(wordList));
+            System.out.println("Compiled " + dawg.size() + " words from " + wordList + " into "
+                    + compiledName(wordList) + " (" + dawg.getFootprintBytes() + " bytes) in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+        }
+    }
+}
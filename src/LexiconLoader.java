@@ -0,0 +1,432 @@
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Class LexiconLoader builds a Dawg from a text word list, one word per line, in any letter case.
+ * The file is mapped and split into chunks at line breaks, and the chunks are parsed in parallel on the
+ * common ForkJoin pool straight into letter indexes, without creating a String per line. The words are
+ * then fed to a DawgBuilder in file order, and in reversed order for the suffix graph.
+ * <p>
+ * Lists are normally in alphabetical order; a list that is not is sorted before building.
+ * After a load, the getters report how long it took and how fast the file was read.
+ * <p>
+ * Run as a program to time loading word lists: {@code java LexiconLoader CollinsScrabbleWords.txt}
+ *
+ * @version 1
+ */
+public class LexiconLoader {
+    private static final int MIN_CHUNK_BYTES = 64 * 1024;
+    private static final int CHUNKS_PER_THREAD = 4; // more chunks than threads, so one slow chunk doesn't hold up the rest
+
+    private long fileBytes;
+    private int wordCount;
+    private long parseNanos;
+    private long totalNanos;
+
+    /**
+     * Loads a word list file
+     *
+     * @param wordListFile the name of the word list file
+     * @return the DAWG holding every word in the file
+     * @throws IOException if the file cannot be read
+     */
+    public Dawg load(String wordListFile) throws IOException {
+        long start = System.nanoTime();
+        Path path = Paths.get(wordListFile);
+        MappedByteBuffer text;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            fileBytes = channel.size();
+            text = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileBytes);
+        }
+
+        List<ParseChunk> chunks = splitAtLines(text);
+        ForkJoinTask.invokeAll(chunks);
+        Words words = Words.join(chunks);
+        parseNanos = System.nanoTime() - start;
+
+        DawgBuilder builder = new DawgBuilder();
+        byte[] letters = words.letters;
+        int[] order = words.sorted ? null : words.order(false);
+        for (int i = 0; i < words.count; i++) {
+            int word = (order == null) ? i : order[i];
+            builder.add(letters, words.starts[word], words.length(word));
+        }
+        int forwardRoot = builder.finishGraph();
+        wordCount = builder.getWordCount();
+
+        byte[] reversed = new byte[DawgBuilder.MAX_WORD_LENGTH];
+        for (int word : words.order(true)) {
+            int wordStart = words.starts[word];
+            int length = words.length(word);
+            for (int j = 0; j < length; j++) {
+                reversed[j] = letters[wordStart + length - 1 - j];
+            }
+            builder.add(reversed, 0, length);
+        }
+        int reverseRoot = builder.finishGraph();
+
+        Dawg dawg = new Dawg(IntBuffer.wrap(builder.toArcTable()), forwardRoot, reverseRoot, wordCount);
+        totalNanos = System.nanoTime() - start;
+        return dawg;
+    }
+
+    /**
+     * Splits the text into chunks that each end at a line break, about CHUNKS_PER_THREAD per thread
+     *
+     * @param text the whole file
+     * @return a parse task for each chunk, in file order
+     */
+    private static List<ParseChunk> splitAtLines(MappedByteBuffer text) {
+        int size = text.limit();
+        int threads = ForkJoinPool.getCommonPoolParallelism();
+        int chunkBytes = Math.max(MIN_CHUNK_BYTES, size / Math.max(1, threads * CHUNKS_PER_THREAD));
+        List<ParseChunk> chunks = new ArrayList<>();
+        int start = 0;
+        while (start < size) {
+            int end = Math.min(size, start + chunkBytes);
+            while (end < size && text.get(end - 1) != '\n') {
+                end++;
+            }
+            chunks.add(new ParseChunk(text, start, end));
+            start = end;
+        }
+        return chunks;
+    }
+
+    /**
+     * Getter for the size of the last file loaded
+     *
+     * @return the file size in bytes
+     */
+    public long getFileBytes() {
+        return fileBytes;
+    }
+
+    /**
+     * Getter for the number of words in the last file loaded
+     *
+     * @return number of words
+     */
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    /**
+     * Getter for how long reading and parsing the last file took, before the DAWG was built
+     *
+     * @return parse time in milliseconds
+     */
+    public double getParseMillis() {
+        return parseNanos / 1e6;
+    }
+
+    /**
+     * Getter for how long the whole last load took
+     *
+     * @return load time in milliseconds
+     */
+    public double getLoadMillis() {
+        return totalNanos / 1e6;
+    }
+
+    /**
+     * Getter for the speed of the last load
+     *
+     * @return megabytes of word list loaded per second
+     */
+    public double getMegabytesPerSecond() {
+        return (totalNanos == 0) ? 0 : fileBytes / 1e6 / (totalNanos / 1e9);
+    }
+
+    /**
+     * Getter for the speed of the last load
+     *
+     * @return words loaded per second
+     */
+    public double getWordsPerSecond() {
+        return (totalNanos == 0) ? 0 : wordCount / (totalNanos / 1e9);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%,d words (%,d bytes) in %.1f ms, %.1f ms parsing: %.1f MB/s, %,.0f words/s",
+                wordCount, fileBytes, getLoadMillis(), getParseMillis(), getMegabytesPerSecond(), getWordsPerSecond());
+    }
+
+    /**
+     * Loads the word lists given on the command line, or both lists that ship with the game, and reports
+     * how fast each loaded
+     *
+     * @param args the names of the word list files
+     * @throws IOException if a file cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        String[] wordLists = (args.length > 0) ? args : new String[]{Dawg.DEFAULT_WORD_LIST, "scrabblewords.txt"};
+        LexiconLoader loader = new LexiconLoader();
+        for (String wordList : wordLists) {
+            for (int round = 1; round <= 3; round++) {
+                loader.load(wordList);
+                System.out.println(wordList + " round " + round + ": " + loader);
+            }
+        }
+    }
+
+    /**
+     * Parses one chunk of the file into letter indexes. Each line is trimmed of surrounding whitespace,
+     * and lines holding anything but letters, or too long for the builder, are skipped.
+     */
+    private static final class ParseChunk extends RecursiveTask<ParseChunk> {
+        private static final long serialVersionUID = 1L;
+        private final transient MappedByteBuffer text; // a task is never serialized, and the mapping could not be
+        private final int from;
+        private final int to;
+        private byte[] letters;
+        private int[] starts; // the start of each word in letters, with one extra entry marking the end
+        private int count;
+
+        private ParseChunk(MappedByteBuffer text, int from, int to) {
+            this.text = text;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ParseChunk compute() {
+            letters = new byte[to - from];
+            starts = new int[Math.max(16, (to - from) / 8)];
+            int length = 0;
+            int lineStart = from;
+            while (lineStart < to) {
+                int lineEnd = lineStart;
+                while (lineEnd < to && text.get(lineEnd) != '\n') {
+                    lineEnd++;
+                }
+                int first = lineStart;
+                int last = lineEnd;
+                while (first < last && text.get(first) <= ' ') {
+                    first++;
+                }
+                while (last > first && text.get(last - 1) <= ' ') {
+                    last--;
+                }
+                int wordStart = length;
+                for (int i = first; i < last; i++) {
+                    int letter = Lexicon.letterIndex((char) (text.get(i) & 0xFF));
+                    if (letter < 0) {
+                        length = wordStart; // not a word, drop what was parsed of it
+                        break;
+                    }
+                    letters[length++] = (byte) letter;
+                }
+                if (length - wordStart > DawgBuilder.MAX_WORD_LENGTH) {
+                    length = wordStart; // too long for the builder
+                }
+                if (length > wordStart) {
+                    if (count + 1 >= starts.length) {
+                        starts = Arrays.copyOf(starts, starts.length * 2);
+                    }
+                    starts[count++] = wordStart;
+                }
+                lineStart = lineEnd + 1;
+            }
+            starts[count] = length;
+            return this;
+        }
+    }
+
+    /**
+     * The words of the whole file, as letter indexes laid end to end
+     */
+    private static final class Words {
+        private final byte[] letters;
+        private final int[] starts; // the start of each word, with one extra entry marking the end
+        private final int count;
+        private final boolean sorted;
+
+        private Words(byte[] letters, int[] starts, int count, boolean sorted) {
+            this.letters = letters;
+            this.starts = starts;
+            this.count = count;
+            this.sorted = sorted;
+        }
+
+        /**
+         * Joins the parsed chunks in file order, noting if the words are in alphabetical order
+         *
+         * @param chunks the parsed chunks
+         * @return the words of the whole file
+         */
+        private static Words join(List<ParseChunk> chunks) {
+            int letterCount = 0;
+            int wordCount = 0;
+            for (ParseChunk chunk : chunks) {
+                letterCount += chunk.starts[chunk.count];
+                wordCount += chunk.count;
+            }
+            byte[] letters = new byte[letterCount];
+            int[] starts = new int[wordCount + 1];
+            int letterAt = 0;
+            int wordAt = 0;
+            for (ParseChunk chunk : chunks) {
+                System.arraycopy(chunk.letters, 0, letters, letterAt, chunk.starts[chunk.count]);
+                for (int i = 0; i < chunk.count; i++) {
+                    starts[wordAt++] = letterAt + chunk.starts[i];
+                }
+                letterAt += chunk.starts[chunk.count];
+            }
+            starts[wordCount] = letterAt;
+
+            Words words = new Words(letters, starts, wordCount, true);
+            for (int i = 1; i < wordCount; i++) {
+                if (words.compare(i - 1, i, false) > 0) {
+                    return new Words(letters, starts, wordCount, false);
+                }
+            }
+            return words;
+        }
+
+        /**
+         * Gets the length of a word
+         *
+         * @param word the index of the word
+         * @return the number of letters
+         */
+        private int length(int word) {
+            return starts[word + 1] - starts[word];
+        }
+
+        /**
+         * Sorts the words alphabetically, either as written or read backwards. This is a radix sort on one
+         * letter at a time, and the groups for each first letter are sorted in parallel.
+         *
+         * @param reversed true to sort by the words read backwards
+         * @return the indexes of the words in sorted order
+         */
+        private int[] order(boolean reversed) {
+            int[] order = new int[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = i;
+            }
+            new RadixSort(order, new int[count], 0, count, 0, reversed).invoke();
+            return order;
+        }
+
+        /**
+         * Gets a letter of a word
+         *
+         * @param word     the index of the word
+         * @param position the position of the letter
+         * @param reversed true to count positions from the end of the word
+         * @return the letter index, or -1 if the word has no letter at that position
+         */
+        private int letterAt(int word, int position, boolean reversed) {
+            if (position >= length(word)) {
+                return -1;
+            }
+            return reversed ? letters[starts[word + 1] - 1 - position] : letters[starts[word] + position];
+        }
+
+        /**
+         * Sorts a range of word indexes that already agree on the letters before a position
+         */
+        private final class RadixSort extends RecursiveAction {
+            private static final long serialVersionUID = 1L;
+            private static final int INSERTION_SORT_SIZE = 24;
+            private final int[] order;
+            private final int[] scratch;
+            private final int from;
+            private final int to;
+            private final int position;
+            private final boolean reversed;
+
+            private RadixSort(int[] order, int[] scratch, int from, int to, int position, boolean reversed) {
+                this.order = order;
+                this.scratch = scratch;
+                this.from = from;
+                this.to = to;
+                this.position = position;
+                this.reversed = reversed;
+            }
+
+            @Override
+            protected void compute() {
+                if (to - from <= INSERTION_SORT_SIZE) {
+                    for (int i = from + 1; i < to; i++) {
+                        int word = order[i];
+                        int j = i;
+                        while (j > from && compare(order[j - 1], word, reversed) > 0) {
+                            order[j] = order[j - 1];
+                            j--;
+                        }
+                        order[j] = word;
+                    }
+                    return;
+                }
+
+                // group by the letter at this position, words that have ended first
+                int[] bucketStart = new int[28];
+                for (int i = from; i < to; i++) {
+                    bucketStart[letterAt(order[i], position, reversed) + 2]++;
+                }
+                bucketStart[0] = from;
+                for (int b = 1; b < bucketStart.length; b++) {
+                    bucketStart[b] += bucketStart[b - 1];
+                }
+                int[] next = Arrays.copyOf(bucketStart, 27);
+                for (int i = from; i < to; i++) {
+                    scratch[next[letterAt(order[i], position, reversed) + 1]++] = order[i];
+                }
+                System.arraycopy(scratch, from, order, from, to - from);
+
+                // words that ended here are all the same word, the rest are sorted on the next letter
+                List<RadixSort> groups = new ArrayList<>();
+                for (int b = 1; b < 27; b++) {
+                    if (bucketStart[b + 1] - bucketStart[b] > 1) {
+                        groups.add(new RadixSort(order, scratch, bucketStart[b], bucketStart[b + 1], position + 1, reversed));
+                    }
+                }
+                if (position == 0) {
+                    ForkJoinTask.invokeAll(groups);
+                } else {
+                    for (RadixSort group : groups) {
+                        group.compute();
+                    }
+                }
+            }
+        }
+
+        /**
+         * Compares two words alphabetically
+         *
+         * @param a        the first word
+         * @param b        the second word
+         * @param reversed true to compare the words read backwards
+         * @return negative, zero or positive as the first word comes before, with or after the second
+         */
+        private int compare(int a, int b, boolean reversed) {
+            int lengthA = length(a);
+            int lengthB = length(b);
+            int shorter = Math.min(lengthA, lengthB);
+            for (int i = 0; i < shorter; i++) {
+                int letterA = reversed ? letters[starts[a + 1] - 1 - i] : letters[starts[a] + i];
+                int letterB = reversed ? letters[starts[b + 1] - 1 - i] : letters[starts[b] + i];
+                if (letterA != letterB) {
+                    return letterA - letterB;
+                }
+            }
+            return lengthA - lengthB;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Class LexiconPatch is an update to a word list: the words it adds and the words it removes. A patch is
+ * read from a diff file with one change per line, {@code +WORD} to add a word and {@code -WORD} to remove
+ * one; blank lines and lines starting with {@code #} are ignored. Patches are immutable, and applying one
+ * patch after another gives a single patch of the same size as the two together. A patch is saved with a
+ * game played on a patched version, so the version can be made again when the game is loaded.
+ *
+ * @version 1
+ */
+public class LexiconPatch implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private final TreeSet<String> additions; // held as the sorted set itself so the patch serializes cleanly
+    private final TreeSet<String> removals;
+
+    /**
+     * Constructor for class LexiconPatch. A word both added and removed is added.
+     *
+     * @param additions the words to add
+     * @param removals  the words to remove
+     */
+    public LexiconPatch(Collection<String> additions, Collection<String> removals) {
+        TreeSet<String> added = new TreeSet<>();
+        for (String word : additions) {
+            added.add(checkWord(word));
+        }
+        TreeSet<String> removed = new TreeSet<>();
+        for (String word : removals) {
+            removed.add(checkWord(word));
+        }
+        removed.removeAll(added);
+        this.additions = added;
+        this.removals = removed;
+    }
+
+    /**
+     * Reads a patch from a diff file
+     *
+     * @param diffFile the name of the diff file
+     * @return the patch
+     * @throws IOException if the file cannot be read
+     */
+    public static LexiconPatch fromFile(String diffFile) throws IOException {
+        List<String> lines = Files.readAllLines(Paths.get(diffFile), StandardCharsets.US_ASCII);
+        TreeSet<String> additions = new TreeSet<>();
+        TreeSet<String> removals = new TreeSet<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String word = line.substring(1).trim().toLowerCase();
+            if (line.charAt(0) == '+') {
+                additions.add(word);
+                removals.remove(word);
+            } else if (line.charAt(0) == '-') {
+                removals.add(word);
+                additions.remove(word);
+            } else {
+                throw new IllegalArgumentException("Line " + (i + 1) + " of " + diffFile + " is not +WORD or -WORD: " + line);
+            }
+        }
+        return new LexiconPatch(additions, removals);
+    }
+
+    /**
+     * Combines this patch with one applied after it
+     *
+     * @param next the patch applied after this one
+     * @return a patch making both sets of changes, where the later patch wins
+     */
+    public LexiconPatch then(LexiconPatch next) {
+        TreeSet<String> added = new TreeSet<>(additions);
+        added.removeAll(next.removals);
+        added.addAll(next.additions);
+        TreeSet<String> removed = new TreeSet<>(removals);
+        removed.removeAll(next.additions);
+        removed.addAll(next.removals);
+        return new LexiconPatch(added, removed);
+    }
+
+    /**
+     * Getter for the words the patch adds
+     *
+     * @return the added words in lower case and alphabetical order
+     */
+    public Set<String> getAdditions() {
+        return Collections.unmodifiableSet(additions);
+    }
+
+    /**
+     * Getter for the words the patch removes
+     *
+     * @return the removed words in lower case and alphabetical order
+     */
+    public Set<String> getRemovals() {
+        return Collections.unmodifiableSet(removals);
+    }
+
+    /**
+     * Hashes the changes, so two patches making the same changes have the same hash
+     *
+     * @return the hash
+     */
+    public long contentHash() {
+        return ((long) additions.hashCode() << 32) ^ (removals.hashCode() & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Checks a word is made only of letters and puts it in lower case
+     *
+     * @param word the word
+     * @return the word in lower case
+     */
+    private static String checkWord(String word) {
+        if (word.isEmpty()) {
+            throw new IllegalArgumentException("A patch cannot change an empty word");
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (Lexicon.letterIndex(word.charAt(i)) < 0) {
+                throw new IllegalArgumentException("Words may only hold letters: " + word);
+            }
+        }
+        return word.toLowerCase();
+    }
+}
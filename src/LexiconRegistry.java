@@ -0,0 +1,626 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.Cleaner;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+/**
+ * Class LexiconRegistry loads each word list once per JVM and hands out shared read-only handles to it.
+ * Lists are keyed by their path and a hash of their contents, so an edited list is loaded again while
+ * games holding the old one keep it. When several threads ask for a list that is not loaded yet, one of
+ * them loads it and the rest wait for that load.
+ * <p>
+ * Games ask for a list by name. A name stands for its own file until a new version of the list is
+ * published under it, after which new games get the new version and games in progress keep the old one.
+ * A new version is either another word list file or a patch applied to the current version, which takes
+ * time proportional to the patch rather than to the list.
+ * <p>
+ * A handle counts as in use until it is closed, or until the game holding it is garbage collected.
+ * A list with no handles in use for longer than the idle period is evicted.
+ *
+ * @version 1
+ */
+public class LexiconRegistry {
+    public static final long DEFAULT_IDLE_MILLIS = 10 * 60 * 1000L; // 10 minutes
+    private static final LexiconRegistry shared = new LexiconRegistry(DEFAULT_IDLE_MILLIS, Dawg::load);
+    private static final Cleaner cleaner = Cleaner.create();
+
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Path, long[]> contentHashes = new ConcurrentHashMap<>(); // size, modified, hash
+    private final ConcurrentHashMap<String, String> currentVersions = new ConcurrentHashMap<>(); // list name to version
+    private final ConcurrentHashMap<String, Update> updates = new ConcurrentHashMap<>(); // patched versions by name
+    private final Function<String, Dawg> loader;
+    private volatile long idleMillis;
+    private final AtomicInteger loadCount = new AtomicInteger();
+
+    /**
+     * Constructor for class LexiconRegistry
+     *
+     * @param idleMillis how long a list may go without handles before it is evicted
+     * @param loader     loads a word list file into a lexicon
+     */
+    LexiconRegistry(long idleMillis, Function<String, Dawg> loader) {
+        this.idleMillis = idleMillis;
+        this.loader = loader;
+    }
+
+    /**
+     * Getter for the registry shared by every game in the JVM
+     *
+     * @return the shared registry
+     */
+    public static LexiconRegistry getShared() {
+        return shared;
+    }
+
+    /**
+     * Gets a handle to a word list, loading the list if no current handle shares it
+     *
+     * @param wordListFile the name of the word list file
+     * @return a handle to the loaded lexicon
+     */
+    public Handle acquire(String wordListFile) {
+        evictIdle();
+        Key key = keyFor(wordListFile);
+        Entry entry = entries.compute(key, (k, existing) -> {
+            Entry e = (existing != null) ? existing : new Entry(wordListFile);
+            e.handles++;
+            return e;
+        });
+
+        entry.load.run(); // loads the list, or does nothing if another thread already ran it
+        try {
+            return new Handle(this, key, entry, entry.load.get(), wordListFile);
+        } catch (InterruptedException | ExecutionException e) {
+            release(key);
+            entries.remove(key, entry); // let the next request try again
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IllegalStateException("Could not load lexicon \"" + wordListFile + "\"", e.getCause());
+        }
+    }
+
+    /**
+     * Starts getting a handle to a word list on a background thread, so the list can load while the
+     * game does other work
+     *
+     * @param wordListFile the name of the word list file
+     * @return a future completed with the handle once the list is loaded
+     */
+    public CompletableFuture<Handle> acquireAsync(String wordListFile) {
+        return CompletableFuture.supplyAsync(() -> acquire(wordListFile));
+    }
+
+    /**
+     * Gets a handle to the current version of a named word list
+     *
+     * @param listName the name of the list
+     * @return a handle to the loaded lexicon
+     */
+    public Handle acquireList(String listName) {
+        return acquire(getCurrentVersion(listName));
+    }
+
+    /**
+     * Starts getting a handle to the current version of a named word list on a background thread. The
+     * version is chosen straight away, so publishing another version afterwards does not change it.
+     *
+     * @param listName the name of the list
+     * @return a future completed with the handle once the list is loaded
+     */
+    public CompletableFuture<Handle> acquireListAsync(String listName) {
+        return acquireAsync(getCurrentVersion(listName));
+    }
+
+    /**
+     * Loads a new version of a word list and makes it the one new games get. Games already holding
+     * a handle to the list keep the version they have.
+     *
+     * @param listName    the name of the list
+     * @param versionFile the word list file holding the new version
+     */
+    public void publish(String listName, String versionFile) {
+        Handle loaded = acquire(versionFile); // load before switching, so no new game waits for it
+        String previous;
+        try {
+            previous = currentVersions.put(listName, versionFile);
+        } finally {
+            loaded.close();
+        }
+        if (previous != null) {
+            forgetUpdate(previous); // a patched version replaced may already have been evicted
+        }
+    }
+
+    /**
+     * Applies a patch to the current version of a word list and makes the result the version new games get.
+     * Games holding a handle to the list keep the version they have. Patches build on each other, so each
+     * new version holds every patch published for the list since its file was last published.
+     *
+     * @param listName the name of the list
+     * @param patch    the words to add and remove
+     * @return the name of the new version
+     */
+    public String publishUpdate(String listName, LexiconPatch patch) {
+        String current = getCurrentVersion(listName);
+        Update previous = updates.get(current);
+        String version = (previous != null)
+                ? register(previous.baseVersion, previous.patch.then(patch))
+                : register(current, patch);
+        Handle loaded = acquire(version); // apply before switching, so no new game waits for it
+        try {
+            currentVersions.put(listName, version);
+        } finally {
+            loaded.close();
+        }
+        forgetUpdate(current); // the version replaced may already have been evicted
+        return version;
+    }
+
+    /**
+     * Makes a patched version known again without publishing it, as when a game saved on it is loaded
+     * after the program has been restarted
+     *
+     * @param baseVersion the word list file the patch is applied to
+     * @param patch       every change made to the file
+     * @return the name of the patched version, to acquire it by
+     */
+    public String restoreUpdate(String baseVersion, LexiconPatch patch) {
+        return register(baseVersion, patch);
+    }
+
+    /**
+     * Gets the word list file a version was made from
+     *
+     * @param version the name of a version
+     * @return the file a patched version was applied to, or the version itself if it is a file
+     */
+    public String getBaseVersion(String version) {
+        Update update = updates.get(version);
+        return (update != null) ? update.baseVersion : version;
+    }
+
+    /**
+     * Gets every change a patched version makes to the file it was applied to
+     *
+     * @param version the name of a version
+     * @return the patch, or null if the version is a file
+     */
+    public LexiconPatch getPatch(String version) {
+        Update update = updates.get(version);
+        return (update != null) ? update.patch : null;
+    }
+
+    /**
+     * Names a patch applied to a word list file and remembers it, so the version can be loaded by name
+     *
+     * @param baseVersion the word list file the patch is applied to
+     * @param patch       every change made to the file
+     * @return the name of the patched version
+     */
+    private String register(String baseVersion, LexiconPatch patch) {
+        String path = keyFor(baseVersion).path;
+        String version = path + "+" + Long.toHexString(patch.contentHash());
+        updates.putIfAbsent(version, new Update(path, patch));
+        return version;
+    }
+
+    /**
+     * Getter for the current version of a named word list
+     *
+     * @param listName the name of the list
+     * @return the file or patched version published for the list, or the name itself if none has been
+     */
+    public String getCurrentVersion(String listName) {
+        return currentVersions.getOrDefault(listName, listName);
+    }
+
+    /**
+     * Removes every list that has had no handles in use for longer than the idle period
+     */
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        for (Key key : entries.keySet()) {
+            Entry[] evicted = new Entry[1];
+            entries.computeIfPresent(key, (k, e) -> {
+                if (e.handles == 0 && now - e.lastReleased >= idleMillis) {
+                    evicted[0] = e;
+                    return null;
+                }
+                return e;
+            });
+            if (evicted[0] != null) {
+                forget(key, evicted[0]);
+            }
+        }
+    }
+
+    /**
+     * Lets go of what an evicted list kept reachable: a patched version's handle to the version it was
+     * applied to, and its patch unless it is still the version new games get
+     *
+     * @param key   the key of the evicted list
+     * @param entry the evicted entry
+     */
+    private void forget(Key key, Entry entry) {
+        if (entry.base != null) {
+            entry.base.close(); // outside the map's compute methods, as closing updates the base's entry
+        }
+        forgetUpdate(key.path);
+    }
+
+    /**
+     * Drops the patch of a patched version that is neither loaded nor the version new games get
+     *
+     * @param version the name of the version
+     */
+    private void forgetUpdate(String version) {
+        if (!updates.containsKey(version) || currentVersions.containsValue(version)) {
+            return;
+        }
+        for (Key key : entries.keySet()) {
+            if (key.path.equals(version)) {
+                return;
+            }
+        }
+        updates.remove(version);
+    }
+
+    /**
+     * Sets how long a list may go without handles in use before it is evicted
+     *
+     * @param idleMillis the idle period in milliseconds
+     */
+    public void setIdleMillis(long idleMillis) {
+        this.idleMillis = idleMillis;
+    }
+
+    /**
+     * Getter for the number of lists currently held
+     *
+     * @return number of loaded lists
+     */
+    public int getLoadedCount() {
+        return entries.size();
+    }
+
+    /**
+     * Getter for the number of times a list has been loaded, for checking that lists are shared
+     *
+     * @return number of loads started
+     */
+    public int getLoadCount() {
+        return loadCount.get();
+    }
+
+    /**
+     * Marks one handle to a list as no longer in use
+     *
+     * @param key the key of the list
+     */
+    private void release(Key key) {
+        entries.computeIfPresent(key, (k, e) -> {
+            e.handles--;
+            e.lastReleased = System.currentTimeMillis();
+            return e;
+        });
+    }
+
+    /**
+     * Creates the key for a word list from its real path and a hash of its contents. The hash is
+     * remembered until the file's size or modification time change, so it is normally computed once.
+     *
+     * @param wordListFile the name of the word list file
+     * @return the key of the list
+     */
+    private Key keyFor(String wordListFile) {
+        Update update = updates.get(wordListFile);
+        if (update != null) {
+            return new Key(wordListFile, update.patch.contentHash());
+        }
+        try {
+            Path path = Paths.get(wordListFile).toRealPath();
+            long size = Files.size(path);
+            long modified = Files.getLastModifiedTime(path).toMillis();
+            long[] known = contentHashes.get(path);
+            if (known == null || known[0] != size || known[1] != modified) {
+                known = new long[]{size, modified, hashContents(path)};
+                contentHashes.put(path, known);
+            }
+            return new Key(path.toString(), known[2]);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Dictionary File \"" + wordListFile + "\" is missing", e);
+        }
+    }
+
+    /**
+     * Hashes the contents of a file
+     *
+     * @param path the file
+     * @return the CRC32 of the contents, combined with the file size
+     * @throws IOException if the file cannot be read
+     */
+    private static long hashContents(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer contents = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            CRC32 crc = new CRC32();
+            crc.update(contents);
+            return (crc.getValue() << 32) ^ channel.size();
+        }
+    }
+
+    /**
+     * Identifies a word list by its path and contents
+     */
+    private static final class Key {
+        private final String path;
+        private final long contentHash;
+
+        private Key(String path, long contentHash) {
+            this.path = path;
+            this.contentHash = contentHash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return contentHash == other.contentHash && path.equals(other.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return path.hashCode() * 31 + Long.hashCode(contentHash);
+        }
+    }
+
+    /**
+     * A patch and the file version of the list it is applied to
+     */
+    private static final class Update {
+        private final String baseVersion;
+        private final LexiconPatch patch;
+
+        private Update(String baseVersion, LexiconPatch patch) {
+            this.baseVersion = baseVersion;
+            this.patch = patch;
+        }
+    }
+
+    /**
+     * A loaded or loading word list and the number of handles in use for it.
+     * The handle count and release time are only changed inside the registry map's compute methods.
+     */
+    private final class Entry {
+        private final FutureTask<WordList> load;
+        private volatile Handle base; // for a patched version, keeps the version it was applied to loaded
+        private volatile WordSet wordIndex; // built the first time a game validates with it
+        private volatile AnagramIndex anagramIndex; // built the first time an AI looks for words
+        private volatile Gaddag gaddag; // built the first time an AI generates moves
+        private final ConcurrentHashMap<Double, BloomFilter> filters = new ConcurrentHashMap<>(); // by false positive rate
+        private int handles;
+        private long lastReleased;
+
+        private Entry(String wordListFile) {
+            load = new FutureTask<>(() -> {
+                loadCount.incrementAndGet();
+                Update update = updates.get(wordListFile);
+                if (update == null) {
+                    return loader.apply(wordListFile);
+                }
+                base = acquire(update.baseVersion);
+                return new PatchedLexicon((Dawg) base.lexicon, update.patch);
+            });
+        }
+
+        /**
+         * Gets the word index for validating plays, building it from the loaded lexicon the first time.
+         * A patched version puts its changes in front of the index of the version it was applied to.
+         *
+         * @param lexicon the loaded lexicon
+         * @return the word index
+         */
+        private WordSet wordIndex(WordList lexicon) {
+            WordSet index = wordIndex;
+            if (index == null) {
+                synchronized (this) {
+                    index = wordIndex;
+                    if (index == null) {
+                        if (lexicon instanceof PatchedLexicon) {
+                            index = ((PatchedLexicon) lexicon).over(base.getWordIndex());
+                        } else {
+                            ArrayList<String> words = new ArrayList<>();
+                            lexicon.forEachWord(words::add);
+                            index = new WordHashIndex(words);
+                        }
+                        wordIndex = index;
+                    }
+                }
+            }
+            return index;
+        }
+
+        /**
+         * Gets the anagram index for finding words on a rack, building it from the loaded lexicon the first time
+         *
+         * @param lexicon the loaded lexicon
+         * @return the anagram index
+         */
+        private AnagramIndex anagramIndex(WordList lexicon) {
+            AnagramIndex index = anagramIndex;
+            if (index == null) {
+                synchronized (this) {
+                    index = anagramIndex;
+                    if (index == null) {
+                        index = AnagramIndex.of(lexicon);
+                        anagramIndex = index;
+                    }
+                }
+            }
+            return index;
+        }
+
+        /**
+         * Gets the GADDAG for generating moves, building it from the loaded lexicon the first time
+         *
+         * @param lexicon the loaded lexicon
+         * @return the GADDAG
+         */
+        private Gaddag gaddag(WordList lexicon) {
+            Gaddag built = gaddag;
+            if (built == null) {
+                synchronized (this) {
+                    built = gaddag;
+                    if (built == null) {
+                        built = Gaddag.of(lexicon);
+                        gaddag = built;
+                    }
+                }
+            }
+            return built;
+        }
+
+        /**
+         * Gets the Bloom filter for a false positive rate, building it from the loaded lexicon the first time
+         *
+         * @param lexicon           the loaded lexicon
+         * @param falsePositiveRate the chance of the filter accepting a word that is not in the list
+         * @return the filter
+         */
+        private BloomFilter filter(WordList lexicon, double falsePositiveRate) {
+            return filters.computeIfAbsent(falsePositiveRate, rate -> BloomFilter.of(lexicon, rate));
+        }
+    }
+
+    /**
+     * Class Handle is a read-only view of a shared lexicon. Closing it tells the registry the game no longer
+     * needs the list; a handle that is never closed is released once it is garbage collected.
+     */
+    public static final class Handle implements Lexicon, AutoCloseable {
+        private final WordList lexicon;
+        private final Entry entry;
+        private final String wordListFile;
+        private final Cleaner.Cleanable cleanable;
+
+        private Handle(LexiconRegistry registry, Key key, Entry entry, WordList lexicon, String wordListFile) {
+            this.lexicon = lexicon;
+            this.entry = entry;
+            this.wordListFile = wordListFile;
+            // the release action must not refer to this handle, or the handle could never be collected
+            this.cleanable = cleaner.register(this, () -> registry.release(key));
+        }
+
+        @Override
+        public boolean contains(CharSequence word) {
+            return lexicon.contains(word);
+        }
+
+        @Override
+        public boolean hasPrefix(CharSequence prefix) {
+            return lexicon.hasPrefix(prefix);
+        }
+
+        @Override
+        public boolean hasSuffix(CharSequence suffix) {
+            return lexicon.hasSuffix(suffix);
+        }
+
+        @Override
+        public int size() {
+            return lexicon.size();
+        }
+
+        /**
+         * Gets the index used to validate plays, which only answers whether an exact word is legal.
+         * It is built once per word list and shared like the lexicon.
+         *
+         * @return the word index
+         */
+        public WordSet getWordIndex() {
+            return entry.wordIndex(lexicon);
+        }
+
+        /**
+         * Gets the index of the word list by letter counts, for finding the words a rack can make.
+         * It is built once per word list and shared like the lexicon.
+         *
+         * @return the anagram index
+         */
+        public AnagramIndex getAnagramIndex() {
+            return entry.anagramIndex(lexicon);
+        }
+
+        /**
+         * Gets the GADDAG of the word list, for generating moves out from the anchor squares.
+         * It is built once per word list and shared like the lexicon.
+         *
+         * @return the GADDAG
+         */
+        public Gaddag getGaddag() {
+            return entry.gaddag(lexicon);
+        }
+
+        /**
+         * Gets a Bloom filter of the word list, built once per list and false positive rate and shared
+         *
+         * @param falsePositiveRate the chance of the filter accepting a word that is not in the list
+         * @return the filter
+         */
+        public BloomFilter getBloomFilter(double falsePositiveRate) {
+            return entry.filter(lexicon, falsePositiveRate);
+        }
+
+        /**
+         * Runs a pattern query over the word list
+         *
+         * @param query the query
+         * @return the matching words, produced lazily in alphabetical order
+         */
+        public Iterator<String> query(WordQuery query) {
+            return lexicon.query(query);
+        }
+
+        /**
+         * Getter for the version of the word list the lexicon was loaded from
+         *
+         * @return the word list file, or the name of a patched version
+         */
+        public String getWordListFile() {
+            return wordListFile;
+        }
+
+        /**
+         * Checks if two handles share the same loaded lexicon
+         *
+         * @param other the other handle
+         * @return true if both read the same lexicon
+         */
+        public boolean sharesLexiconWith(Handle other) {
+            return lexicon == other.lexicon;
+        }
+
+        /**
+         * Releases this handle, it must not be used afterwards. Closing more than once has no effect.
+         */
+        @Override
+        public void close() {
+            cleanable.clean();
+        }
+    }
+}
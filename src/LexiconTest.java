@@ -0,0 +1,752 @@
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the lexicon implementations
+ *
+ * @version 1
+ */
+public class LexiconTest {
+    private static final List<String> WORDS = Arrays.asList("CARE", "CARED", "CARES", "CAT", "CATS", "SCAT");
+
+    /**
+     * Tests that the GADDAG finds every word and rejects everything else
+     */
+    @Test
+    public void testGaddagContains() {
+        Gaddag gaddag = new Gaddag(WORDS);
+        assertEquals(6, gaddag.size());
+        for (String word : WORDS) {
+            assertTrue(gaddag.contains(word));
+            assertTrue(gaddag.contains(word.toLowerCase()));
+        }
+        assertFalse(gaddag.contains("CA"));
+        assertFalse(gaddag.contains("CATE"));
+        assertFalse(gaddag.contains("AT"));
+        assertFalse(gaddag.contains(""));
+        assertFalse(gaddag.contains("CA T"));
+    }
+
+    /**
+     * Tests prefix and suffix checks, which must not match letters only found in the middle of a word
+     */
+    @Test
+    public void testGaddagPrefixAndSuffix() {
+        Gaddag gaddag = new Gaddag(WORDS);
+        assertTrue(gaddag.hasPrefix("CA"));
+        assertTrue(gaddag.hasPrefix("SCA"));
+        assertTrue(gaddag.hasPrefix("CARED"));
+        assertTrue(gaddag.hasPrefix(""));
+        assertFalse(gaddag.hasPrefix("AR"));
+        assertFalse(gaddag.hasPrefix("CARET"));
+
+        assertTrue(gaddag.hasSuffix("ED"));
+        assertTrue(gaddag.hasSuffix("AT"));
+        assertTrue(gaddag.hasSuffix("scat"));
+        assertFalse(gaddag.hasSuffix("CA"));
+        assertFalse(gaddag.hasSuffix("AR"));
+    }
+
+    /**
+     * Tests walking the GADDAG from a letter in the middle of a word, as move generation does
+     */
+    @Test
+    public void testGaddagNavigation() {
+        Gaddag gaddag = new Gaddag(WORDS);
+        //Starting from the A already on the board, go left to C then right to T forms CAT
+        int node = gaddag.child(gaddag.root(), 'A');
+        node = gaddag.child(node, 'C');
+        assertFalse(gaddag.isTerminal(node));
+        node = gaddag.child(node, Gaddag.SEPARATOR);
+        node = gaddag.child(node, 'T');
+        assertTrue(gaddag.isTerminal(node));
+
+        //Going further left from CA reaches SCAT
+        int left = gaddag.child(gaddag.child(gaddag.child(gaddag.root(), 'A'), 'C'), 'S');
+        assertEquals('S', gaddag.letterOf(left));
+        assertEquals(Gaddag.NO_NODE, gaddag.child(left, 'Q'));
+
+        //The children of a node are listed alphabetically, separator last
+        StringBuilder arcs = new StringBuilder();
+        int afterA = gaddag.child(gaddag.root(), 'A');
+        for (int child = gaddag.firstChild(afterA); child != Gaddag.NO_NODE; child = gaddag.nextSibling(child)) {
+            arcs.append(gaddag.letterOf(child));
+        }
+        assertEquals("C", arcs.toString());
+    }
+
+    /**
+     * Tests that the registry builds one GADDAG per version of a list, patches included, for the AI's move search
+     */
+    @Test
+    public void testRegistryGaddag() throws IOException {
+        File wordList = File.createTempFile("words", ".txt");
+        try {
+            Files.write(wordList.toPath(), WORDS);
+            LexiconRegistry registry = new LexiconRegistry(LexiconRegistry.DEFAULT_IDLE_MILLIS, Dawg::fromFile);
+            registry.publish("words", wordList.getPath());
+            LexiconRegistry.Handle game = registry.acquireList("words");
+            Gaddag gaddag = game.getGaddag();
+            assertEquals(WORDS.size(), gaddag.size());
+            assertTrue(gaddag.hasSuffix("RED"));
+            assertSame(gaddag, registry.acquireList("words").getGaddag());
+
+            registry.publishUpdate("words", new LexiconPatch(Arrays.asList("QI"), Arrays.asList("SCAT")));
+            Gaddag patched = registry.acquireList("words").getGaddag();
+            assertTrue(patched.contains("QI"));
+            assertFalse(patched.contains("SCAT"));
+            assertTrue(gaddag.contains("SCAT"));
+        } finally {
+            wordList.delete();
+        }
+    }
+
+    /**
+     * Tests that the DAWG finds every word, checks prefixes and suffixes, and accepts words in any order
+     */
+    @Test
+    public void testDawgQueries() {
+        Dawg dawg = Dawg.fromWords(Arrays.asList("SCAT", "cats", "CARED", "CAT", "CARE", "CARES", "CAT"));
+        assertEquals(6, dawg.size());
+        for (String word : WORDS) {
+            assertTrue(dawg.contains(word));
+        }
+        assertFalse(dawg.contains("CA"));
+        assertFalse(dawg.contains("CATE"));
+        assertFalse(dawg.contains(""));
+        assertTrue(dawg.hasPrefix("CARE"));
+        assertTrue(dawg.hasPrefix("sc"));
+        assertFalse(dawg.hasPrefix("AT"));
+        assertTrue(dawg.hasSuffix("RED"));
+        assertTrue(dawg.hasSuffix("AT"));
+        assertFalse(dawg.hasSuffix("CA"));
+    }
+
+    /**
+     * Tests that words sharing an ending share nodes, so the graph is smaller than a trie
+     */
+    @Test
+    public void testDawgMinimized() {
+        //As tries the forward and reversed graphs need 13 and 11 arcs, minimized the "ING" of KING and RING is stored once
+        Dawg dawg = Dawg.fromWords(Arrays.asList("SING", "RING", "KING", "SINGS"));
+        assertTrue(dawg.contains("KING"));
+        assertTrue(dawg.contains("SINGS"));
+        assertFalse(dawg.contains("KINGS"));
+        assertTrue(dawg.getArcCount() < 1 + 13 + 11);
+    }
+
+    /**
+     * Tests that the builder rejects words out of alphabetical order
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testDawgBuilderOrder() {
+        DawgBuilder builder = new DawgBuilder();
+        builder.add("CAT");
+        builder.add("CAR");
+    }
+
+    /**
+     * Tests that the DAWG lists its words in alphabetical order
+     */
+    @Test
+    public void testDawgForEachWord() {
+        List<String> words = new ArrayList<>();
+        Dawg.fromWords(WORDS).forEachWord(words::add);
+        assertEquals(Arrays.asList("care", "cared", "cares", "cat", "cats", "scat"), words);
+    }
+
+    /**
+     * Tests that the word hash index finds exactly its words, including ones too long for one packed key
+     */
+    @Test
+    public void testWordHashIndex() {
+        WordHashIndex index = new WordHashIndex(Arrays.asList("CARE", "cat", "CAT", "ABCD",
+                "ABCDAAAAAAAAAAAAAAAA", "COUNTERREVOLUTIONARY", "NOT-A-WORD"));
+        assertEquals(5, index.size());
+        assertTrue(index.contains("care"));
+        assertTrue(index.contains("CAT"));
+        assertTrue(index.contains("abcd"));
+        assertTrue(index.contains("abcdaaaaaaaaaaaaaaaa"));
+        assertTrue(index.contains("COUNTERREVOLUTIONARY"));
+        assertFalse(index.contains("abcda"));
+        assertFalse(index.contains("COUNTERREVOLUTIONARI"));
+        assertFalse(index.contains("COUNTERREVOLUTIONA"));
+        assertFalse(index.contains("NOT-A-WORD"));
+        assertFalse(index.contains("CA"));
+        assertFalse(index.contains(""));
+        assertFalse(new WordHashIndex(new ArrayList<>()).contains("CAT"));
+    }
+
+    /**
+     * Tests that the index built for the Collins list agrees with the lexicon on every word
+     */
+    @Test
+    public void testCollinsWordIndex() {
+        LexiconRegistry.Handle handle = LexiconRegistry.getShared().acquire(Dawg.DEFAULT_WORD_LIST);
+        WordSet index = handle.getWordIndex();
+        assertSame(index, LexiconRegistry.getShared().acquire(Dawg.DEFAULT_WORD_LIST).getWordIndex());
+        assertEquals(handle.size(), index.size());
+        Dawg.load(Dawg.DEFAULT_WORD_LIST).forEachWord(word -> {
+            assertTrue(word, index.contains(word));
+            //changing the last letter mostly makes a word that is not in the list
+            String changed = word.substring(0, word.length() - 1) + (char) ((word.charAt(word.length() - 1) - 'a' + 7) % 26 + 'a');
+            assertEquals(changed, handle.contains(changed), index.contains(changed));
+        });
+        handle.close();
+    }
+
+    /**
+     * Tests that the Bloom filter keeps every Collins word and passes about the configured share of other words
+     */
+    @Test
+    public void testBloomFilterRate() {
+        Dawg dawg = Dawg.load(Dawg.DEFAULT_WORD_LIST);
+        BloomFilter filter = BloomFilter.of(dawg, 0.01);
+        dawg.forEachWord(word -> assertTrue(word, filter.mightContain(word)));
+        assertFalse(filter.mightContain("CAT5"));
+        assertFalse(filter.mightContain(""));
+
+        Random random = new Random(7);
+        int nonWords = 0;
+        int passed = 0;
+        while (nonWords < 100_000) {
+            char[] letters = new char[2 + random.nextInt(8)];
+            for (int i = 0; i < letters.length; i++) {
+                letters[i] = (char) ('a' + random.nextInt(26));
+            }
+            String candidate = new String(letters);
+            if (!dawg.contains(candidate)) {
+                nonWords++;
+                if (filter.mightContain(candidate)) {
+                    passed++;
+                }
+            }
+        }
+        assertTrue("false positive rate " + passed / 100_000.0, passed < 2_000);
+    }
+
+    /**
+     * Tests that a filtered set answers like its exact set and counts the lookups the filter saved
+     */
+    @Test
+    public void testFilteredWordSet() {
+        WordHashIndex exact = new WordHashIndex(WORDS);
+        BloomFilter filter = new BloomFilter(WORDS.size(), 0.01);
+        for (String word : WORDS) {
+            filter.add(word);
+        }
+        FilteredWordSet filtered = new FilteredWordSet(filter, exact);
+        assertTrue(filtered.contains("cares"));
+        assertFalse(filtered.contains("CAT5"));
+        assertEquals(1, filtered.getPassedCount());
+        assertEquals(1, filtered.getRejectedCount());
+
+        filtered.resetCounters();
+        String[] batch = {"CAT", "QXZ", "SCAT", "CART", "CARED"};
+        boolean[] valid = filtered.containsEach(batch);
+        for (int i = 0; i < batch.length; i++) {
+            assertEquals(batch[i], exact.contains(batch[i]), valid[i]);
+        }
+        assertEquals(batch.length, filtered.getPassedCount() + filtered.getRejectedCount());
+        assertEquals(filtered.getPassedCount() - 3, filtered.getFalsePositiveCount());
+        assertFalse(filtered.containsAll(batch));
+        assertTrue(filtered.containsAll(new String[]{"CAT", "SCAT"}));
+
+        //a batch stopped by the filter still counts the words that got through before it
+        filtered.resetCounters();
+        assertFalse(filtered.containsAll(new String[]{"CAT", "SCAT", "CAT5", "CART"}));
+        assertEquals(2, filtered.getPassedCount());
+        assertEquals(1, filtered.getRejectedCount());
+        assertEquals(0, filtered.getFalsePositiveCount());
+        assertTrue(filtered.containsAll(new String[]{"CAT", "SCAT"}));
+        assertEquals(4, filtered.getPassedCount());
+    }
+
+    /**
+     * Tests finding the words a rack can make, with and without blanks
+     */
+    @Test
+    public void testAnagramIndex() {
+        AnagramIndex index = new AnagramIndex(Arrays.asList("ACT", "CAT", "CATS", "SCAT", "TACT", "AT", "A", "C4T"));
+        assertEquals(7, index.size());
+        int[] rack = new int[26];
+        rack['c' - 'a'] = 1;
+        rack['a' - 'a'] = 1;
+        rack['t' - 'a'] = 1;
+        assertEquals(Arrays.asList("act", "at", "cat"), index.findWords(rack, 0, 2));
+        assertEquals(Arrays.asList("a", "act", "at", "cat"), index.findWords(rack, 0, 1));
+        //a blank can stand for the S of CATS and SCAT or the second T of TACT, and duplicates are not repeated
+        assertEquals(Arrays.asList("act", "at", "cat", "cats", "scat", "tact"), index.findWords(rack, 1, 2));
+        assertEquals(Arrays.asList("at"), index.findWords(new int[26], 2, 2));
+        assertTrue(index.findWords(new int[26], 0, 2).isEmpty());
+    }
+
+    /**
+     * Tests that the Collins anagram index finds exactly the words a scan of the whole list finds
+     */
+    @Test
+    public void testAnagramIndexMatchesScan() {
+        Dawg dawg = Dawg.load(Dawg.DEFAULT_WORD_LIST);
+        AnagramIndex index = AnagramIndex.of(dawg);
+        Random random = new Random(11);
+        for (int round = 0; round < 5; round++) {
+            int[] rack = new int[26];
+            for (int i = 0; i < 7; i++) {
+                rack["EEEAAIIOONNRRTTLSUDGBCMPFHVWYKJXQZ".charAt(random.nextInt(34)) - 'A']++;
+            }
+            List<String> scanned = new ArrayList<>();
+            dawg.forEachWord(word -> {
+                int[] left = rack.clone();
+                for (char letter : word.toCharArray()) {
+                    if (--left[letter - 'a'] < 0) {
+                        return;
+                    }
+                }
+                if (word.length() >= 2) {
+                    scanned.add(word);
+                }
+            });
+            assertEquals(scanned, index.findWords(rack, 0, 2));
+        }
+    }
+
+    /**
+     * Tests wildcard patterns and letter constraints
+     */
+    @Test
+    public void testWordQueryPatterns() {
+        Dawg dawg = Dawg.fromWords(Arrays.asList("CAT", "COT", "CUT", "CART", "SCAT", "BRING", "KING", "SING",
+                "SINGS", "QAT", "QUIT", "QI", "AA", "BAAS"));
+        assertEquals(Arrays.asList("cat", "cot", "cut"), WordQuery.matching("C?T").find(dawg));
+        assertEquals(Arrays.asList("bring", "king", "sing"), WordQuery.matching("*ING").find(dawg));
+        assertEquals(Arrays.asList("baas", "cart", "scat"), WordQuery.matching("?*A*?").length(4, 4).find(dawg));
+        assertEquals(Arrays.asList("baas", "cart"), WordQuery.matching("?A??").find(dawg));
+        assertEquals(Arrays.asList("qat", "qi"), WordQuery.anyWord().mustUse("Q").without("U").find(dawg));
+        assertEquals(Arrays.asList("aa", "baas"), WordQuery.anyWord().mustUse("aa").find(dawg));
+        assertEquals(Arrays.asList("scat", "sing", "sings"), WordQuery.matching("S*").length(4, 5).find(dawg));
+        assertTrue(WordQuery.matching("C?T").without("AOU").find(dawg).isEmpty());
+    }
+
+    /**
+     * Tests limiting queries to a rack with blanks, and stopping once the limit is reached
+     */
+    @Test
+    public void testWordQueryRackAndLimit() {
+        Dawg dawg = Dawg.fromWords(Arrays.asList("CAT", "COT", "CUT", "CART", "SCAT", "TACT", "ACT"));
+        assertEquals(Arrays.asList("act", "cat"), WordQuery.anyWord().fromRack("TAC", 0).find(dawg));
+        assertEquals(Arrays.asList("act", "cart", "cat", "cot", "cut", "scat", "tact"),
+                WordQuery.anyWord().fromRack("TAC", 1).find(dawg));
+        assertEquals(Arrays.asList("cat", "cot", "cut"), WordQuery.matching("C?T").fromRack("T", 2).find(dawg));
+        assertEquals(Arrays.asList("cot"), WordQuery.matching("C?T").fromRack("TO", 1).find(dawg));
+        assertEquals(Arrays.asList("act", "cart"), WordQuery.anyWord().limit(2).find(dawg));
+
+        Iterator<String> words = WordQuery.matching("C*").iterator(dawg);
+        assertEquals("cart", words.next());
+        assertTrue(words.hasNext());
+        assertEquals("cat", words.next());
+    }
+
+    /**
+     * Tests that a query over Collins finds exactly the words a scan of the whole list finds
+     */
+    @Test
+    public void testWordQueryMatchesScan() {
+        Dawg dawg = Dawg.load(Dawg.DEFAULT_WORD_LIST);
+        List<String> scanned = new ArrayList<>();
+        dawg.forEachWord(word -> {
+            if (word.contains("q") && !word.contains("u") && word.length() <= 7) {
+                scanned.add(word);
+            }
+        });
+        assertEquals(scanned, WordQuery.anyWord().mustUse("Q").without("U").length(1, 7).find(dawg));
+
+        scanned.clear();
+        dawg.forEachWord(word -> {
+            if (word.matches("..z.*ing")) {
+                scanned.add(word);
+            }
+        });
+        assertEquals(scanned, WordQuery.matching("??Z*ING").find(dawg));
+    }
+
+    /**
+     * Tests that every game shares one Collins lexicon and that it stays within its memory budget
+     */
+    @Test
+    public void testDefaultLexiconShared() {
+        LexiconRegistry.Handle first = LexiconRegistry.getShared().acquire(Dawg.DEFAULT_WORD_LIST);
+        LexiconRegistry.Handle second = LexiconRegistry.getShared().acquire(Dawg.DEFAULT_WORD_LIST);
+        assertTrue(first.sharesLexiconWith(second));
+        assertEquals(279496, first.size());
+        assertTrue(second.contains("zyzzyvas"));
+        assertTrue(Dawg.load(Dawg.DEFAULT_WORD_LIST).getFootprintBytes() < Dawg.MEMORY_BUDGET_BYTES);
+        first.close();
+        second.close();
+    }
+
+    /**
+     * Tests that games asking for a word list at the same time wait for a single load of it
+     */
+    @Test
+    public void testRegistryLoadsOnce() throws Exception {
+        File wordList = File.createTempFile("words", ".txt");
+        try {
+            Files.write(wordList.toPath(), WORDS);
+            LexiconRegistry registry = new LexiconRegistry(LexiconRegistry.DEFAULT_IDLE_MILLIS, Dawg::fromFile);
+            ExecutorService pool = Executors.newFixedThreadPool(8);
+            List<Future<LexiconRegistry.Handle>> handles = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                handles.add(pool.submit(() -> registry.acquire(wordList.getPath())));
+            }
+            LexiconRegistry.Handle first = handles.get(0).get();
+            for (Future<LexiconRegistry.Handle> handle : handles) {
+                assertTrue(first.sharesLexiconWith(handle.get()));
+            }
+            pool.shutdown();
+            assertEquals(1, registry.getLoadCount());
+            assertTrue(first.contains("CARES"));
+
+            //changing the list's contents gives it a new key, so it is loaded again
+            Files.write(wordList.toPath(), Arrays.asList("CARE", "CARED", "CAREER"));
+            LexiconRegistry.Handle changed = registry.acquire(wordList.getPath());
+            assertEquals(2, registry.getLoadCount());
+            assertTrue(changed.contains("CAREER"));
+            assertFalse(first.contains("CAREER"));
+        } finally {
+            wordList.delete();
+        }
+    }
+
+    /**
+     * Tests that a word list can load in the background while the caller carries on, and is shared once loaded
+     */
+    @Test
+    public void testRegistryAcquireAsync() throws Exception {
+        File wordList = File.createTempFile("words", ".txt");
+        try {
+            Files.write(wordList.toPath(), WORDS);
+            CountDownLatch dialogsDone = new CountDownLatch(1);
+            LexiconRegistry registry = new LexiconRegistry(LexiconRegistry.DEFAULT_IDLE_MILLIS, file -> {
+                try {
+                    dialogsDone.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return Dawg.fromFile(file);
+            });
+            CompletableFuture<LexiconRegistry.Handle> pending = registry.acquireAsync(wordList.getPath());
+            assertFalse(pending.isDone());
+            dialogsDone.countDown();
+            LexiconRegistry.Handle handle = pending.get(10, TimeUnit.SECONDS);
+            assertTrue(handle.contains("SCAT"));
+            assertTrue(handle.sharesLexiconWith(registry.acquire(wordList.getPath())));
+            assertEquals(1, registry.getLoadCount());
+        } finally {
+            wordList.delete();
+        }
+    }
+
+    /**
+     * Tests that publishing a new version of a list switches new games to it while old handles keep theirs
+     */
+    @Test
+    public void testRegistryPublish() throws Exception {
+        File first = File.createTempFile("words", ".txt");
+        File second = File.createTempFile("words", ".txt");
+        try {
+            Files.write(first.toPath(), WORDS);
+            Files.write(second.toPath(), Arrays.asList("CARE", "CARED", "CAREER"));
+            LexiconRegistry registry = new LexiconRegistry(LexiconRegistry.DEFAULT_IDLE_MILLIS, Dawg::fromFile);
+            assertEquals("words", registry.getCurrentVersion("words"));
+
+            registry.publish("words", first.getPath());
+            LexiconRegistry.Handle inProgress = registry.acquireList("words");
+            assertTrue(inProgress.contains("SCAT"));
+
+            registry.publish("words", second.getPath());
+            assertEquals(second.getPath(), registry.getCurrentVersion("words"));
+            LexiconRegistry.Handle newGame = registry.acquireList("words");
+            assertTrue(newGame.contains("CAREER"));
+            assertFalse(newGame.contains("SCAT"));
+            assertTrue(inProgress.contains("SCAT"));
+            assertFalse(inProgress.contains("CAREER"));
+            assertTrue(newGame.sharesLexiconWith(registry.acquireListAsync("words").get(10, TimeUnit.SECONDS)));
+            assertEquals(2, registry.getLoadCount());
+        } finally {
+            first.delete();
+            second.delete();
+        }
+    }
+
+    /**
+     * Tests that a patched lexicon answers every query as if it had been rebuilt with the changes
+     */
+    @Test
+    public void testPatchedLexicon() {
+        Dawg base = Dawg.fromWords(WORDS);
+        LexiconPatch patch = new LexiconPatch(Arrays.asList("CAB", "CATS", "ZA"), Arrays.asList("SCAT", "CARED", "DOG"));
+        PatchedLexicon patched = PatchedLexicon.of(base, patch);
+        assertEquals(6 + 2 - 2, patched.size());
+        assertTrue(patched.contains("cab"));
+        assertTrue(patched.contains("CATS"));
+        assertFalse(patched.contains("SCAT"));
+        assertFalse(patched.contains("CARED"));
+        assertFalse(patched.contains("DOG"));
+        assertTrue(base.contains("SCAT"));
+
+        //SCAT was the only word starting with S, CARED the only one ending in ED
+        assertFalse(patched.hasPrefix("S"));
+        assertTrue(patched.hasPrefix("CARE"));
+        assertTrue(patched.hasPrefix("Z"));
+        assertFalse(patched.hasSuffix("ED"));
+        assertTrue(patched.hasSuffix("AT"));
+        assertTrue(patched.hasSuffix("AB"));
+
+        List<String> words = new ArrayList<>();
+        patched.forEachWord(words::add);
+        assertEquals(Arrays.asList("cab", "care", "cares", "cat", "cats", "za"), words);
+        assertEquals(Arrays.asList("cab", "care"), WordQuery.matching("C*").limit(2).find(patched));
+
+        //a second patch is combined with the first and applied to the same base
+        PatchedLexicon again = PatchedLexicon.of(patched, new LexiconPatch(Arrays.asList("SCAT"), Arrays.asList("ZA")));
+        assertSame(base, again.getBase());
+        assertTrue(again.contains("SCAT"));
+        assertFalse(again.contains("ZA"));
+        assertEquals(6, again.size());
+        assertTrue(patched.contains("ZA"));
+    }
+
+    /**
+     * Tests reading a patch from a diff file
+     */
+    @Test
+    public void testLexiconPatchFile() throws IOException {
+        File diff = File.createTempFile("words", ".diff");
+        try {
+            Files.write(diff.toPath(), Arrays.asList("# update", "+QI", "-cared", "", "+ZA", "-ZA"));
+            LexiconPatch patch = LexiconPatch.fromFile(diff.getPath());
+            assertEquals(new TreeSet<>(Arrays.asList("qi")), patch.getAdditions());
+            assertEquals(new TreeSet<>(Arrays.asList("cared", "za")), patch.getRemovals());
+            Files.write(diff.toPath(), Arrays.asList("QI"));
+            try {
+                LexiconPatch.fromFile(diff.getPath());
+                fail("A line without + or - should be rejected");
+            } catch (IllegalArgumentException e) {
+                assertTrue(e.getMessage().startsWith("Line 1"));
+            }
+        } finally {
+            diff.delete();
+        }
+    }
+
+    /**
+     * Tests that publishing a patch makes a new version for new games while old handles keep theirs
+     */
+    @Test
+    public void testRegistryPublishUpdate() throws Exception {
+        File wordList = File.createTempFile("words", ".txt");
+        try {
+            Files.write(wordList.toPath(), WORDS);
+            LexiconRegistry registry = new LexiconRegistry(LexiconRegistry.DEFAULT_IDLE_MILLIS, Dawg::fromFile);
+            registry.publish("words", wordList.getPath());
+            LexiconRegistry.Handle inProgress = registry.acquireList("words");
+            WordSet oldIndex = inProgress.getWordIndex();
+
+            registry.publishUpdate("words", new LexiconPatch(Arrays.asList("QI"), Arrays.asList("SCAT")));
+            String version = registry.publishUpdate("words", new LexiconPatch(Arrays.asList("ZA"), new ArrayList<>()));
+            assertEquals(version, registry.getCurrentVersion("words"));
+            LexiconRegistry.Handle newGame = registry.acquireList("words");
+            assertEquals(version, newGame.getWordListFile());
+            assertTrue(newGame.contains("QI"));
+            assertTrue(newGame.contains("ZA"));
+            assertFalse(newGame.contains("SCAT"));
+            assertTrue(newGame.getWordIndex().contains("qi"));
+            assertFalse(newGame.getWordIndex().contains("scat"));
+            assertEquals(7, newGame.getWordIndex().size());
+            assertTrue(inProgress.contains("SCAT"));
+            assertFalse(inProgress.contains("QI"));
+            assertSame(oldIndex, inProgress.getWordIndex());
+            assertTrue(newGame.sharesLexiconWith(registry.acquireList("words")));
+            //the word list file was read once, each patched version was made from it
+            assertEquals(3, registry.getLoadCount());
+        } finally {
+            wordList.delete();
+        }
+    }
+
+    /**
+     * Tests that a word list is kept while a handle is in use and evicted once idle for the configured period
+     */
+    @Test
+    public void testRegistryEviction() throws IOException {
+        File wordList = File.createTempFile("words", ".txt");
+        try {
+            Files.write(wordList.toPath(), WORDS);
+            LexiconRegistry registry = new LexiconRegistry(0, Dawg::fromFile);
+            LexiconRegistry.Handle handle = registry.acquire(wordList.getPath());
+            registry.evictIdle();
+            assertEquals(1, registry.getLoadedCount());
+
+            handle.close();
+            handle.close(); //closing twice only releases once
+            registry.setIdleMillis(LexiconRegistry.DEFAULT_IDLE_MILLIS);
+            registry.evictIdle();
+            assertEquals(1, registry.getLoadedCount());
+            registry.acquire(wordList.getPath()).close();
+            assertEquals(1, registry.getLoadCount());
+
+            registry.setIdleMillis(0);
+            registry.evictIdle();
+            assertEquals(0, registry.getLoadedCount());
+            registry.acquire(wordList.getPath());
+            assertEquals(2, registry.getLoadCount());
+        } finally {
+            wordList.delete();
+        }
+    }
+
+    /**
+     * Tests that an evicted patched version lets go of its patch and of the version it was applied to,
+     * unless it is still the version new games get
+     */
+    @Test
+    public void testRegistryEvictsUpdates() throws IOException {
+        File wordList = File.createTempFile("words", ".txt");
+        try {
+            Files.write(wordList.toPath(), WORDS);
+            LexiconRegistry registry = new LexiconRegistry(0, Dawg::fromFile);
+            registry.publish("words", wordList.getPath());
+            String old = registry.publishUpdate("words", new LexiconPatch(Arrays.asList("QI"), new ArrayList<>()));
+            registry.publishUpdate("words", new LexiconPatch(Arrays.asList("ZA"), new ArrayList<>()));
+            registry.evictIdle();
+            registry.evictIdle(); //the file version is released by the first pass
+            assertEquals(0, registry.getLoadedCount());
+
+            try {
+                registry.acquire(old);
+                fail("the old version's patch should have been dropped");
+            } catch (UncheckedIOException expected) {
+                //the name is no longer a known version, so it is taken for a missing file
+            }
+            LexiconRegistry.Handle current = registry.acquireList("words");
+            assertTrue(current.contains("QI"));
+            assertTrue(current.contains("ZA"));
+        } finally {
+            wordList.delete();
+        }
+    }
+
+    /**
+     * Tests that the parallel loader handles mixed case, Windows line breaks, stray lines and unsorted lists
+     */
+    @Test
+    public void testLexiconLoader() throws IOException {
+        File wordList = File.createTempFile("words", ".txt");
+        try {
+            Files.write(wordList.toPath(), "scat\r\nCats\r\n\r\n  care \r\nnot a word\r\nCAT\r\ncared\r\nCARES\r\ncat".getBytes());
+            LexiconLoader loader = new LexiconLoader();
+            Dawg loaded = loader.load(wordList.getPath());
+            Dawg expected = Dawg.fromWords(WORDS);
+            assertEquals(6, loader.getWordCount());
+            assertEquals(expected.size(), loaded.size());
+            assertEquals(expected.getArcCount(), loaded.getArcCount());
+            List<String> words = new ArrayList<>();
+            loaded.forEachWord(words::add);
+            assertEquals(Arrays.asList("care", "cared", "cares", "cat", "cats", "scat"), words);
+            assertTrue(loaded.hasSuffix("RES"));
+        } finally {
+            wordList.delete();
+        }
+    }
+
+    /**
+     * Tests that both word lists that ship with the game load in parallel to the same lexicon as the compiled file
+     */
+    @Test
+    public void testLexiconLoaderWordLists() throws IOException {
+        LexiconLoader loader = new LexiconLoader();
+        Dawg collins = loader.load(Dawg.DEFAULT_WORD_LIST);
+        assertEquals(279496, collins.size());
+        assertEquals(Dawg.load(Dawg.DEFAULT_WORD_LIST).getArcCount(), collins.getArcCount());
+        assertTrue(loader.getWordsPerSecond() > 0);
+
+        Dawg small = loader.load("scrabblewords.txt");
+        assertEquals(loader.getWordCount(), small.size());
+        assertTrue(small.contains("abandoned"));
+        assertTrue(small.size() > 9000);
+    }
+
+    /**
+     * Tests that a compiled lexicon file maps back into a lexicon with the same words
+     */
+    @Test
+    public void testCompiledLexiconFile() throws IOException {
+        File wordList = File.createTempFile("words", ".txt");
+        File compiled = new File(LexiconFile.compiledName(wordList.getPath()));
+        try {
+            Files.write(wordList.toPath(), WORDS);
+            Dawg built = LexiconFile.compile(wordList.getPath(), compiled.getPath());
+            Dawg mapped = LexiconFile.map(compiled.getPath());
+            assertTrue(mapped.isMapped());
+            assertFalse(built.isMapped());
+            assertEquals(built.size(), mapped.size());
+            assertEquals(built.getArcCount(), mapped.getArcCount());
+            for (String word : WORDS) {
+                assertTrue(mapped.contains(word));
+            }
+            assertFalse(mapped.contains("CATE"));
+            assertTrue(mapped.hasPrefix("SC"));
+            assertTrue(mapped.hasSuffix("RES"));
+
+            //loading the word list now maps the up to date compiled file
+            assertTrue(Dawg.load(wordList.getPath()).isMapped());
+        } finally {
+            wordList.delete();
+            compiled.delete();
+        }
+    }
+
+    /**
+     * Tests that a damaged lexicon file is rejected rather than queried
+     */
+    @Test
+    public void testCorruptLexiconFile() throws IOException {
+        File compiled = File.createTempFile("words", LexiconFile.EXTENSION);
+        try {
+            LexiconFile.write(Dawg.fromWords(WORDS), compiled.getPath());
+            try (RandomAccessFile file = new RandomAccessFile(compiled, "rw")) {
+                file.seek(file.length() - 1);
+                int last = file.read();
+                file.seek(file.length() - 1);
+                file.write(last ^ 0x40);
+            }
+            try {
+                LexiconFile.map(compiled.getPath());
+                fail("a corrupt lexicon file was accepted");
+            } catch (IOException e) {
+                assertTrue(e.getMessage().contains("checksum"));
+            }
+        } finally {
+            compiled.delete();
+        }
+    }
+}
@@ -0,0 +1,250 @@
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Class PatchedLexicon is a new version of a word list made by applying a patch to a compiled lexicon.
+ * The base lexicon is shared, not copied: the added words are kept in a small DAWG of their own and the
+ * removed words in a set, and every query consults them before or after the base. Making a version takes
+ * time proportional to the patch, and readers of the base carry on unaffected.
+ * <p>
+ * A patch applied to a patched lexicon is combined with the earlier patch and applied to the original base,
+ * so queries never go through more than one overlay.
+ *
+ * @version 1
+ */
+public class PatchedLexicon implements WordList {
+    private final Dawg base;
+    private final LexiconPatch patch;
+    private final Dawg added; // the patch's additions that were not already in the base
+    private final Set<String> removed; // the patch's removals that were in the base
+    private final int wordCount;
+
+    /**
+     * Constructor for class PatchedLexicon
+     *
+     * @param base  the lexicon the patch is applied to
+     * @param patch the words to add and remove
+     */
+    public PatchedLexicon(Dawg base, LexiconPatch patch) {
+        this.base = base;
+        this.patch = patch;
+        HashSet<String> newWords = new HashSet<>();
+        for (String word : patch.getAdditions()) {
+            if (!base.contains(word)) {
+                newWords.add(word);
+            }
+        }
+        HashSet<String> oldWords = new HashSet<>();
+        for (String word : patch.getRemovals()) {
+            if (base.contains(word)) {
+                oldWords.add(word);
+            }
+        }
+        added = Dawg.fromWords(newWords);
+        removed = Collections.unmodifiableSet(oldWords);
+        wordCount = base.size() + newWords.size() - oldWords.size();
+    }
+
+    /**
+     * Applies a patch to a lexicon, which may itself be patched
+     *
+     * @param lexicon the lexicon to update
+     * @param patch   the words to add and remove
+     * @return the new version of the lexicon
+     */
+    public static PatchedLexicon of(WordList lexicon, LexiconPatch patch) {
+        if (lexicon instanceof PatchedLexicon) {
+            PatchedLexicon patched = (PatchedLexicon) lexicon;
+            return new PatchedLexicon(patched.base, patched.patch.then(patch));
+        }
+        return new PatchedLexicon((Dawg) lexicon, patch);
+    }
+
+    @Override
+    public boolean contains(CharSequence word) {
+        if (added.contains(word)) {
+            return true;
+        }
+        return base.contains(word) && !isRemoved(word);
+    }
+
+    @Override
+    public boolean hasPrefix(CharSequence prefix) {
+        if (added.hasPrefix(prefix)) {
+            return true;
+        }
+        if (!base.hasPrefix(prefix)) {
+            return false;
+        }
+        String letters = prefix.toString().toLowerCase();
+        for (String word : removed) {
+            if (word.startsWith(letters)) {
+                return keepsWordMatching(WordQuery.matching(letters + WordQuery.ANY_LETTERS));
+            }
+        }
+        return true; // no removed word starts with the prefix, so the base word that does is still there
+    }
+
+    @Override
+    public boolean hasSuffix(CharSequence suffix) {
+        if (added.hasSuffix(suffix)) {
+            return true;
+        }
+        if (!base.hasSuffix(suffix)) {
+            return false;
+        }
+        String letters = suffix.toString().toLowerCase();
+        for (String word : removed) {
+            if (word.endsWith(letters)) {
+                return keepsWordMatching(WordQuery.matching(WordQuery.ANY_LETTERS + letters));
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return wordCount;
+    }
+
+    @Override
+    public void forEachWord(Consumer<String> action) {
+        query(WordQuery.anyWord()).forEachRemaining(action);
+    }
+
+    @Override
+    public Iterator<String> query(WordQuery query) {
+        return new Merge(query.iterator(base, Integer.MAX_VALUE), query.iterator(added, Integer.MAX_VALUE),
+                query.getLimit());
+    }
+
+    /**
+     * Puts this version's changes in front of a set of words built for the base, so the set can be reused
+     * rather than rebuilt for every version
+     *
+     * @param baseWords a set holding exactly the base lexicon's words
+     * @return a set holding exactly this version's words
+     */
+    public WordSet over(WordSet baseWords) {
+        return new WordSet() {
+            @Override
+            public boolean contains(CharSequence word) {
+                if (added.contains(word)) {
+                    return true;
+                }
+                return baseWords.contains(word) && !isRemoved(word);
+            }
+
+            @Override
+            public int size() {
+                return wordCount;
+            }
+        };
+    }
+
+    /**
+     * Getter for the lexicon the patch is applied to
+     *
+     * @return the base lexicon
+     */
+    public Dawg getBase() {
+        return base;
+    }
+
+    /**
+     * Getter for all the changes made to the base
+     *
+     * @return the patch
+     */
+    public LexiconPatch getPatch() {
+        return patch;
+    }
+
+    /**
+     * Checks if a base word was removed by the patch
+     *
+     * @param word the word, which is in the base
+     * @return true if the patch removed it
+     */
+    private boolean isRemoved(CharSequence word) {
+        return !removed.isEmpty() && removed.contains(word.toString().toLowerCase());
+    }
+
+    /**
+     * Checks if some base word matching a pattern was not removed. At most one more word than were
+     * removed is looked at.
+     *
+     * @param query the pattern
+     * @return true if a matching word is left
+     */
+    private boolean keepsWordMatching(WordQuery query) {
+        Iterator<String> words = query.iterator(base, Integer.MAX_VALUE);
+        while (words.hasNext()) {
+            if (!removed.contains(words.next())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Merges the base words that were not removed with the added words, both in alphabetical order
+     */
+    private final class Merge implements Iterator<String> {
+        private final Iterator<String> baseWords;
+        private final Iterator<String> addedWords;
+        private final int limit;
+        private String nextBase;
+        private String nextAdded;
+        private int found;
+
+        private Merge(Iterator<String> baseWords, Iterator<String> addedWords, int limit) {
+            this.baseWords = baseWords;
+            this.addedWords = addedWords;
+            this.limit = limit;
+            nextBase = nextKept();
+            nextAdded = addedWords.hasNext() ? addedWords.next() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return found < limit && (nextBase != null || nextAdded != null);
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            found++;
+            String word;
+            if (nextAdded == null || (nextBase != null && nextBase.compareTo(nextAdded) < 0)) {
+                word = nextBase;
+                nextBase = nextKept();
+            } else {
+                word = nextAdded;
+                nextAdded = addedWords.hasNext() ? addedWords.next() : null;
+            }
+            return word;
+        }
+
+        /**
+         * Gets the next base word that was not removed
+         *
+         * @return the word, or null if there are no more
+         */
+        private String nextKept() {
+            while (baseWords.hasNext()) {
+                String word = baseWords.next();
+                if (!removed.contains(word)) {
+                    return word;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Class PlayResult is the outcome of checking a proposed play: why it was refused, or the words it makes
+ * and what it scores.
+ *
+ * @version 1
+ */
+public class PlayResult {
+    /**
+     * The reasons a play can be refused
+     */
+    public enum Problem {
+        NO_TILES, // nothing was placed
+        OFF_BOARD, // a tile is outside the board
+        OCCUPIED, // a tile is on a square that already holds one
+        NOT_ALIGNED, // the tiles are not in one row or column
+        NOT_CONNECTED, // no tile is next to a tile already on the board
+        OFF_CENTER, // the first play does not cover the center square
+        TOO_SHORT, // the first play has a single tile
+        GAP, // an empty square lies between two of the tiles
+        INVALID_WORD // a word made is not in the word list
+    }
+
+    private final Problem problem;
+    private final String message;
+    private final List<WordSpan> words;
+    private final int score;
+
+    /**
+     * Constructor for class PlayResult
+     *
+     * @param problem the reason the play was refused, or null if it is valid
+     * @param message the message to show the player
+     * @param words   the words the play makes, main word first
+     * @param score   the points the play scores
+     */
+    private PlayResult(Problem problem, String message, List<WordSpan> words, int score) {
+        this.problem = problem;
+        this.message = message;
+        this.words = words;
+        this.score = score;
+    }
+
+    /**
+     * Creates the result of a valid play
+     *
+     * @param words the words the play makes, main word first
+     * @param score the points the play scores
+     * @return the result
+     */
+    public static PlayResult valid(List<WordSpan> words, int score) {
+        return new PlayResult(null, null, Collections.unmodifiableList(words), score);
+    }
+
+    /**
+     * Creates the result of a refused play
+     *
+     * @param problem the reason the play was refused
+     * @param message the message to show the player
+     * @return the result
+     */
+    public static PlayResult invalid(Problem problem, String message) {
+        return new PlayResult(problem, message, Collections.emptyList(), 0);
+    }
+
+    /**
+     * Checks if the play can be made
+     *
+     * @return true if it is valid
+     */
+    public boolean isValid() {
+        return problem == null;
+    }
+
+    /**
+     * Getter for the reason the play was refused
+     *
+     * @return the problem, or null if the play is valid
+     */
+    public Problem getProblem() {
+        return problem;
+    }
+
+    /**
+     * Getter for the message explaining why the play was refused
+     *
+     * @return the message, or null if the play is valid
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Getter for the words the play makes
+     *
+     * @return the words, main word first, or an empty list if the play was refused
+     */
+    public List<WordSpan> getWords() {
+        return words;
+    }
+
+    /**
+     * Getter for the points the play scores, the bingo bonus included
+     *
+     * @return the score, or 0 if the play was refused
+     */
+    public int getScore() {
+        return score;
+    }
+
+    @Override
+    public String toString() {
+        return isValid() ? words + " for " + score : problem + ": " + message;
+    }
+}
@@ -0,0 +1,176 @@
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class PlayValidator checks a proposed play in one pass without changing the board: the placement rules,
+ * the words the tiles make with those already on the board, and the score, worked out by a ScoreCalculator from
+ * those words.
+ * The tiles are laid over the board in a scratch array that is cleared again before returning, so a validator
+ * can be asked about many plays in a row, as the AI does while it looks for a move. A validator is not safe to
+ * share between threads.
+ *
+ * @version 1
+ */
+public class PlayValidator {
+    private final Board board;
+    private final WordSet dictionary;
+    private final Tile[] overlay; // the tiles of the play being checked, by square
+    private final int[] placed; // the squares of the play being checked, in the order given
+    private final Bitboard squares; // the squares of the play being checked, for the placement checks
+    private final ScoreCalculator scoreCalculator;
+
+    /**
+     * Constructor for class PlayValidator
+     *
+     * @param board      the board plays are checked against
+     * @param dictionary the set of valid words
+     */
+    public PlayValidator(Board board, WordSet dictionary) {
+        this.board = board;
+        this.dictionary = dictionary;
+        overlay = new Tile[board.getSize() * board.getSize()];
+        placed = new int[board.getSize() * board.getSize()];
+        squares = new Bitboard(board.getSize());
+        scoreCalculator = new ScoreCalculator(board);
+    }
+
+    /**
+     * Getter for the board plays are checked against
+     *
+     * @return the board
+     */
+    public Board getBoard() {
+        return board;
+    }
+
+    /**
+     * Getter for the set of valid words
+     *
+     * @return the word set
+     */
+    public WordSet getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Checks a play, leaving the board as it is
+     *
+     * @param placement the tiles to place, by position
+     * @return the reason the play is refused, or the words it makes and its score
+     */
+    public PlayResult validate(Map<Position, Tile> placement) {
+        if (placement.isEmpty()) {
+            return PlayResult.invalid(PlayResult.Problem.NO_TILES,
+                    "No tiles placed on the board. Please place tiles before playing.");
+        }
+        int count = 0;
+        try {
+            for (Map.Entry<Position, Tile> entry : placement.entrySet()) {
+                int row = entry.getKey().getRow();
+                int col = entry.getKey().getCol();
+                if (row < 0 || row >= board.getSize() || col < 0 || col >= board.getSize()) {
+                    return PlayResult.invalid(PlayResult.Problem.OFF_BOARD, "Invalid formation, tiles must be on the board");
+                }
+                int square = row * board.getSize() + col;
+                overlay[square] = entry.getValue();
+                squares.set(square);
+                placed[count++] = square;
+            }
+            return check(count);
+        } finally {
+            for (int i = 0; i < count; i++) {
+                overlay[placed[i]] = null;
+                squares.clear(placed[i]);
+            }
+        }
+    }
+
+    /**
+     * Checks a play once its tiles are laid over the board
+     *
+     * @param count the number of tiles placed
+     * @return the result
+     */
+    private PlayResult check(int count) {
+        int size = board.getSize();
+        Bitboard occupied = board.getOccupancy();
+        int firstRow = placed[0] / size;
+        int firstCol = placed[0] % size;
+        boolean sameRow = true;
+        boolean sameCol = true;
+        for (int i = 0; i < count; i++) {
+            sameRow &= placed[i] / size == firstRow;
+            sameCol &= placed[i] % size == firstCol;
+        }
+
+        // placement rules, in the order the player is told about them
+        if (!sameRow && !sameCol) {
+            return PlayResult.invalid(PlayResult.Problem.NOT_ALIGNED, "Invalid formation, tiles must be in a straight line");
+        }
+        boolean firstPlay = occupied.isEmpty();
+        if (!firstPlay && !coversAnchor(squares)) {
+            return PlayResult.invalid(PlayResult.Problem.NOT_CONNECTED, "Invalid formation, must be adjacent to existing tiles");
+        }
+        if (firstPlay && !coversCenter(squares)) {
+            int center = board.getCenter();
+            return PlayResult.invalid(PlayResult.Problem.OFF_CENTER, "First word must cover center square ("
+                    + (char) ('A' + center % size) + (center / size + 1) + ")");
+        }
+        if (firstPlay && count < 2) {
+            return PlayResult.invalid(PlayResult.Problem.TOO_SHORT, "First turn must play at least 2 tiles");
+        }
+        if (squares.intersects(occupied)) {
+            return PlayResult.invalid(PlayResult.Problem.OCCUPIED, "Invalid formation, tiles must be placed on empty squares");
+        }
+        if (!hasNoGaps(squares)) {
+            return PlayResult.invalid(PlayResult.Problem.GAP,
+                    "Invalid formation, there must not be empty spaces between tiles");
+        }
+
+        // the main word along the play, then the cross-word through each tile
+        List<WordSpan> words = board.wordsThrough(overlay, placed, count);
+        CharSequence[] batch = new CharSequence[words.size()];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = words.get(i).getWord();
+        }
+        if (!dictionary.containsAll(batch)) {
+            return PlayResult.invalid(PlayResult.Problem.INVALID_WORD, "Invalid formation, please try again");
+        }
+        return PlayResult.valid(words, scoreCalculator.score(words, overlay, count));
+    }
+
+    /**
+     * Checks if a play covers an anchor, an empty square next to a tile, as every play after the first must
+     *
+     * @param play the squares of the play
+     * @return true if one of the squares is an anchor
+     */
+    public boolean coversAnchor(Bitboard play) {
+        return play.intersects(board.getAnchors());
+    }
+
+    /**
+     * Checks if a play covers the center square, as the first play must
+     *
+     * @param play the squares of the play
+     * @return true if one of the squares is the center
+     */
+    public boolean coversCenter(Bitboard play) {
+        return play.get(board.getCenter());
+    }
+
+    /**
+     * Checks if every square between the first and last tile of a play holds a tile, from the board or the play
+     *
+     * @param play the squares of the play, in one row or column
+     * @return true if there is no empty square between the tiles
+     */
+    public boolean hasNoGaps(Bitboard play) {
+        int first = play.first();
+        int last = play.last();
+        int size = board.getSize();
+        // only the squares of the play's column lie between the tiles of a play down a column
+        Bitboard column = (first / size != last / size) ? Bitboard.column(size, first % size) : null;
+        return board.getOccupancy().containsRange(first + 1, last, column, play);
+    }
+}
@@ -14,9 +14,9 @@ public class Player implements Serializable {
     protected int score; //the players score
     protected LinkedHashMap<Position, Tile> tilesPlayed; // tiles played in current turn
     protected ArrayList<String> tilesToExchange; // tiles the play wishes to exchange
-    protected HashMap<Integer, HashMap<Tile, Boolean>> actionsPerformed; // actions the play took before click play, pass or swap, boolean indicates whether its in exchange panel (0) or board (1)
-    protected Integer actionCounter; // int to keep track of when an action was performed
-    protected HashMap<Integer, Position> actionsPerformedPositions; // the positions of the actions taken by the player this turn
+    protected CommandLog commandLog; // the tiles moved to the board or exchange panel this turn, for undo and redo
+    private int[] rackCounts = new int[27]; // how many tiles of each letter, then blanks, are on the rack
+    private long rackKey; // the Zobrist key of the tiles on the rack
 
     /**
      * Creates new player object with corresponding name
@@ -29,9 +29,7 @@ public class Player implements Serializable {
         score = 0;
         tilesPlayed = new LinkedHashMap<>();
         tilesToExchange = new ArrayList<>();
-        actionsPerformed = new HashMap<>();
-        actionsPerformedPositions = new HashMap<>();
-        actionCounter = 0;
+        commandLog = new CommandLog();
     }
 
     /**
@@ -46,6 +44,7 @@ public class Player implements Serializable {
             if (!bag.isEmpty() && (rack.size() < 7)) {
                 Tile drawnTile = bag.drawTile();
                 rack.add(drawnTile);
+                countRackTile(drawnTile, true);
             } else if (bag.isEmpty()) {
                 gameRef.showMessage("there are no more tiles in the bag");
                 return false;
@@ -93,6 +92,32 @@ public class Player implements Serializable {
         this.score = score;
     }
 
+    /**
+     * getter for the Zobrist key of the player's rack, which identifies the tiles on it in any order
+     *
+     * @return the key, the same for any two racks holding the same tiles
+     */
+    public long getRackKey() {
+        return rackKey;
+    }
+
+    /**
+     * Updates the rack's tile counts and key for a tile put on or taken off it
+     *
+     * @param tile  the tile
+     * @param added true if the tile was put on the rack, false if taken off
+     */
+    private void countRackTile(Tile tile, boolean added) {
+        int kind = Zobrist.rackKind(tile);
+        if (!added) {
+            rackCounts[kind]--;
+        }
+        rackKey ^= Zobrist.rackTile(tile, rackCounts[kind]);
+        if (added) {
+            rackCounts[kind]++;
+        }
+    }
+
     /**
      * method to check if player's rack is empty
      *
@@ -116,6 +141,7 @@ public class Player implements Serializable {
             Tile currentTile = iterator.next();
             if (String.valueOf(currentTile.getLetter()).equalsIgnoreCase(tileLetter)) {
                 iterator.remove();
+                countRackTile(currentTile, false);
                 return true; // tile found and removed
             }
         }
@@ -156,6 +182,11 @@ public class Player implements Serializable {
      */
     public void setRack(ArrayList<Tile> tiles) {
         this.rack = tiles;
+        rackCounts = new int[27];
+        rackKey = 0;
+        for (Tile tile : tiles) {
+            countRackTile(tile, true);
+        }
     }
 
     /**
@@ -184,70 +215,41 @@ public class Player implements Serializable {
     }
 
     /**
-     * gets the map of actions played this turn
-     *
-     * @return hashmap of actions
-     */
-    public HashMap<Integer, HashMap<Tile, Boolean>> getActionsPerformed() {
-        return actionsPerformed;
-    }
-
-    /**
-     * gets the map of actions positions from this turn
-     */
-    public HashMap<Integer, Position> getActionsPerformedPositions() {
-        return actionsPerformedPositions;
-    }
-
-    /**
-     * adds an action to the hashmap
+     * gets the log of tiles moved this turn
      *
-     * @param actionPerformed the tile placed and a boolean indicating if it was an exchange move or not
+     * @return the command log
      */
-    public void addActionPerformed(HashMap<Tile, Boolean> actionPerformed) {
-        actionCounter++;
-        actionsPerformed.put(actionCounter, actionPerformed);
+    public CommandLog getCommandLog() {
+        return commandLog;
     }
 
     /**
-     * adds an action to the hashmap
+     * records a tile placed on the board this turn
      *
-     * @param position the position of the tile played in the current move
+     * @param rackSlot the rack slot the tile came from, or -1 if not known
+     * @param tile     the tile placed, a blank with the letter it was given
+     * @param position the position the tile was placed on
      */
-    public void addActionPerformedPosition(Position position) {
-        actionsPerformedPositions.put(actionCounter, position);
+    public void recordPlacement(int rackSlot, Tile tile, Position position) {
+        commandLog.recordPlacement(rackSlot, position.getRow(), position.getCol(), tile);
     }
 
     /**
-     * getter for player action counter
+     * records a tile put in the exchange panel this turn
      *
-     * @return the player's action counter
-     */
-    public Integer getActionCounter() {
-        return actionCounter;
-    }
-
-    /**
-     * increments the action counter so tact actions taken after a redo is performed start from the correct index
-     */
-    public void incrementActionCounter() {
-        actionCounter++;
-    }
-
-    /**
-     * decrements the action counter so that actions taken after an undo is performed overwrite previously undone actions
+     * @param rackSlot     the rack slot the tile came from, or -1 if not known
+     * @param tile         the tile to exchange
+     * @param exchangeSlot the slot of the exchange panel
      */
-    public void decrementActionCounter() {
-        actionCounter--;
+    public void recordExchange(int rackSlot, Tile tile, int exchangeSlot) {
+        commandLog.recordExchange(rackSlot, exchangeSlot, tile);
     }
 
     /**
      * Clears the actions performed in preparation for next turn
      */
     public void clearActionsPerformed() {
-        actionsPerformed.clear();
-        actionsPerformedPositions.clear();
-        actionCounter = 0;
+        commandLog.clear();
     }
 
     /**
@@ -26,9 +26,8 @@ public class PlayerRackPanel extends JPanel implements Serializable {
     private List<ScrabbleButton> exchangeButtons; // Track exchange buttons for tile placement
     private LinkedHashMap<Integer, Tile> selectedTilesForExchange; // Track selected tiles
     private List<JButton> tileButtons; // List to store references to rack buttons
-    private HashMap<Integer, JButton> actionsPerformed; // store a map of what buttons where pressed in the rack
-    private Integer actionCounter; // int to keep track of when an action was performed
     private JButton previousTileButton;
+    private int selectedSlot; // the rack slot of the tile last selected, recorded with each move for undo
 
 
     /**
@@ -43,8 +42,7 @@ public class PlayerRackPanel extends JPanel implements Serializable {
         this.exchangeButtons = new ArrayList<>(); // Initialize exchangeButtons list
         this.selectedTilesForExchange = new LinkedHashMap<>(); // Initialize selectedTilesForExchange list
         this.tileButtons = new ArrayList<>(); // Initialize tileButtons list
-        actionsPerformed = new HashMap<>();
-        actionCounter = 0;
+        selectedSlot = -1;
 
         playerName = new JLabel(view.getGame().getCurrentPlayer().getName()); // add player's name
 
@@ -111,14 +109,6 @@ public class PlayerRackPanel extends JPanel implements Serializable {
         constraints.anchor = GridBagConstraints.CENTER;
         add(exchangePanel, constraints);
 
-        // Initialize tile buttons and add them to the list
-        for (Tile tile : rack) {
-            JButton tileButton = new JButton(String.valueOf(tile.getLetter()));
-            tileButton.addActionListener(new TileButtonListener(tile, tileButton));
-            tilePanel.add(tileButton);
-            tileButtons.add(tileButton); // Add button to list
-        }
-
         // Initial display of tiles
         updateRack(rack);
     }
@@ -134,10 +124,12 @@ public class PlayerRackPanel extends JPanel implements Serializable {
 
         // Clear tile panel and add updated tile buttons
         tilePanel.removeAll();
+        tileButtons.clear();
         for (Tile tile : tiles) {
             JButton tileButton = new JButton(String.valueOf(tile.getLetter()));
-            tileButton.addActionListener(new TileButtonListener(tile, tileButton));
+            tileButton.addActionListener(new TileButtonListener(tile, tileButton, tileButtons.size()));
             tilePanel.add(tileButton);
+            tileButtons.add(tileButton); // Add button to list
         }
 
         revalidate();
@@ -175,41 +167,30 @@ public class PlayerRackPanel extends JPanel implements Serializable {
     }
 
     /**
-     * Getter for rack actions performed this turn
-     * @return the actions performed on the player's rack
+     * Getter for the rack slot of the tile last selected
+     * @return the slot, or -1 if no tile has been selected this turn
      */
-    public HashMap<Integer, JButton> getActionsPerformed() {
-        return actionsPerformed;
+    public int getSelectedSlot() {
+        return selectedSlot;
     }
 
     /**
-     * getter for player action counter
-     * @return the player's action counter
+     * Enables or disables the button of a rack slot, as a move on it is undone or redone
+     * @param slot the rack slot
+     * @param enabled true to enable the button
      */
-    public Integer getActionCounter() {
-        return actionCounter;
-    }
-
-    /**
-     * decrements the action counter so that actions taken after an undo is performed overwrite previously undone actions
-     */
-    public void decrementActionCounter(){
-        actionCounter--;
-    }
-
-    /**
-     * increments the action counter so tact actions taken after a redo is performed start from the correct index
-     */
-    public void incrementActionCounter(){
-        actionCounter++;
+    public void setSlotEnabled(int slot, boolean enabled) {
+        if (slot >= 0 && slot < tileButtons.size()) {
+            tileButtons.get(slot).setEnabled(enabled);
+        }
     }
 
     /**
-     * Clears the actions performed in preparation for next turn
+     * Clears the tile selection in preparation for next turn
      */
     public void clearActionsPerformed(){
-        actionsPerformed.clear();
-        actionCounter = 0;
+        previousTileButton = null;
+        selectedSlot = -1;
     }
 
     /**
@@ -221,16 +202,19 @@ public class PlayerRackPanel extends JPanel implements Serializable {
     private class TileButtonListener implements ActionListener {
         private Tile tile;
         private JButton tileButton;
+        private int slot;
 
         /**
          * Action listener for player's rack tiles
          *
          * @param tile       the tile assigned to the button
          * @param tileButton the tile button selected
+         * @param slot       the rack slot of the tile
          */
-        public TileButtonListener(Tile tile, JButton tileButton) {
+        public TileButtonListener(Tile tile, JButton tileButton, int slot) {
             this.tile = tile;
             this.tileButton = tileButton;
+            this.slot = slot;
         }
 
         /**
@@ -242,14 +226,12 @@ public class PlayerRackPanel extends JPanel implements Serializable {
         public void actionPerformed(ActionEvent e) {
             if (scrabbleView.getSelectedTile() != null){
                 previousTileButton.setEnabled(true);
-                actionCounter--;
             }
             previousTileButton = tileButton;
+            selectedSlot = slot;
 
             scrabbleView.setSelectedTile(tile);
             tileButton.setEnabled(false);
-            actionCounter++;
-            actionsPerformed.put(actionCounter, tileButton);
         }
     }
 
@@ -284,10 +266,8 @@ public class PlayerRackPanel extends JPanel implements Serializable {
                 exchangeButtons.get(index).placeTile(tile, true);
                 selectedTilesForExchange.put(index, tile);
 
-                // create new action performed hashmap to store tile
-                HashMap<Tile, Boolean> actionPerformed = new HashMap<Tile, Boolean>();
-                actionPerformed.put(tile, true);
-                scrabbleView.getGame().getCurrentPlayer().addActionPerformed(actionPerformed); // add action to hashmap of actions performed by the player
+                // record the move so it can be undone
+                scrabbleView.getGame().getCurrentPlayer().recordExchange(selectedSlot, tile, index);
 
                 scrabbleView.setSelectedTile(null); // Clear selected tile after adding
             }
@@ -1,13 +1,16 @@
 import java.io.Serializable;
 
 /**
- * Position class is used for positional methods using the board in the game
+ * Position class is used for positional methods using the board in the game.
+ * The positions a board hands out are views of its squares: their tile and occupancy are read from
+ * and written to the board.
  * @version 1
  */
 
 public class Position implements Serializable {
     private int row; // row index
     private int col; // column
+    private Board board; // the board this position is a square of, null for a free-standing position
 
     private Tile tile; // scrabble tile letter for representation
     private boolean occupied; // true if position is occupied, false otherwise
@@ -24,9 +27,20 @@ public class Position implements Serializable {
         this.occupied = false; //not occupied by default
     }
 
+    /**
+     * Constructor for a position that is a view of a square on a board, its tile is kept by the board
+     * @param board the board
+     * @param row the row of the board
+     * @param col the column of the board
+     */
+    Position(Board board, int row, int col) {
+        this(row, col);
+        this.board = board;
+    }
+
     /**
      * Get the row of the board
-     * @return the row (0 through 14)
+     * @return the row (0 through 14 on a standard board)
      */
     public int getRow() {
         return row; //returns the row on the board
@@ -34,7 +48,7 @@ public class Position implements Serializable {
 
     /**
      * Get the column of the board
-     * @return the column (0-15)
+     * @return the column (0 through 14 on a standard board)
      */
     public int getCol() {
         return col; //returns the column on the board
@@ -45,6 +59,9 @@ public class Position implements Serializable {
      * @return the tile
      */
     public Tile getTile() {
+        if (board != null) {
+            return board.getTile(row, col);
+        }
         return tile; //returns the tile at the position
     }
 
@@ -53,6 +70,10 @@ public class Position implements Serializable {
      * @param tile the tile to set a location as
      */
     public void setTile(Tile tile) {
+        if (board != null) {
+            board.setTile(row, col, tile);
+            return;
+        }
         this.tile = tile; //Sets tile in position to the one specified
         this.occupied = (tile != null); //Changes to being occupied if the tile is not empty
     }
@@ -62,6 +83,10 @@ public class Position implements Serializable {
      * @param occupied the position to be marked as occupied
      */
     public void setOccupied(boolean occupied) {
+        if (board != null) {
+            board.setOccupied(row, col, occupied);
+            return;
+        }
         this.occupied = occupied;
     }
 
@@ -70,6 +95,9 @@ public class Position implements Serializable {
      * @return true if occupied, false if not
      */
     public boolean isOccupied() {
+        if (board != null) {
+            return board.isOccupied(row, col);
+        }
         return occupied; //True if tile in position
     }
 
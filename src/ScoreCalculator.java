@@ -0,0 +1,106 @@
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class ScoreCalculator scores a proposed play without changing the board or anything else, so a move can
+ * be scored before, or instead of, being made. The main word and every cross-word are scored. Letter and
+ * word premiums count only on the squares the play covers, for each word through them. A word's multiplier
+ * applies to that word alone. The words are found by the board's walker, the same one a PlayValidator uses, which
+ * hands over the words it has already found. Using up the premiums is left to whoever makes the play.
+ *
+ * @version 1
+ */
+public class ScoreCalculator {
+    public static final int BINGO_TILES = 7;
+    public static final int BINGO_BONUS = 50;
+
+    private final Board board;
+    private final Tile[] overlay; // the tiles of a play scored on its own, by square
+    private final int[] placed; // the squares of that play
+
+    /**
+     * Constructor for class ScoreCalculator
+     *
+     * @param board the board plays are scored on, which may be a snapshot
+     */
+    public ScoreCalculator(Board board) {
+        this.board = board;
+        overlay = new Tile[board.getSize() * board.getSize()];
+        placed = new int[board.getSize() * board.getSize()];
+    }
+
+    /**
+     * Scores a play. The tiles must be on empty squares, in a line with no gaps, as a valid play is.
+     *
+     * @param placement the tiles to place, by position
+     * @return the score, the bingo bonus included
+     */
+    public int score(Map<Position, Tile> placement) {
+        int size = board.getSize();
+        int count = 0;
+        try {
+            for (Map.Entry<Position, Tile> entry : placement.entrySet()) {
+                int square = entry.getKey().getRow() * size + entry.getKey().getCol();
+                overlay[square] = entry.getValue();
+                placed[count++] = square;
+            }
+            return (count == 0) ? 0 : score(board.wordsThrough(overlay, placed, count), overlay, count);
+        } finally {
+            for (int i = 0; i < count; i++) {
+                overlay[placed[i]] = null;
+            }
+        }
+    }
+
+    /**
+     * Scores the words a play makes, as found by {@link Board#wordsThrough(Tile[], int[], int)}
+     *
+     * @param words   the main word and every cross-word
+     * @param overlay the tiles of the play by square, laid over the board
+     * @param tiles   the number of tiles placed
+     * @return the score, the bingo bonus included
+     */
+    public int score(List<WordSpan> words, Tile[] overlay, int tiles) {
+        int score = 0;
+        for (WordSpan word : words) {
+            score += scoreWord(word, overlay);
+        }
+        if (tiles == BINGO_TILES) {
+            score += BINGO_BONUS;
+        }
+        return score;
+    }
+
+    /**
+     * Scores one word of a play
+     *
+     * @param word    the word
+     * @param overlay the tiles of the play by square
+     * @return the score of the word
+     */
+    private int scoreWord(WordSpan word, Tile[] overlay) {
+        int size = board.getSize();
+        int score = 0;
+        int multiplier = 1;
+        for (int i = 0; i < word.length(); i++) {
+            int row = word.getRow(i);
+            int col = word.getCol(i);
+            int pointValue = board.getTile(row * size + col, overlay).getPointValue();
+            // a tile already on the board gets no premium
+            int premium = (overlay[row * size + col] != null) ? board.getPremium(row, col) : Board.NO_PREMIUM;
+            if (premium == Board.DOUBLE_LETTER) {
+                score += pointValue * 2;
+            } else if (premium == Board.TRIPLE_LETTER) {
+                score += pointValue * 3;
+            } else {
+                score += pointValue;
+            }
+            if (premium == Board.DOUBLE_WORD) {
+                multiplier *= 2;
+            } else if (premium == Board.TRIPLE_WORD) {
+                multiplier *= 3;
+            }
+        }
+        return score * multiplier;
+    }
+}
@@ -5,7 +5,6 @@ import java.awt.event.ActionListener;
 import java.io.Serializable;
 import java.lang.Character;
 import java.util.ArrayList;
-import java.util.HashMap;
 
 /**
  * Class ScrabbleBoardPanel represents the Scrabble Board in a game of scrabble. It provides
@@ -21,18 +20,18 @@ public class ScrabbleBoardPanel extends JPanel implements Serializable {
     public ScrabbleBoardPanel(PlayerRackPanel rackPanel, ScrabbleView view) {
         this.playerRackPanel = rackPanel;
         this.scrabbleView = view;  // Set the reference to ScrabbleView
-        setLayout(new GridLayout(15, 15));
+        int size = scrabbleView.getGame().getGameBoard().getSize();
+        setLayout(new GridLayout(size, size));
         setBackground(new Color(50, 138, 73));
 
         // initialize button array and add buttons to panel
-        boardButtons = new ScrabbleButton[15][15];
-        for (int row = 0; row < 15; row++) {
-            for (int col = 0; col < 15; col++) {
-                Position buttonPosition = new Position(row, col);
+        boardButtons = new ScrabbleButton[size][size];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
                 ScrabbleButton button = new ScrabbleButton(row, col);
                 char ch = 'A';
                 button.setText(Character.toString(ch + col) + (row + 1));
-                switch (scrabbleView.getGame().getGameBoard().getPremiumPositions().get(buttonPosition.toString())) {
+                switch (scrabbleView.getGame().getGameBoard().getPremium(row, col)) {
                     case 2:
                         button.setColor(Color.cyan);
                         break;
@@ -45,7 +44,7 @@ public class ScrabbleBoardPanel extends JPanel implements Serializable {
                     case 5:
                         button.setColor(Color.red);
                         break;
-                    case null, default:
+                    default:
                         button.setColor(Color.white);
                         break;
                 }
@@ -61,9 +60,8 @@ public class ScrabbleBoardPanel extends JPanel implements Serializable {
      */
     public void updateBoard() {
         Board board = scrabbleView.getGame().getGameBoard();
-        for (int row = 0; row < 15; row++) {
-            for (int col = 0; col < 15; col++) {
-                Position buttonPosition = new Position(row, col);
+        for (int row = 0; row < boardButtons.length; row++) {
+            for (int col = 0; col < boardButtons.length; col++) {
                 //First, reset the square
                 char ch = 'A';
                 boardButtons[row][col].revertTile();
@@ -105,8 +103,9 @@ public class ScrabbleBoardPanel extends JPanel implements Serializable {
             ScrabbleModel model = scrabbleView.getGame();
             Tile tile = scrabbleView.getSelectedTile();
             if (tile != null) {
-                // Place tile in GUI board
+                // Place tile in GUI board, a blank becoming the tile for the letter chosen
                 boardButtons[row][col].placeTile(tile, false);
+                tile = boardButtons[row][col].getTile();
 
                 // Disable button to prevent further modification
                 boardButtons[row][col].setEnabled(false);
@@ -116,11 +115,9 @@ public class ScrabbleBoardPanel extends JPanel implements Serializable {
                 Position position = model.getGameBoard().getPosition(row, col);
                 scrabbleView.getGame().getCurrentPlayer().addTilesPlayed(tile, position);
 
-                // create new action performed hashmap to store tile
-                HashMap<Tile, Boolean> actionPerformed = new HashMap<Tile, Boolean>();
-                actionPerformed.put(tile, false);
-                scrabbleView.getGame().getCurrentPlayer().addActionPerformed(actionPerformed); // add action to hashmap of actions performed by the player
-                scrabbleView.getGame().getCurrentPlayer().addActionPerformedPosition(position); // add position of action performed this move
+                // record the move so it can be undone
+                int rackSlot = scrabbleView.getPlayerRackPanel().getSelectedSlot();
+                scrabbleView.getGame().getCurrentPlayer().recordPlacement(rackSlot, tile, position);
             }
         }
     }
@@ -98,10 +98,9 @@ public class ScrabbleButton extends JButton implements Serializable {
                         JOptionPane.showMessageDialog(null, "Please enter only a single letter");
                     }
                 } while (true);
+                this.tile = t.designate(blankLetter); // the blank on the rack is left as it is
                 this.setLetter(blankLetter);
                 this.score = 0;
-                t.setLetter(blankLetter);
-                t.setPointValue(0);
             } else {
                 //Sets letter of this button, and sets score
                 this.setLetter(this.tile.getLetter());
@@ -113,6 +112,15 @@ public class ScrabbleButton extends JButton implements Serializable {
         }
     }
 
+    /**
+     * Gets the tile on this button, a blank having the letter it was played as
+     *
+     * @return the tile, or the last tile placed if the button has been reverted
+     */
+    public Tile getTile() {
+        return tile;
+    }
+
     /**
      * Reverts the board tile to its default or premium state in the event of an invalid play or pass.
      */
@@ -1,6 +1,7 @@
 import javax.swing.*;
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Main class of scrabble game. Handles play, exchange, pass, and if the game continues or not.
@@ -16,12 +17,15 @@ public class ScrabbleModel implements Serializable {
     private boolean gameOver;
     private int successiveScorelessTurns;
     private List<String> wordsInPlay;
-    private ArrayList<String> dictionary;
+    private String wordListFile; // the word list file the game was saved with
+    private LexiconPatch wordListPatch; // the changes made to that file by the version played, if any
+    private transient CompletableFuture<LexiconRegistry.Handle> pendingDictionary; // loading in the background
+    private transient LexiconRegistry.Handle dictionary; // rebuilt rather than saved with the game
+    private transient WordSet validWords; // checks the words of each play, chosen separately from the AI's lexicon
+    private transient PlayValidator playValidator; // made again for a new board or word set
     private int turnNumber;
     private transient ScrabbleView view;
     private boolean isTest;
-    private HashMap<Integer, Character> blankRedo; // stores the letter chosen for a blank tile before undoing it
-    private Integer numBlanks; // number of blanks played in a turn
 
     /**
      * Constructor for Game class
@@ -29,7 +33,48 @@ public class ScrabbleModel implements Serializable {
      * @param numPlayers the number of players who will be playing the game
      */
     public ScrabbleModel(int numPlayers, ScrabbleView view, int numAI) {
-        gameBoard = new Board();
+        this(numPlayers, view, numAI, Dawg.DEFAULT_WORD_LIST);
+    }
+
+    /**
+     * Constructor for Game class using a chosen word list. The game keeps the version of the list that is
+     * current when it is created, even if a newer version is published while it is being played.
+     *
+     * @param numPlayers the number of players who will be playing the game
+     * @param view       the view showing the game
+     * @param numAI      the number of AI players
+     * @param wordList   the name of the word list, one of {@link Dawg#WORD_LISTS}
+     */
+    public ScrabbleModel(int numPlayers, ScrabbleView view, int numAI, String wordList) {
+        this(numPlayers, view, numAI, LexiconRegistry.getShared().acquireListAsync(wordList));
+    }
+
+    /**
+     * Constructor for Game class with a dictionary that may still be loading. The game only waits for it
+     * when the first word has to be checked.
+     *
+     * @param numPlayers the number of players who will be playing the game
+     * @param view       the view showing the game
+     * @param numAI      the number of AI players
+     * @param dictionary the dictionary for the game, completed once it is loaded
+     */
+    public ScrabbleModel(int numPlayers, ScrabbleView view, int numAI,
+                         CompletableFuture<LexiconRegistry.Handle> dictionary) {
+        this(numPlayers, view, numAI, dictionary, new Board());
+    }
+
+    /**
+     * Constructor for Game class on a chosen board, which may be any size a board XML file gives
+     *
+     * @param numPlayers the number of players who will be playing the game
+     * @param view       the view showing the game
+     * @param numAI      the number of AI players
+     * @param dictionary the dictionary for the game, completed once it is loaded
+     * @param board      the board to play on
+     */
+    public ScrabbleModel(int numPlayers, ScrabbleView view, int numAI,
+                         CompletableFuture<LexiconRegistry.Handle> dictionary, Board board) {
+        gameBoard = board;
         isTest = false;
         gameBag = new Bag(isTest);
         players = new ArrayList<>();
@@ -38,12 +83,7 @@ public class ScrabbleModel implements Serializable {
         turnNumber = 0;
         this.wordsInPlay = new ArrayList<>();
         this.view = view;
-        dictionary = new ArrayList<String>();
-        dictionary = createDictionary();
-
-        // initiate variables for blank undo/redo information
-        blankRedo = new HashMap<>();
-        numBlanks = 0;
+        pendingDictionary = dictionary;
 
         //Set up human players
         for (int i = 1; i <= numPlayers; i++) {
@@ -64,7 +104,7 @@ public class ScrabbleModel implements Serializable {
             for (int i = 1; i <= numAI; i++) {
                 String aiName = "Bot " + i; //e.g. Bot 1, Bot 2, Bot3, etc.
 
-                Player ai = new AI(this, aiName, dictionary, gameBoard);
+                Player ai = new AI(this, aiName, gameBoard);
                 ai.drawTiles(gameBag, 7, this);
                 players.add(ai);
             }
@@ -80,7 +120,28 @@ public class ScrabbleModel implements Serializable {
      * @param playerList the list of players in the game
      */
     public ScrabbleModel(ArrayList<Player> playerList) {
-        gameBoard = new Board();
+        this(playerList, Dawg.DEFAULT_WORD_LIST);
+    }
+
+    /**
+     * Constructor used for test-cases with a chosen word list. Does not use GUI, just tests model.
+     *
+     * @param playerList the list of players in the game
+     * @param wordList   the name of the word list
+     */
+    public ScrabbleModel(ArrayList<Player> playerList, String wordList) {
+        this(playerList, wordList, new Board());
+    }
+
+    /**
+     * Constructor used for test-cases with a chosen word list and board. Does not use GUI, just tests model.
+     *
+     * @param playerList the list of players in the game
+     * @param wordList   the name of the word list
+     * @param board      the board to play on
+     */
+    public ScrabbleModel(ArrayList<Player> playerList, String wordList, Board board) {
+        gameBoard = board;
         isTest = true;
         gameBag = new Bag(isTest);
         players = playerList;
@@ -88,12 +149,7 @@ public class ScrabbleModel implements Serializable {
         successiveScorelessTurns = 0;
         turnNumber = 0;
         this.wordsInPlay = new ArrayList<>();
-        dictionary = new ArrayList<String>();
-        dictionary = createDictionary();
-
-        // initiate variables for blank undo/redo information
-        blankRedo = new HashMap<>();
-        numBlanks = 0;
+        pendingDictionary = LexiconRegistry.getShared().acquireListAsync(wordList);
 
         for (Player player : players) {
             player.drawTiles(gameBag, 7, this);
@@ -103,26 +159,58 @@ public class ScrabbleModel implements Serializable {
     }
 
     /**
-     * creates the dictionary used for the game
+     * gets the dictionary used for the game, which the registry loads only once and shares with every other
+     * game. The dictionary loads in the background, so this only waits if it has not finished loading yet.
      *
-     * @return array list of all valid words for the game
+     * @return lexicon of all valid words for the game
      */
-    private ArrayList<String> createDictionary() {
-        ArrayList<String> dictionary = new ArrayList<String>();
-        File dictFile = new File("CollinsScrabbleWords.txt");
-        Scanner scanner;
-        try {
-            scanner = new Scanner(dictFile);
-        } catch (FileNotFoundException e) {
-            System.out.println("Dictionary File \"CollinsScrabbleWords.txt\" is missing");
-            throw new RuntimeException(e);
-        }
-        while (scanner.hasNextLine()) {
-            dictionary.add(scanner.nextLine().toLowerCase());
+    public LexiconRegistry.Handle getDictionary() {
+        if (dictionary == null) {
+            long start = System.nanoTime();
+            boolean loaded = pendingDictionary.isDone();
+            dictionary = pendingDictionary.join();
+            if (!loaded) {
+                System.out.println("Waited " + (System.nanoTime() - start) / 1_000_000 + " ms for the dictionary to load");
+            }
         }
         return dictionary;
     }
 
+    /**
+     * gets the set of words used to validate plays, by default the dictionary's word index
+     *
+     * @return set of valid words
+     */
+    private WordSet getValidWords() {
+        if (validWords == null) {
+            validWords = getDictionary().getWordIndex();
+        }
+        return validWords;
+    }
+
+    /**
+     * Sets the set of words used to validate plays, without changing the lexicon the AI searches
+     *
+     * @param validWords the words that may be played
+     */
+    public void setValidWords(WordSet validWords) {
+        this.validWords = validWords;
+    }
+
+    /**
+     * Puts a Bloom filter in front of the words used to validate plays, so most invalid words are
+     * rejected without an exact lookup. The filter is built once per word list and rate.
+     *
+     * @param falsePositiveRate the chance of the filter passing a word that is not in the list
+     * @return the filtered set, whose counters show how many lookups the filter saved
+     */
+    public FilteredWordSet useWordFilter(double falsePositiveRate) {
+        FilteredWordSet filtered = new FilteredWordSet(getDictionary().getBloomFilter(falsePositiveRate),
+                getDictionary().getWordIndex());
+        validWords = filtered;
+        return filtered;
+    }
+
     /**
      * Method that checks if current player is AI, and if so, handles their turn
      *
@@ -146,7 +234,6 @@ public class ScrabbleModel implements Serializable {
         currentPlayerIndex = (currentPlayerIndex + 1) % players.size();
         successiveScorelessTurns++;
         turnNumber++;
-        clearBlankRedo(); // clears information for blanks played this turn in prep for next turn
         checkGameOver();
     }
 
@@ -173,7 +260,6 @@ public class ScrabbleModel implements Serializable {
         currentPlayerIndex = (currentPlayerIndex + 1) % players.size();
         successiveScorelessTurns++;
         turnNumber++;
-        clearBlankRedo(); // clears information for blanks played this turn in prep for next turn
         checkGameOver();
 
         return true;
@@ -189,170 +275,103 @@ public class ScrabbleModel implements Serializable {
         // Step 1: get tiles played
         Map<Position, Tile> tilesToPlay = currentPlayer.getTilesPlayed();
 
-        // check if at least one tile was played
-        if (tilesToPlay.isEmpty()) {
-            showMessage("No tiles placed on the board. Please place tiles before playing.");
-            return false;
-        }
-
-        // Step 2: Validate tile alignment and adjacency
-        List<Position> positions = new ArrayList<>(tilesToPlay.keySet());
-        if (!validateAlignmentAndAdjacency(positions)) {
-            revertTiles(tilesToPlay); // revert tiles on board
-            if (!isTest) {
-                view.getBoardPanel().revertTiles(currentPlayer);
-            } // clear gui
-            currentPlayer.clearTilesPlayed(); // clear played tiles
-            currentPlayer.clearActionsPerformed(); // clear stored actions taken this turn
+        // Step 2: check the play in one pass, the board is not touched until it is known to be valid
+        PlayResult result = checkPlay(tilesToPlay);
+        if (!result.isValid()) {
+            showMessage(result.getMessage());
+            if (result.getProblem() != PlayResult.Problem.NO_TILES) {
+                if (!isTest) {
+                    view.getBoardPanel().revertTiles(currentPlayer);
+                } // clear gui
+                currentPlayer.clearTilesPlayed(); // Clear the played tiles to reset
+                currentPlayer.clearActionsPerformed(); // clear stored actions taken this turn
+            }
             return false;
         }
 
-        // Step 3: Place tiles and validate words
-        if (attemptPlay(currentPlayer, tilesToPlay, positions)) {
-            currentPlayer.clearTilesPlayed(); // clear stored played tiles
-            currentPlayer.clearActionsPerformed(); // clear stored actions taken this turn
-            currentPlayerIndex = (currentPlayerIndex + 1) % players.size();
-            turnNumber++;
-            successiveScorelessTurns = 0; // reset successive scoreless turns counter
-            clearBlankRedo(); // clears information for blanks played this turn in prep for next turn
-            checkGameOver();
-            return true;
-        }
-
-        revertTiles(tilesToPlay); // Revert if play fails
-        if (!isTest) {
-            view.getBoardPanel().revertTiles(currentPlayer);
-        } // clear gui
-        currentPlayer.clearTilesPlayed(); // Clear the played tiles to reset
+        // Step 3: make the play
+        makePlay(currentPlayer, tilesToPlay, result);
+        currentPlayer.clearTilesPlayed(); // clear stored played tiles
         currentPlayer.clearActionsPerformed(); // clear stored actions taken this turn
-
-        return false;
-    }
-
-    /**
-     * Checks tile adjacency, alignment, and rule compliance
-     *
-     * @param positions the positions of the tiles to be placed
-     * @return true if valid alignment and adjacency
-     */
-    private boolean validateAlignmentAndAdjacency(List<Position> positions) {
-        WordValidator wordValidator = new WordValidator(gameBoard, dictionary);
-
-        if (!wordValidator.arePositionsAligned(positions)) {
-            showMessage("Invalid formation, tiles must be in a straight line");
-            return false;
-        }
-
-        if (!wordsInPlay.isEmpty() && !wordValidator.isConnectedToAdjacentTiles(positions)) {
-            showMessage("Invalid formation, must be adjacent to existing tiles");
-            return false;
-        }
-
-        if (wordsInPlay.isEmpty()) {
-            return validateFirstPlay(positions);
-        }
-
+        currentPlayerIndex = (currentPlayerIndex + 1) % players.size();
+        turnNumber++;
+        successiveScorelessTurns = 0; // reset successive scoreless turns counter
+        checkGameOver();
         return true;
     }
 
     /**
-     * Validates the first play to ensure it covers the center tile H8 and has at least 2 tiles
+     * Checks a play against the board and the set of valid words without making it
      *
-     * @param positions positions of the tiles to be played
-     * @return true if valid first move
+     * @param tilesToPlay the tiles to place, by position
+     * @return the reason the play is refused, or the words it makes and its score
      */
-    // Validates the first play to ensure it covers the center and has at least 2 tiles
-    private boolean validateFirstPlay(List<Position> positions) {
-        Position center = gameBoard.parsePosition("H8");
-        WordValidator wordValidator = new WordValidator(gameBoard, dictionary);
-        //Check if tile placed on H8
-        if (!positions.contains(center)) {
-            showMessage("First word must cover center square (H8)");
-            return false;
-        }
-
-        //Check if word has at least 2 letters
-        if (positions.size() < 2) {
-            showMessage("First turn must play at least 2 tiles");
-            return false;
+    public PlayResult checkPlay(Map<Position, Tile> tilesToPlay) {
+        // the validator keeps scratch space for the board, so it is reused until the board or word set changes
+        if (playValidator == null || playValidator.getBoard() != gameBoard
+                || playValidator.getDictionary() != getValidWords()) {
+            playValidator = new PlayValidator(gameBoard, getValidWords());
         }
-        return true;
+        return playValidator.validate(tilesToPlay);
     }
 
     /**
-     * Attempts to play a turn
+     * Makes a play that has been checked: places its tiles and updates the words in play, the rack and the score
      *
      * @param currentPlayer the player whose turn it is
-     * @param tilesToPlay   the tiles the player is trying to play
-     * @return true if successful move, false otherwise
+     * @param tilesToPlay   the tiles to place, by position
+     * @param result        the result of checking the play
      */
-    // Places tiles on the board, validates words, and updates score if valid
-    private boolean attemptPlay(Player currentPlayer, Map<Position, Tile> tilesToPlay, List<Position> positions) {
-        WordValidator wordValidator = new WordValidator(gameBoard, dictionary);
-
+    private void makePlay(Player currentPlayer, Map<Position, Tile> tilesToPlay, PlayResult result) {
+        List<Position> positions = new ArrayList<>(tilesToPlay.keySet());
         for (Map.Entry<Position, Tile> entry : tilesToPlay.entrySet()) {
-            if (!gameBoard.placeTile(entry.getValue(), entry.getKey().getRow(), entry.getKey().getCol())) {
-                return false;
-            }
-        }
-
-        if (!wordValidator.isConnectedToOtherTilesInTurn(positions)) {
-            showMessage("Invalid formation, there must not be empty spaces between tiles");
-            return false;
-        }
-
-        // get new words formed
-        Map<Map<Position, Tile>, String> attemptedWords = gameBoard.gatherWordsOnBoard();
-        List<String> newWords = (turnNumber == 0) ? new ArrayList<>(attemptedWords.values()) : getNewWords(new ArrayList<>(attemptedWords.values()));
-
-
-        for (String word : newWords) {
-            if (!wordValidator.isValidWord(dictionary, word)) {
-                showMessage("Invalid formation, please try again");
-                return false;
+            int row = entry.getKey().getRow();
+            int col = entry.getKey().getCol();
+            gameBoard.placeTile(entry.getValue(), row, col);
+            if (gameBoard.getPremium(row, col) != Board.NO_PREMIUM) {
+                gameBoard.usePremium(row, col); // premiums are used up only once the play is made
             }
         }
 
         // Update game state for valid play
-        wordsInPlay = new ArrayList<>(attemptedWords.values());
+        wordsInPlay = updateWordsInPlay(result.getWords(), positions);
+        gameBoard.updateCrossChecks(positions, getDictionary().getWordIndex()); // the lexicon move search uses
         for (Tile tileToRemove : tilesToPlay.values()) {
-            currentPlayer.removeTile(String.valueOf(tileToRemove.getLetter()));
+            // a blank is on the rack as the blank, whatever letter it was played as
+            currentPlayer.removeTile(tileToRemove.isBlank() ? " " : String.valueOf(tileToRemove.getLetter()));
         }
         currentPlayer.drawTiles(gameBag, tilesToPlay.size(), this);
-
-        // calculate score
-        int turnScore = calculateScore(attemptedWords, newWords);
-        currentPlayer.setScore(currentPlayer.getScore() + turnScore);
+        currentPlayer.setScore(currentPlayer.getScore() + result.getScore());
 
         // display updated score
         showMessage(currentPlayer.getName() + "'s score: " + currentPlayer.getScore());
-        return true;
     }
 
     /**
-     * Method to get a list of new words formed during the current players turn
+     * Method to update the words in play with the words formed during the current players turn. Each new
+     * word replaces the words already on the board that it was built from, the runs of old tiles between
+     * the tiles placed.
      *
-     * @param attemptedWordsInPlay list of words on the board after current players turn
-     * @return a list of all the new words created from current player's turn
+     * @param newSpans the words formed by the play
+     * @param placed   the positions of the tiles placed
+     * @return the words in play after the turn
      */
-    private List<String> getNewWords(List<String> attemptedWordsInPlay) {
-        Map<String, Integer> wordsInPlayCount = new HashMap<>();
-
-        for (String word : wordsInPlay) {
-            wordsInPlayCount.put(word, wordsInPlayCount.getOrDefault(word, 0) + 1);
-        }
-
-        List<String> tempList = new ArrayList<>();
-
-        for (String word : attemptedWordsInPlay) {
-            int currentCount = wordsInPlayCount.getOrDefault(word, 0);
-
-            if (currentCount == 0 || currentCount < Collections.frequency(attemptedWordsInPlay, word)) {
-                tempList.add(word);
+    private List<String> updateWordsInPlay(List<WordSpan> newSpans, List<Position> placed) {
+        Bitboard placedSquares = Bitboard.of(gameBoard.getSize(), placed);
+        List<String> updated = new ArrayList<>(wordsInPlay);
+        for (WordSpan span : newSpans) {
+            int runStart = 0;
+            for (int i = 0; i <= span.length(); i++) {
+                if (i == span.length() || placedSquares.get(span.getRow(i) * gameBoard.getSize() + span.getCol(i))) {
+                    if (i - runStart > 1) {
+                        updated.remove(span.getWord().substring(runStart, i)); // the old word is now part of this one
+                    }
+                    runStart = i + 1;
+                }
             }
-            wordsInPlayCount.put(word, currentCount + 1);
+            updated.add(span.getWord());
         }
-        return tempList;
+        return updated;
     }
 
     /**
@@ -391,97 +410,11 @@ public class ScrabbleModel implements Serializable {
      * @param tilesToPlay the tiles the player attempted to play
      */
     public void revertTiles(Map<Position, Tile> tilesToPlay) {
-        for (Map.Entry<Position, Tile> tile : tilesToPlay.entrySet()) {
-            Position position = tile.getKey();
-            position.setTile(null); // reset the position to empty
-            if (tile.getValue().isBlank()) {
-                tile.getValue().setLetter(' ');
-            }
+        for (Position position : tilesToPlay.keySet()) {
+            position.setTile(null); // reset the position to empty, a blank's letter was only part of the play
         }
     }
 
-    /**
-     * Method calculateScore() will calculate the score for each word played.
-     *
-     * @param wordsToTiles the map of tile lists to their corresponding words
-     * @param wordsFormed  the words that are formed by the player
-     * @return the score
-     */
-    private int calculateScore(Map<Map<Position, Tile>, String> wordsToTiles, List<String> wordsFormed) {
-        // Initial score
-        int score = 0;
-
-        // get premium positions
-        HashMap<String, Integer> premiumPositions = gameBoard.getPremiumPositions();
-
-        // Iterate through the list of newly formed words
-        for (String word : wordsFormed) {
-
-            Map<Position, Tile> positionTileMap = findTilesForWord(wordsToTiles, word);
-
-            // track multiplier for premium tiles
-            int multiplier = 1;
-
-            // Calculate score for this word
-            for (Map.Entry<Position, Tile> entry : positionTileMap.entrySet()) {
-                Position position = entry.getKey();
-                Tile tile = entry.getValue();
-
-                String positionKey = position.toString();
-
-                // handle double letter square
-                if (premiumPositions.containsKey(positionKey) && premiumPositions.get(positionKey) == 2) {
-                    score += tile.getPointValue() * 2;
-                    gameBoard.removePremiumPosition(positionKey);
-                }
-
-                // handle triple letter square
-                else if (premiumPositions.containsKey(positionKey) && premiumPositions.get(positionKey) == 4) {
-                    score += tile.getPointValue() * 3;
-                    gameBoard.removePremiumPosition(positionKey);
-                }
-                // no premium tile
-                else {
-                    score += tile.getPointValue();
-                }
-
-                // handle double word score
-                if (premiumPositions.containsKey(positionKey) && premiumPositions.get(positionKey) == 3) {
-                    multiplier = 2;
-                    gameBoard.removePremiumPosition(positionKey);
-                }
-
-                // handle triple word score
-                else if (premiumPositions.containsKey(positionKey) && premiumPositions.get(positionKey) == 5) {
-                    multiplier = 3;
-                    gameBoard.removePremiumPosition(positionKey);
-                }
-            }
-            score *= multiplier;
-        }
-        if (getCurrentPlayer().getTilesPlayed().keySet().size() == 7) {
-            score += 50; // bingo bonus
-        }
-        return score;
-    }
-
-    /**
-     * Helper method to find the list of tiles corresponding to a word.
-     *
-     * @param wordsToTiles the map of tile lists to words
-     * @param word         the word to find tiles for
-     * @return the list of tiles corresponding to the word
-     */
-    private Map<Position, Tile> findTilesForWord(Map<Map<Position, Tile>, String> wordsToTiles, String word) {
-        // Iterate through the map to find the matching word and return its tiles
-        for (Map.Entry<Map<Position, Tile>, String> entry : wordsToTiles.entrySet()) {
-            if (entry.getValue().equals(word)) {
-                return entry.getKey();
-            }
-        }
-        return Collections.emptyMap(); // Return an empty list if no tiles found (shouldn't happen)
-    }
-
     /**
      * Method for advancing the turn
      */
@@ -575,6 +508,25 @@ public class ScrabbleModel implements Serializable {
         return gameBag;
     }
 
+    /**
+     * Takes a snapshot of the board and bag, which simulations can read and fork from while the game goes on
+     *
+     * @return the snapshot
+     */
+    public GameSnapshot snapshot() {
+        return new GameSnapshot(gameBoard, gameBag, turnNumber);
+    }
+
+    /**
+     * Gets the Zobrist key of the position, the board and the rack of the player to move, for caching
+     * and deduplicating results by position
+     *
+     * @return the key
+     */
+    public long getPositionKey() {
+        return gameBoard.getKey() ^ getCurrentPlayer().getRackKey();
+    }
+
     /**
      * Getter for current player index
      */
@@ -587,6 +539,11 @@ public class ScrabbleModel implements Serializable {
      */
 
     public void saveGame(String fileName) throws IOException {
+        // a patched version is only known to this run of the program, so save what it is made of
+        LexiconRegistry registry = LexiconRegistry.getShared();
+        String version = getDictionary().getWordListFile();
+        wordListFile = registry.getBaseVersion(version);
+        wordListPatch = registry.getPatch(version);
         try (FileOutputStream f = new FileOutputStream(fileName); ObjectOutputStream s = new ObjectOutputStream(f)) {
             s.writeObject(this);
             s.flush();
@@ -598,6 +555,21 @@ public class ScrabbleModel implements Serializable {
         System.out.println("Saved Game");
     }
 
+    /**
+     * Makes the version of the word list a loaded game was saved with available again, or picks the current
+     * version of the standard list if the saved file can no longer be read
+     *
+     * @return the version to load
+     */
+    private String restoreWordList() {
+        LexiconRegistry registry = LexiconRegistry.getShared();
+        if (!new File(wordListFile).canRead()) {
+            showMessage("The word list the game was saved with could not be read, using the standard word list");
+            return registry.getCurrentVersion(Dawg.DEFAULT_WORD_LIST);
+        }
+        return (wordListPatch != null) ? registry.restoreUpdate(wordListFile, wordListPatch) : wordListFile;
+    }
+
     /**
      * Loads a saved game state from a specified file
      *
@@ -619,6 +591,21 @@ public class ScrabbleModel implements Serializable {
             wordsInPlay = loadGame.getWordsInPlay();
             turnNumber = loadGame.turnNumber;
             isTest = loadGame.isTest;
+            // carry on with the version of the word list the game was played with
+            if (loadGame.wordListFile != null) {
+                wordListFile = loadGame.wordListFile;
+                wordListPatch = loadGame.wordListPatch;
+                pendingDictionary = LexiconRegistry.getShared().acquireAsync(restoreWordList());
+                dictionary = null;
+                validWords = null;
+            }
+            // AI players were saved pointing at the saved model, point them back at this game
+            for (Player player : players) {
+                if (player instanceof AI) {
+                    ((AI) player).setModel(this);
+                    ((AI) player).setBoard(gameBoard);
+                }
+            }
             //Show that the model is successfully imported
             System.out.println(getPlayers());
             gameBoard.displayBoard();
@@ -633,105 +620,106 @@ public class ScrabbleModel implements Serializable {
     }
 
     /**
-     * Handle Undo
+     * Handle Undo, taking back the last tile moved this turn
+     *
+     * @param currentPlayer the player whose turn it is
+     * @return true if a tile was taken back
      */
     public boolean handleUndo(Player currentPlayer) {
-        if (currentPlayer.getActionsPerformed() != null && currentPlayer.getActionCounter() != 0) {
-
-            HashMap<Integer, HashMap<Tile, Boolean>> actionMap = currentPlayer.getActionsPerformed();
-            Tile tile = actionMap.get(currentPlayer.getActionCounter()).keySet().iterator().next();
-            Boolean isExchange = actionMap.get(currentPlayer.getActionCounter()).get(tile);
+        CommandLog log = currentPlayer.getCommandLog();
+        int entry = log.undo();
+        if (entry == -1) {
+            return false;
+        }
+        Tile tile = log.getTile(entry);
 
-            if (isExchange) {
-                if (!isTest) {
-                    int index = view.getPlayerRackPanel().getSelectedTilesForExchange().lastEntry().getKey();
-                    if (index != -1) {
-                        view.getPlayerRackPanel().getExchangeButtons().get(index).revertExchangeTile();
-                        view.getPlayerRackPanel().getSelectedTilesForExchange().remove(index);
-                    }
-                }
-                currentPlayer.getTilesToExchange().remove(String.valueOf(tile.getLetter()));
-
-            } else {
-                // Undo action was on the board
-                Position position = currentPlayer.getTilesPlayed().lastEntry().getKey();
-                if (position != null) {
-                    int row = position.getRow();
-                    int col = position.getCol();
-
-                    // revert gui tile
-                    if (!isTest) {
-                        view.getBoardPanel().getBoardButtons()[row][col].revertTile();
-                    }
-                    currentPlayer.getTilesPlayed().remove(position);
-                    if (tile.isBlank()) {
-                        numBlanks++;
-                        blankRedo.put(numBlanks, tile.getLetter());
-                        tile.setLetter(' ');
-                    }
+        if (log.isExchange(entry)) {
+            int slot = log.getExchangeSlot(entry);
+            if (!isTest) {
+                view.getPlayerRackPanel().getExchangeButtons().get(slot).revertExchangeTile();
+                view.getPlayerRackPanel().getSelectedTilesForExchange().remove(slot);
+            }
+            List<String> tilesToExchange = currentPlayer.getTilesToExchange();
+            for (int i = 0; i < tilesToExchange.size(); i++) {
+                if (tilesToExchange.get(i).charAt(0) == tile.getLetter()) {
+                    tilesToExchange.remove(i);
+                    break;
                 }
             }
-            currentPlayer.decrementActionCounter();
-            return true;
+        } else {
+            // Undo action was on the board
+            int row = log.getRow(entry);
+            int col = log.getCol(entry);
+
+            // revert gui tile
+            if (!isTest) {
+                view.getBoardPanel().getBoardButtons()[row][col].revertTile();
+            }
+            currentPlayer.getTilesPlayed().remove(gameBoard.getPosition(row, col));
         }
-        return false;
+        return true;
     }
 
     /**
-     * Handle Redo
+     * Handle Redo, moving the last tile taken back again
+     *
+     * @param currentPlayer the player whose turn it is
+     * @return true if a tile was moved
      */
     public boolean handleRedo(Player currentPlayer) {
-        if (currentPlayer.getActionsPerformed() != null && currentPlayer.getActionsPerformed().containsKey(currentPlayer.getActionCounter() + 1)) {
-
-            HashMap<Integer, HashMap<Tile, Boolean>> actionMap = currentPlayer.getActionsPerformed();
-            Tile tile = actionMap.get(currentPlayer.getActionCounter() + 1).keySet().iterator().next();
-            Boolean isExchange = actionMap.get(currentPlayer.getActionCounter() + 1).get(tile);
+        CommandLog log = currentPlayer.getCommandLog();
+        int entry = log.redo();
+        if (entry == -1) {
+            return false;
+        }
+        Tile tile = log.getTile(entry);
 
-            if (isExchange) {
-                // reconfigure gui if not a unit test
-                if (!isTest) {
-                    int index = -1;
-                    for (ScrabbleButton currentButton : view.getPlayerRackPanel().getExchangeButtons()) {
-                        if (currentButton.isEmpty()) {
-                            index = view.getPlayerRackPanel().getExchangeButtons().indexOf(currentButton);
-                            view.getPlayerRackPanel().getExchangeButtons().get(index).placeTile(tile, true);
-                            break;
-                        }
-                    }
-                    if (index != -1) {
-                        view.getPlayerRackPanel().getSelectedTilesForExchange().put(index, tile);
-                    }
-                }
-                // add tile to tiles to be exchanged this turn
-                currentPlayer.getTilesToExchange().add(String.valueOf(tile.getLetter()));
-            } else {
-                // Redo action was on the board
-                HashMap<Integer, Position> actionPosition = currentPlayer.getActionsPerformedPositions();
-                Position position = actionPosition.get(currentPlayer.getActionCounter() + 1);
-                if (position != null) {
-                    int row = position.getRow();
-                    int col = position.getCol();
-                    if (tile.isBlank()) {
-                        tile.setLetter(blankRedo.get(numBlanks));
-                        numBlanks--;
-                    }
-                    if (!isTest) {
-                        view.getBoardPanel().getBoardButtons()[row][col].placeTile(tile, false);
-                    }
-                    currentPlayer.getTilesPlayed().put(position, tile);
-                }
+        if (log.isExchange(entry)) {
+            int slot = log.getExchangeSlot(entry);
+            // reconfigure gui if not a unit test
+            if (!isTest) {
+                view.getPlayerRackPanel().getExchangeButtons().get(slot).placeTile(tile, true);
+                view.getPlayerRackPanel().getSelectedTilesForExchange().put(slot, tile);
+            }
+            // add tile to tiles to be exchanged this turn, named by the tile's shared string
+            currentPlayer.getTilesToExchange().add(tile.toString());
+        } else {
+            // Redo action was on the board
+            int row = log.getRow(entry);
+            int col = log.getCol(entry);
+            if (!isTest) {
+                view.getBoardPanel().getBoardButtons()[row][col].placeTile(tile, false);
             }
-            currentPlayer.incrementActionCounter();
-            return true;
+            currentPlayer.getTilesPlayed().put(gameBoard.getPosition(row, col), tile); // a blank's tile already holds its letter
+        }
+        return true;
+    }
+
+    /**
+     * Takes back every tile moved this turn, one at a time as handleUndo does
+     *
+     * @param currentPlayer the player whose turn it is
+     * @return the number of tiles taken back
+     */
+    public int handleUndoAll(Player currentPlayer) {
+        int undone = 0;
+        while (handleUndo(currentPlayer)) {
+            undone++;
         }
-        return false;
+        return undone;
     }
 
     /**
-     * method to reset the info regarding blank tiles played for undo redo
+     * Moves every tile taken back this turn again, one at a time as handleRedo does
+     *
+     * @param currentPlayer the player whose turn it is
+     * @return the number of tiles moved
      */
-    private void clearBlankRedo() {
-        blankRedo.clear();
-        numBlanks = 0;
+    public int handleRedoAll(Player currentPlayer) {
+        int redone = 0;
+        while (handleRedo(currentPlayer)) {
+            redone++;
+        }
+        return redone;
     }
 }
@@ -1,6 +1,8 @@
 import org.junit.Test;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.PrintWriter;
 import java.util.*;
 
 import static org.junit.Assert.*;
@@ -127,6 +129,91 @@ public class ScrabbleModelTest {
 
     }
 
+    @Test
+    /**
+     * Tests that plays are validated the same way with the Bloom filter in front of the word index
+     */
+    public void handlePlayWithWordFilter() {
+        ArrayList<Player> playerList = new ArrayList<Player>();
+        Player player1 = new Player("Andrew");
+        Player player2 = new Player("Nick");
+        playerList.add(player1);
+        playerList.add(player2);
+
+        ScrabbleModel game = new ScrabbleModel(playerList);
+        FilteredWordSet filter = game.useWordFilter(0.01);
+        Tile h = new Tile('H', 2, false);
+        Tile i = new Tile('I', 1, false);
+        Tile q = new Tile('Q', 10, false);
+        LinkedHashMap<Position, Tile> map = new LinkedHashMap<>();
+        //HQ is not a word, the board's own positions are used so the rejected tiles are taken back off it
+        map.put(game.getGameBoard().getPosition(7, 7), h);
+        map.put(game.getGameBoard().getPosition(7, 8), q);
+        game.getCurrentPlayer().setTilesPlayed(map);
+        assertFalse(game.handlePlay(game.getCurrentPlayer()));
+        //HI is
+        map.clear();
+        map.put(game.getGameBoard().getPosition(7, 7), h);
+        map.put(game.getGameBoard().getPosition(7, 8), i);
+        game.getCurrentPlayer().setTilesPlayed(map);
+        assertTrue(game.handlePlay(game.getCurrentPlayer()));
+        assertEquals(2, filter.getPassedCount() + filter.getRejectedCount());
+        assertTrue(filter.getPassedCount() >= 1);
+    }
+
+    @Test
+    /**
+     * Tests that each game checks plays against the word list it was created with
+     */
+    public void handlePlayWithChosenWordList() {
+        ArrayList<Player> playerList = new ArrayList<Player>();
+        playerList.add(new Player("Andrew"));
+        playerList.add(new Player("Nick"));
+
+        //QI is in the Collins list but not in the smaller list
+        ScrabbleModel small = new ScrabbleModel(playerList, "scrabblewords.txt");
+        LinkedHashMap<Position, Tile> map = new LinkedHashMap<>();
+        map.put(small.getGameBoard().getPosition(7, 7), new Tile('Q', 10, false));
+        map.put(small.getGameBoard().getPosition(7, 8), new Tile('I', 1, false));
+        small.getCurrentPlayer().setTilesPlayed(map);
+        assertFalse(small.handlePlay(small.getCurrentPlayer()));
+
+        ScrabbleModel collins = new ScrabbleModel(playerList, Dawg.DEFAULT_WORD_LIST);
+        map.clear();
+        map.put(collins.getGameBoard().getPosition(7, 7), new Tile('Q', 10, false));
+        map.put(collins.getGameBoard().getPosition(7, 8), new Tile('I', 1, false));
+        collins.getCurrentPlayer().setTilesPlayed(map);
+        assertTrue(collins.handlePlay(collins.getCurrentPlayer()));
+        assertFalse(small.getDictionary().sharesLexiconWith(collins.getDictionary()));
+        assertTrue(collins.getDictionary().sharesLexiconWith(new ScrabbleModel(playerList).getDictionary()));
+    }
+
+    @Test
+    /**
+     * Tests that a word extended by a play is replaced in the words in play
+     */
+    public void wordsInPlayExtended() {
+        ArrayList<Player> playerList = new ArrayList<Player>();
+        playerList.add(new Player("Andrew"));
+        playerList.add(new Player("Nick"));
+        ScrabbleModel game = new ScrabbleModel(playerList);
+
+        LinkedHashMap<Position, Tile> map = new LinkedHashMap<>();
+        map.put(game.getGameBoard().getPosition(7, 7), new Tile('H', 4, false));
+        map.put(game.getGameBoard().getPosition(7, 8), new Tile('I', 1, false));
+        game.getCurrentPlayer().setTilesPlayed(map);
+        assertTrue(game.handlePlay(game.getCurrentPlayer()));
+        assertEquals(Arrays.asList("HI"), game.getWordsInPlay());
+
+        //HIT replaces HI
+        map.clear();
+        map.put(game.getGameBoard().getPosition(7, 9), new Tile('T', 1, false));
+        game.getCurrentPlayer().setTilesPlayed(map);
+        assertTrue(game.handlePlay(game.getCurrentPlayer()));
+        assertEquals(Arrays.asList("HIT"), game.getWordsInPlay());
+        assertEquals(new ArrayList<>(game.getGameBoard().gatherWordsOnBoard().values()), game.getWordsInPlay());
+    }
+
     @Test
     /**
      * Tests that tile placement is accurate
@@ -525,39 +612,21 @@ public class ScrabbleModelTest {
         map.put(l8, s2);
         game.getCurrentPlayer().setTilesPlayed(map);
 
-        // create action maps for player
-        // create new action performed hashmap to store tile
-        HashMap<Tile, Boolean> actionPerformed;
-
+        // record the moves in the player's command log
         // Add the first action
-        actionPerformed = new HashMap<>();
-        actionPerformed.put(t1, false);
-        game.getCurrentPlayer().addActionPerformed(actionPerformed);
-        game.getCurrentPlayer().addActionPerformedPosition(h8);
+        game.getCurrentPlayer().recordPlacement(-1, t1, h8);
 
         // Add the second action
-        actionPerformed = new HashMap<>();
-        actionPerformed.put(e, false);
-        game.getCurrentPlayer().addActionPerformed(actionPerformed);
-        game.getCurrentPlayer().addActionPerformedPosition(i8);
+        game.getCurrentPlayer().recordPlacement(-1, e, i8);
 
         // Add the third action
-        actionPerformed = new HashMap<>();
-        actionPerformed.put(s, false);
-        game.getCurrentPlayer().addActionPerformed(actionPerformed);
-        game.getCurrentPlayer().addActionPerformedPosition(j8);
+        game.getCurrentPlayer().recordPlacement(-1, s, j8);
 
         // Add the fourth action
-        actionPerformed = new HashMap<>();
-        actionPerformed.put(t2, false);
-        game.getCurrentPlayer().addActionPerformed(actionPerformed);
-        game.getCurrentPlayer().addActionPerformedPosition(k8);
+        game.getCurrentPlayer().recordPlacement(-1, t2, k8);
 
         // Add the fifth action
-        actionPerformed = new HashMap<>();
-        actionPerformed.put(s2, false);
-        game.getCurrentPlayer().addActionPerformed(actionPerformed);
-        game.getCurrentPlayer().addActionPerformedPosition(l8);
+        game.getCurrentPlayer().recordPlacement(-1, s2, l8);
 
         // perform undos, checking that the players played tiles does not contain the undone tile
         assertTrue(game.getCurrentPlayer().getTilesPlayed().containsKey(l8));
@@ -605,33 +674,30 @@ public class ScrabbleModelTest {
         assertFalse(game.handleRedo(game.getCurrentPlayer()));
 
         // test blank tiles undo/redo
-        Tile blank = new Tile(' ', 0, true);
+        Tile blank = Tile.blank().designate('X');
         Position m8 = new Position(7, 12);
-        blank.setLetter('X');
         assertEquals(blank.getLetter(), 'X');
+        assertTrue(blank.isBlank());
 
         // clear old action list
         game.getCurrentPlayer().clearTilesPlayed();
         game.getCurrentPlayer().clearActionsPerformed();
-        actionPerformed = new HashMap<>();
         map.clear();
 
         // add blank tile to played tiles and actions performed
         map.put(m8, blank);
         game.getCurrentPlayer().setTilesPlayed(map);
-        actionPerformed.put(blank, false);
-        game.getCurrentPlayer().addActionPerformed(actionPerformed);
-        game.getCurrentPlayer().addActionPerformedPosition(m8);
+        game.getCurrentPlayer().recordPlacement(-1, blank, m8);
 
-        // undo should revert its text to ' '
+        // undo should take it off the board, leaving the blank itself unchanged
         game.handleUndo(game.getCurrentPlayer());
         assertFalse(game.getCurrentPlayer().tilesPlayed.containsKey(m8));
-        assertEquals(blank.getLetter(), ' ');
+        assertEquals(Tile.blank().getLetter(), ' ');
 
         // redo should add it back with the previous letter (X in this case)
         game.handleRedo(game.getCurrentPlayer());
         assertTrue(game.getCurrentPlayer().tilesPlayed.containsKey(m8));
-        assertEquals(blank.getLetter(), 'X');
+        assertEquals(game.getCurrentPlayer().tilesPlayed.get(m8).getLetter(), 'X');
 
         // Test undo redo for exchange
         // clear old action list
@@ -645,13 +711,8 @@ public class ScrabbleModelTest {
         //Set tiles to exchange and adds it to actions performed
         game.getCurrentPlayer().setTilesToExchange(toExchange);
 
-        actionPerformed = new HashMap<>();
-        actionPerformed.put(t1, true);
-        game.getCurrentPlayer().addActionPerformed(actionPerformed);
-
-        actionPerformed = new HashMap<>();
-        actionPerformed.put(e, true);
-        game.getCurrentPlayer().addActionPerformed(actionPerformed);
+        game.getCurrentPlayer().recordExchange(0, t1, 0);
+        game.getCurrentPlayer().recordExchange(1, e, 1);
 
         // test undo
         game.handleUndo(game.getCurrentPlayer());
@@ -671,5 +732,150 @@ public class ScrabbleModelTest {
         assertTrue(game.getCurrentPlayer().getTilesToExchange().contains(String.valueOf(e.getLetter())));
         assertTrue(game.getCurrentPlayer().getTilesToExchange().contains(String.valueOf(t1.getLetter())));
     }
-}
 
+    @Test
+    /**
+     * Tests that undoing and redoing every move of a turn changes the tiles played and the board as single steps do
+     */
+    public void undoAndRedoAll() {
+        ArrayList<Player> playerList = new ArrayList<>();
+        playerList.add(new Player("Andrew"));
+        playerList.add(new Player("Nick"));
+        ScrabbleModel game = new ScrabbleModel(playerList);
+        Player player = game.getCurrentPlayer();
+        Position h8 = new Position(7, 7);
+        Position i8 = new Position(7, 8);
+        Position j8 = new Position(7, 9);
+        player.getTilesPlayed().put(h8, Tile.of('H'));
+        player.recordPlacement(-1, Tile.of('H'), h8);
+        player.getTilesPlayed().put(i8, Tile.of('I'));
+        player.recordPlacement(-1, Tile.of('I'), i8);
+        player.getTilesPlayed().put(j8, Tile.blank().designate('T'));
+        player.recordPlacement(-1, Tile.blank().designate('T'), j8);
+
+        assertEquals(3, game.handleUndoAll(player));
+        assertTrue(player.getTilesPlayed().isEmpty());
+        assertEquals(0, game.handleUndoAll(player));
+        assertFalse(game.handlePlay(player));
+
+        assertEquals(3, game.handleRedoAll(player));
+        assertEquals(Arrays.asList(h8, i8, j8), new ArrayList<>(player.getTilesPlayed().keySet()));
+        assertEquals(0, player.getCommandLog().getUndoneCount());
+        assertTrue(game.handlePlay(player));
+        assertEquals('H', game.getGameBoard().getLetter(7, 7));
+        assertEquals('I', game.getGameBoard().getLetter(7, 8));
+        assertEquals('T', game.getGameBoard().getLetter(7, 9));
+        assertTrue(game.getGameBoard().isBlank(7, 9));
+    }
+
+    @Test
+    /**
+     * Tests that the command log keeps the latest moves in a ring, and that a new move drops the undone ones
+     */
+    public void commandLogRing() {
+        CommandLog log = new CommandLog(3);
+        for (int col = 0; col < 5; col++) {
+            log.recordPlacement(col, 7, col, Tile.of('A'));
+        }
+        // only the last three moves are kept
+        assertEquals(3, log.getDoneCount());
+        assertEquals(4, log.getCol(log.undo()));
+        assertEquals(3, log.getCol(log.undo()));
+        assertEquals(2, log.getRackSlot(log.undo()));
+        assertEquals(-1, log.undo());
+        assertEquals(2, log.getCol(log.redo()));
+
+        // a new move can no longer redo the moves undone
+        log.recordExchange(6, 0, Tile.blank());
+        assertEquals(0, log.getUndoneCount());
+        assertEquals(-1, log.redo());
+        int exchange = log.peekUndo();
+        assertTrue(log.isExchange(exchange));
+        assertEquals(0, log.getExchangeSlot(exchange));
+        assertTrue(log.getTile(exchange).isBlank());
+
+        log.undo();
+        assertEquals(1, log.getUndoneCount());
+        assertEquals(exchange, log.peekRedo());
+        log.clear();
+        assertEquals(-1, log.undo());
+    }
+
+    @Test
+    /**
+     * Tests that a game can be played on a 21x21 board loaded from XML
+     */
+    public void superBoardGame() throws IOException {
+        File xml = File.createTempFile("super", ".xml");
+        xml.deleteOnExit();
+        try (PrintWriter out = new PrintWriter(xml)) {
+            out.println("<board><size>21</size>");
+            out.println("<square><pos>11K</pos><type>3</type></square>");
+            out.println("</board>");
+        }
+        ArrayList<Player> playerList = new ArrayList<>();
+        playerList.add(new Player("Andrew"));
+        playerList.add(new Player("Nick"));
+        ScrabbleModel game = new ScrabbleModel(playerList, Dawg.DEFAULT_WORD_LIST, new Board(xml.getPath()));
+        assertEquals(21, game.getGameBoard().getSize());
+
+        //the first word must cover the center of the larger board, K11
+        LinkedHashMap<Position, Tile> map = new LinkedHashMap<>();
+        map.put(new Position(7, 7), Tile.of('H'));
+        map.put(new Position(7, 8), Tile.of('I'));
+        game.getCurrentPlayer().setTilesPlayed(map);
+        assertFalse(game.handlePlay(game.getCurrentPlayer()));
+
+        map = new LinkedHashMap<>();
+        map.put(new Position(10, 10), Tile.of('H'));
+        map.put(new Position(10, 11), Tile.of('I'));
+        game.getCurrentPlayer().setTilesPlayed(map);
+        assertTrue(game.handlePlay(game.getCurrentPlayer()));
+        assertEquals('H', game.getGameBoard().getLetter(10, 10));
+        assertEquals((4 + 1) * 2, playerList.get(0).getScore());
+    }
+
+    @Test
+    /**
+     * Tests that a game saved on a patched version of a word list loads with that version after it was dropped
+     */
+    public void saveAndLoadPatchedWordList() throws IOException, ClassNotFoundException {
+        File wordList = File.createTempFile("words", ".txt");
+        File save = File.createTempFile("game", ".sav");
+        LexiconRegistry registry = LexiconRegistry.getShared();
+        try {
+            try (PrintWriter out = new PrintWriter(wordList)) {
+                out.println("HI");
+                out.println("HIT");
+            }
+            String listName = wordList.getName();
+            registry.publish(listName, wordList.getPath());
+            String version = registry.publishUpdate(listName, new LexiconPatch(Arrays.asList("QI"), new ArrayList<>()));
+
+            ArrayList<Player> playerList = new ArrayList<>();
+            playerList.add(new Player("Andrew"));
+            playerList.add(new Player("Nick"));
+            ScrabbleModel game = new ScrabbleModel(playerList, listName);
+            assertTrue(game.getDictionary().contains("QI"));
+            game.saveGame(save.getPath());
+
+            //a newer version replaces it, and once the game is over the version is dropped as after a restart
+            registry.publishUpdate(listName, new LexiconPatch(Arrays.asList("ZA"), new ArrayList<>()));
+            game.getDictionary().close();
+            registry.setIdleMillis(0);
+            registry.evictIdle();
+            registry.evictIdle();
+            assertNull(registry.getPatch(version));
+
+            ScrabbleModel loaded = new ScrabbleModel(new ArrayList<>(playerList), listName);
+            loaded.loadGame(save.getPath());
+            assertEquals(version, loaded.getDictionary().getWordListFile());
+            assertTrue(loaded.getDictionary().contains("QI"));
+            assertFalse(loaded.getDictionary().contains("ZA"));
+        } finally {
+            registry.setIdleMillis(LexiconRegistry.DEFAULT_IDLE_MILLIS);
+            wordList.delete();
+            save.delete();
+        }
+    }
+}
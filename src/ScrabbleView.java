@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
 import java.io.File;
 
 /**
@@ -28,9 +29,19 @@ public class ScrabbleView extends JFrame implements Serializable {
 
 
     /**
-     * Constructor for class ScrabbleView
+     * Constructor for class ScrabbleView, which loads the dictionary while the setup dialogs are open
      */
     public ScrabbleView() {
+        this(LexiconRegistry.getShared().acquireListAsync(Dawg.DEFAULT_WORD_LIST), new StartupTimer());
+    }
+
+    /**
+     * Constructor for class ScrabbleView with the default dictionary already loading
+     *
+     * @param defaultDictionary the default dictionary, completed once it is loaded
+     * @param startup           the timer started when the program was launched
+     */
+    public ScrabbleView(CompletableFuture<LexiconRegistry.Handle> defaultDictionary, StartupTimer startup) {
         // partially set up frame
         frame = new JFrame("Not Scrabble"); // create JFrame with title of main window
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -41,12 +52,20 @@ public class ScrabbleView extends JFrame implements Serializable {
         int numPlayers = playerAndAI[0];
         int numAI = playerAndAI[1];
 
+        // the default word list has been loading since launch, any other list starts loading now
+        String wordList = askForWordList();
+        CompletableFuture<LexiconRegistry.Handle> dictionary = defaultDictionary;
+        if (!wordList.equals(Dawg.DEFAULT_WORD_LIST)) {
+            defaultDictionary.thenAccept(LexiconRegistry.Handle::close);
+            dictionary = LexiconRegistry.getShared().acquireListAsync(wordList);
+        }
+        dictionary.thenRun(startup::dictionaryLoaded);
 
-        // initialize game with specified number of players
-        this.game = new ScrabbleModel(numPlayers, this, numAI);
-
-        askForXML();
+        // the board is chosen first, as a custom board may not be the standard size
+        Board board = askForXML();
 
+        // initialize game with specified number of players
+        this.game = new ScrabbleModel(numPlayers, this, numAI, dictionary, board);
 
         // initialize player rack, score, and board panels and timer
         playerRackPanel = new PlayerRackPanel(game.getCurrentPlayer().getRack(), this);
@@ -138,6 +157,13 @@ public class ScrabbleView extends JFrame implements Serializable {
         frame.add(playerRackPanel, BorderLayout.SOUTH);
         frame.add(boardPanel, BorderLayout.CENTER);
         frame.setVisible(true);
+
+        // the first turn can be played once the frame is up and the dictionary has loaded
+        startup.frameShown();
+        dictionary.thenRun(() -> {
+            startup.firstTurnPlayable();
+            System.out.println(startup);
+        });
     }
 
     /**
@@ -290,11 +316,8 @@ public class ScrabbleView extends JFrame implements Serializable {
             if (game.handleUndo(game.getCurrentPlayer())) {
 
                 // Re-enable the corresponding button on the player's rack
-                HashMap<Integer, JButton> rackButtonActions = playerRackPanel.getActionsPerformed();
-                JButton buttonToEnable = rackButtonActions.get(playerRackPanel.getActionCounter());
-                buttonToEnable.setEnabled(true);
-
-                playerRackPanel.decrementActionCounter();
+                CommandLog log = game.getCurrentPlayer().getCommandLog();
+                playerRackPanel.setSlotEnabled(log.getRackSlot(log.peekRedo()), true);
             }
         }
     }
@@ -308,11 +331,8 @@ public class ScrabbleView extends JFrame implements Serializable {
             if (game.handleRedo(game.getCurrentPlayer())) {
 
                 // Re-disable the corresponding button on the player's rack
-                HashMap<Integer, JButton> rackButtonActions = playerRackPanel.getActionsPerformed();
-                JButton buttonToDisable = rackButtonActions.get(playerRackPanel.getActionCounter() + 1);
-                buttonToDisable.setEnabled(false);
-
-                playerRackPanel.incrementActionCounter();
+                CommandLog log = game.getCurrentPlayer().getCommandLog();
+                playerRackPanel.setSlotEnabled(log.getRackSlot(log.peekUndo()), false);
             }
         }
     }
@@ -430,6 +450,13 @@ public class ScrabbleView extends JFrame implements Serializable {
      * Updates the GUI from a load.
      */
     public void updateFromLoad() {
+        // a saved game may be on a board of another size, which needs a new set of buttons
+        if (boardPanel.getBoardButtons().length != game.getGameBoard().getSize()) {
+            frame.remove(boardPanel);
+            boardPanel = new ScrabbleBoardPanel(playerRackPanel, this);
+            frame.add(boardPanel, BorderLayout.CENTER);
+            frame.revalidate();
+        }
         boardPanel.updateBoard();
         updatePlayerScoreLabel();
         updateViewForCurrentPlayer();
@@ -528,7 +555,28 @@ public class ScrabbleView extends JFrame implements Serializable {
         return new int[]{numPlayers, numAI};
     }
 
-    private void askForXML() {
+    /**
+     * Asks which word list the game should use
+     *
+     * @return the name of the chosen word list
+     */
+    private String askForWordList() {
+        String wordList = (String) JOptionPane.showInputDialog(frame, "Select the word list:", "Select Word List",
+                JOptionPane.QUESTION_MESSAGE, null, Dawg.WORD_LISTS, Dawg.DEFAULT_WORD_LIST);
+
+        // Exit if the user cancels
+        if (wordList == null) {
+            System.exit(0);
+        }
+        return wordList;
+    }
+
+    /**
+     * Asks if the game should be played on a custom board, and reads its layout from the board XML file chosen
+     *
+     * @return the board to play on, the standard board if none was chosen or the file could not be used
+     */
+    private Board askForXML() {
         int ask = JOptionPane.showConfirmDialog(frame, "Use a custom board?");
 
         if (ask == JOptionPane.YES_OPTION) {
@@ -544,9 +592,14 @@ public class ScrabbleView extends JFrame implements Serializable {
 
                 String filePath = selectedFile.getAbsolutePath();
 
-                game.getGameBoard().importCustomBoardXML(filePath); // Pass the file path to the save method
+                try {
+                    return new Board(filePath); // the board is the size the file gives
+                } catch (IllegalArgumentException e) {
+                    JOptionPane.showMessageDialog(frame, e.getMessage() + ", using the standard board");
+                }
             }
         }
+        return new Board();
     }
 
     /**
@@ -555,6 +608,10 @@ public class ScrabbleView extends JFrame implements Serializable {
      * @param args none
      */
     public static void main(String[] args) {
-        new ScrabbleView();
+        StartupTimer startup = new StartupTimer();
+        // start loading the dictionary straight away, so it loads while the player fills in the setup dialogs
+        CompletableFuture<LexiconRegistry.Handle> dictionary =
+                LexiconRegistry.getShared().acquireListAsync(Dawg.DEFAULT_WORD_LIST);
+        new ScrabbleView(dictionary, startup);
     }
 }
@@ -0,0 +1,84 @@
+/**
+ * Class StartupTimer measures how long it takes from launching the game until the first turn can be played.
+ * It records when the dictionary finished loading and when the game frame was shown; the first turn is
+ * playable once both have happened. Times are in milliseconds from when the timer was created.
+ *
+ * @version 1
+ */
+public class StartupTimer {
+    private final long start = System.nanoTime();
+    private volatile long dictionaryLoaded = -1;
+    private volatile long frameShown = -1;
+    private volatile long firstTurnPlayable = -1;
+
+    /**
+     * Records that the dictionary has finished loading
+     */
+    public void dictionaryLoaded() {
+        dictionaryLoaded = elapsedMillis();
+    }
+
+    /**
+     * Records that the game frame has been shown
+     */
+    public void frameShown() {
+        frameShown = elapsedMillis();
+    }
+
+    /**
+     * Records that the first turn can be played
+     */
+    public void firstTurnPlayable() {
+        firstTurnPlayable = elapsedMillis();
+    }
+
+    /**
+     * Getter for the time the dictionary finished loading
+     *
+     * @return milliseconds since launch, or -1 if it has not loaded yet
+     */
+    public long getDictionaryLoadedMillis() {
+        return dictionaryLoaded;
+    }
+
+    /**
+     * Getter for the time the game frame was shown
+     *
+     * @return milliseconds since launch, or -1 if it has not been shown yet
+     */
+    public long getFrameShownMillis() {
+        return frameShown;
+    }
+
+    /**
+     * Getter for the time until the first turn could be played
+     *
+     * @return milliseconds since launch, or -1 if the first turn is not playable yet
+     */
+    public long getFirstTurnPlayableMillis() {
+        return firstTurnPlayable;
+    }
+
+    /**
+     * Works out how long the player waited for the dictionary after the frame was shown
+     *
+     * @return milliseconds waited, 0 if the dictionary had loaded during the setup dialogs
+     */
+    public long getDictionaryWaitMillis() {
+        if (firstTurnPlayable < 0 || frameShown < 0) {
+            return -1;
+        }
+        return Math.max(0, firstTurnPlayable - frameShown);
+    }
+
+    private long elapsedMillis() {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    @Override
+    public String toString() {
+        return "Startup: dictionary loaded at " + dictionaryLoaded + " ms, frame shown at " + frameShown
+                + " ms, first turn playable at " + firstTurnPlayable + " ms (waited "
+                + getDictionaryWaitMillis() + " ms for the dictionary)";
+    }
+}
@@ -1,20 +1,38 @@
 import java.io.Serializable;
 
 /**
- * Class Tile represents the Tiles in a game of Scrabble
- * @version 1
+ * Class Tile represents the Tiles in a game of Scrabble. Tiles cannot be changed, so one tile of each kind
+ * is shared by every bag, rack and board: {@link #of(char)} gives the tile for a letter and {@link #blank()}
+ * the blank. A blank played as a letter is the tile given by {@link #designate(char)}, which is what the
+ * play records, while the blank on the rack stays as it was.
+ * @version 2
  */
-public class Tile implements Serializable {
-    private char letter; // the letter on the tile
-    private int pointValue; // how much the tile is worth
-    private boolean isBlank; // true if tile is a blank tile, false otherwise
+public final class Tile implements Serializable {
+    private static final Tile[] LETTERS = new Tile[26];
+    private static final Tile[] BLANKS = new Tile[27]; // blanks standing for A to Z, then the blank not yet played
+    private static final String[] NAMES = new String[26]; // the letters as strings, so naming a tile makes none
+
+    static {
+        for (int i = 0; i < 26; i++) {
+            char letter = (char) ('A' + i);
+            LETTERS[i] = new Tile(letter, LetterPointValues.getPointValue(letter), false);
+            BLANKS[i] = new Tile(letter, 0, true);
+            NAMES[i] = String.valueOf(letter);
+        }
+        BLANKS[26] = new Tile(' ', 0, true);
+    }
+
+    private final char letter; // the letter on the tile, or the letter a blank stands for
+    private final int pointValue; // how much the tile is worth
+    private final boolean isBlank; // true if tile is a blank tile, false otherwise
 
     /**
-     * Creates a new tile with the specified letter and point value
+     * Creates a new tile with the specified letter and point value. Games use the shared tiles from
+     * of() and blank(); this is for tiles with other point values.
      *
      * @param letter     the letter for the tile
      * @param pointValue the letter's corresponding point value
-     * @param isBlank
+     * @param isBlank    true for a blank tile
      */
     public Tile(char letter, int pointValue, boolean isBlank) {
         this.letter = letter;
@@ -22,6 +40,46 @@ public class Tile implements Serializable {
         this.isBlank = isBlank;
     }
 
+    /**
+     * Gets the tile for a letter
+     * @param letter the letter, A to Z in either case, or a space for the blank
+     * @return the shared tile
+     */
+    public static Tile of(char letter) {
+        int index = Lexicon.letterIndex(letter);
+        if (index < 0) {
+            if (letter == ' ') {
+                return blank();
+            }
+            throw new IllegalArgumentException("No tile for '" + letter + "'");
+        }
+        return LETTERS[index];
+    }
+
+    /**
+     * Gets the blank tile, before it is played as a letter
+     * @return the shared blank
+     */
+    public static Tile blank() {
+        return BLANKS[26];
+    }
+
+    /**
+     * Gets the tile a blank becomes when played as a letter
+     * @param letter the letter the blank stands for, A to Z in either case
+     * @return the shared blank standing for the letter, worth no points
+     */
+    public Tile designate(char letter) {
+        if (!isBlank) {
+            throw new IllegalStateException("Only a blank can stand for another letter");
+        }
+        int index = Lexicon.letterIndex(letter);
+        if (index < 0) {
+            throw new IllegalArgumentException("A blank cannot stand for '" + letter + "'");
+        }
+        return BLANKS[index];
+    }
+
     /**
      * Getter to return the letter on the tile
      * @return the tiles letter
@@ -37,27 +95,44 @@ public class Tile implements Serializable {
     public int getPointValue(){return pointValue;}
 
     /**
-     * Sets the letter of the Tile
-     * @param newLetter the letter the tile will take
+     * Getter to return if a tile is a blank tile or not
+     * @return true if tile is blank tile, false otherwise
      */
-    public void setLetter(char newLetter){
-        this.letter = newLetter;
+    public boolean isBlank() {
+        return isBlank;
     }
 
     /**
-     * Set the point value of a tile
-     * @param pointValue the pointValue a tile will take
+     * Replaces a tile read from a saved game by the shared tile of its kind
+     * @return the shared tile, or this tile if its point value is not the usual one
      */
-    public void setPointValue(int pointValue) {
-        this.pointValue = pointValue;
+    private Object readResolve() {
+        Tile shared;
+        if (isBlank) {
+            shared = (letter == ' ') ? blank() : blank().designate(letter);
+        } else if (Lexicon.letterIndex(letter) >= 0) {
+            shared = of(letter);
+        } else {
+            return this;
+        }
+        return equals(shared) ? shared : this;
     }
 
-    /**
-     * Getter to return if a tile is a blank tile or not
-     * @return true if tile is blank tile, false otherwise
-     */
-    public boolean isBlank() {
-        return isBlank;
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Tile)) {
+            return false;
+        }
+        Tile other = (Tile) obj;
+        return letter == other.letter && pointValue == other.pointValue && isBlank == other.isBlank;
+    }
+
+    @Override
+    public int hashCode() {
+        return (letter * 31 + pointValue) * 2 + (isBlank ? 1 : 0);
     }
 
     /**
@@ -66,6 +141,7 @@ public class Tile implements Serializable {
      */
     @Override
     public String toString() {
-        return String.valueOf(letter);
+        int index = Lexicon.letterIndex(letter);
+        return (index >= 0) ? NAMES[index] : String.valueOf(letter);
     }
 }
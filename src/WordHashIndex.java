@@ -0,0 +1,306 @@
+import java.util.Arrays;
+
+/**
+ * Class WordHashIndex is a set of words for validating plays, answering only whether an exact word is legal.
+ * A minimal perfect hash sends every word in the set to its own slot of a table exactly as long as the set,
+ * and the slot holds the word packed five bits per letter, so a lookup is checked exactly against it
+ * rather than trusting the hash.
+ * A lookup packs the word, reads one displacement and one or two packed keys, and allocates nothing.
+ * <p>
+ * The hash is built with hash and displace: words are grouped into buckets by one hash, then each bucket,
+ * largest first, is given the first displacement that sends all its words to free slots. A bucket of one
+ * word stores its slot directly.
+ *
+ * @version 1
+ */
+public class WordHashIndex implements WordSet {
+    public static final int MAX_WORD_LENGTH = 24; // letters that fit in the two packed keys of a slot
+    private static final int LETTERS_PER_KEY = 12;
+    private static final int BUCKET_SIZE = 3; // average words per bucket, larger buckets make a smaller table that is slower to build
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+    private final long[] heads; // first 12 letters of the word in each slot
+    private final long[] tails; // letters 13 to 24, or null if no word is that long
+    private final int[] displacements; // per bucket: 0 if empty, the hash seed, or -(slot + 1) for one word
+
+    /**
+     * Constructor for class WordHashIndex
+     *
+     * @param words the words to index; repeats, words with other characters than letters and words longer
+     *              than MAX_WORD_LENGTH are left out
+     */
+    public WordHashIndex(Iterable<String> words) {
+        long[] wordHeads = new long[1024];
+        long[] wordTails = new long[1024];
+        int count = 0;
+        boolean needsTails = false;
+        for (String word : words) {
+            long head = pack(word, 0);
+            long tail = pack(word, LETTERS_PER_KEY);
+            if (word.isEmpty() || word.length() > MAX_WORD_LENGTH || head < 0 || tail < 0) {
+                continue;
+            }
+            if (count == wordHeads.length) {
+                wordHeads = Arrays.copyOf(wordHeads, count * 2);
+                wordTails = Arrays.copyOf(wordTails, count * 2);
+            }
+            wordHeads[count] = head;
+            wordTails[count] = tail;
+            needsTails |= tail != 0;
+            count++;
+        }
+
+        // sort the words by bucket, dropping repeats, which always share a bucket
+        int buckets = Math.max(1, count / BUCKET_SIZE);
+        long[] hashes = new long[count];
+        int[] bucketStart = new int[buckets + 1];
+        for (int i = 0; i < count; i++) {
+            hashes[i] = hash(wordHeads[i], wordTails[i]);
+            bucketStart[reduce(hashes[i], buckets) + 1]++;
+        }
+        for (int b = 0; b < buckets; b++) {
+            bucketStart[b + 1] += bucketStart[b];
+        }
+        int[] byBucket = new int[count];
+        int[] bucketSize = new int[buckets];
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            int b = reduce(hashes[i], buckets);
+            if (!inBucket(byBucket, bucketStart[b], bucketSize[b], wordHeads, wordTails, i)) {
+                byBucket[bucketStart[b] + bucketSize[b]++] = i;
+                unique++;
+            }
+        }
+
+        heads = new long[unique];
+        tails = needsTails ? new long[unique] : null;
+        displacements = new int[buckets];
+        if (unique > 0) {
+            build(wordHeads, wordTails, hashes, byBucket, bucketStart, bucketSize);
+        }
+    }
+
+    /**
+     * Checks if a word is already in a bucket
+     *
+     * @param byBucket    the words sorted by bucket
+     * @param start       the index in byBucket of the bucket's first word
+     * @param size        the number of words in the bucket so far
+     * @param wordHeads   the packed first keys of the words
+     * @param wordTails   the packed second keys of the words
+     * @param word        the word to look for
+     * @return true if the bucket holds a word with the same letters
+     */
+    private static boolean inBucket(int[] byBucket, int start, int size, long[] wordHeads, long[] wordTails, int word) {
+        for (int i = start; i < start + size; i++) {
+            if (wordHeads[byBucket[i]] == wordHeads[word] && wordTails[byBucket[i]] == wordTails[word]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Assigns every word a slot, bucket by bucket from the largest bucket down
+     *
+     * @param wordHeads   the packed first keys of the words
+     * @param wordTails   the packed second keys of the words
+     * @param hashes      the hash of every word
+     * @param byBucket    the words sorted by bucket
+     * @param bucketStart the index in byBucket of each bucket's first word
+     * @param bucketSize  the number of words in each bucket
+     */
+    private void build(long[] wordHeads, long[] wordTails, long[] hashes, int[] byBucket,
+                       int[] bucketStart, int[] bucketSize) {
+        int buckets = displacements.length;
+        int largest = 0;
+        for (int size : bucketSize) {
+            largest = Math.max(largest, size);
+        }
+        int[] bucketsBySize = new int[buckets];
+        int[] sizeStart = new int[largest + 2];
+        for (int b = 0; b < buckets; b++) {
+            sizeStart[largest - bucketSize[b] + 1]++;
+        }
+        for (int s = 0; s <= largest; s++) {
+            sizeStart[s + 1] += sizeStart[s];
+        }
+        for (int b = 0; b < buckets; b++) {
+            bucketsBySize[sizeStart[largest - bucketSize[b]]++] = b;
+        }
+
+        boolean[] used = new boolean[heads.length];
+        int[] slots = new int[largest];
+        int nextFree = 0;
+        for (int bucket : bucketsBySize) {
+            int start = bucketStart[bucket];
+            int count = bucketSize[bucket];
+            if (count == 0) {
+                break; // the rest are empty too
+            }
+            if (count == 1) {
+                while (used[nextFree]) {
+                    nextFree++;
+                }
+                place(byBucket[start], nextFree, wordHeads, wordTails, used);
+                displacements[bucket] = -(nextFree + 1);
+                continue;
+            }
+            for (int seed = 1; ; seed++) {
+                if (fits(byBucket, start, count, seed, hashes, used, slots)) {
+                    for (int i = 0; i < count; i++) {
+                        place(byBucket[start + i], slots[i], wordHeads, wordTails, used);
+                    }
+                    displacements[bucket] = seed;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks if a displacement sends every word of a bucket to a different free slot
+     *
+     * @param byBucket the words sorted by bucket
+     * @param start    the index in byBucket of the bucket's first word
+     * @param count    the number of words in the bucket
+     * @param seed     the displacement to try
+     * @param hashes   the hash of every word
+     * @param used     which slots are taken
+     * @param slots    receives the slot of each word in the bucket
+     * @return true if the bucket fits
+     */
+    private boolean fits(int[] byBucket, int start, int count, int seed, long[] hashes, boolean[] used, int[] slots) {
+        for (int i = 0; i < count; i++) {
+            int slot = slotFor(hashes[byBucket[start + i]], seed);
+            if (used[slot]) {
+                return false;
+            }
+            for (int j = 0; j < i; j++) {
+                if (slots[j] == slot) {
+                    return false;
+                }
+            }
+            slots[i] = slot;
+        }
+        return true;
+    }
+
+    /**
+     * Stores a word's keys in a slot
+     *
+     * @param word      the index of the word
+     * @param slot      the slot to store it in
+     * @param wordHeads the packed first keys of the words
+     * @param wordTails the packed second keys of the words
+     * @param used      which slots are taken
+     */
+    private void place(int word, int slot, long[] wordHeads, long[] wordTails, boolean[] used) {
+        heads[slot] = wordHeads[word];
+        if (tails != null) {
+            tails[slot] = wordTails[word];
+        }
+        used[slot] = true;
+    }
+
+    @Override
+    public boolean contains(CharSequence word) {
+        int length = word.length();
+        if (length == 0 || length > MAX_WORD_LENGTH || heads.length == 0) {
+            return false;
+        }
+        long head = pack(word, 0);
+        long tail = pack(word, LETTERS_PER_KEY);
+        if (head < 0 || tail < 0) {
+            return false;
+        }
+        long hash = hash(head, tail);
+        int displacement = displacements[reduce(hash, displacements.length)];
+        if (displacement == 0) {
+            return false;
+        }
+        int slot = (displacement < 0) ? -displacement - 1 : slotFor(hash, displacement);
+        return heads[slot] == head && (tails == null ? tail == 0 : tails[slot] == tail);
+    }
+
+    @Override
+    public int size() {
+        return heads.length;
+    }
+
+    /**
+     * Getter for the memory used by the index
+     *
+     * @return the footprint in bytes
+     */
+    public long getFootprintBytes() {
+        long bytes = (long) heads.length * Long.BYTES + (long) displacements.length * Integer.BYTES;
+        return (tails == null) ? bytes : bytes + (long) tails.length * Long.BYTES;
+    }
+
+    /**
+     * Packs up to 12 letters of a word, five bits each. Letters are stored as 1 to 26, so the first
+     * zero marks the end of the word and words of different lengths never pack the same.
+     *
+     * @param word  the word
+     * @param start the index of the first letter to pack
+     * @return the packed letters, 0 if the word has no letters from start, or -1 if one is not a letter
+     */
+    private static long pack(CharSequence word, int start) {
+        int end = Math.min(word.length(), start + LETTERS_PER_KEY);
+        long key = 0;
+        for (int i = start; i < end; i++) {
+            int letter = Lexicon.letterIndex(word.charAt(i));
+            if (letter < 0) {
+                return -1;
+            }
+            key |= (long) (letter + 1) << (5 * (i - start));
+        }
+        return key;
+    }
+
+    /**
+     * Hashes a word's packed keys
+     *
+     * @param head the packed first 12 letters
+     * @param tail the packed letters after those
+     * @return the hash
+     */
+    private static long hash(long head, long tail) {
+        return mix(head ^ (tail * GOLDEN));
+    }
+
+    /**
+     * Finds the slot a displacement sends a hash to
+     *
+     * @param hash the word's hash
+     * @param seed the displacement
+     * @return the slot
+     */
+    private int slotFor(long hash, int seed) {
+        return reduce(mix(hash + seed * GOLDEN), heads.length);
+    }
+
+    /**
+     * Mixes the bits of a value so every input bit affects every output bit (the MurmurHash3 finalizer)
+     *
+     * @param value the value to mix
+     * @return the mixed value
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return value ^ (value >>> 33);
+    }
+
+    /**
+     * Maps a hash onto 0 to range - 1 with a multiply rather than a division
+     *
+     * @param hash  the hash
+     * @param range the number of values
+     * @return the reduced value
+     */
+    private static int reduce(long hash, int range) {
+        return (int) (((hash >>> 32) * range) >>> 32);
+    }
+}
@@ -0,0 +1,26 @@
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Interface WordList is a lexicon whose words can be listed and searched, as building indexes over a list
+ * and running pattern queries need. Words are given in lower case and alphabetical order.
+ *
+ * @version 1
+ */
+public interface WordList extends Lexicon {
+
+    /**
+     * Performs an action for every word, in alphabetical order
+     *
+     * @param action the action to perform on each word, given in lower case
+     */
+    void forEachWord(Consumer<String> action);
+
+    /**
+     * Runs a pattern query over the words
+     *
+     * @param query the query
+     * @return the matching words, produced lazily in lower case and alphabetical order
+     */
+    Iterator<String> query(WordQuery query);
+}
@@ -0,0 +1,380 @@
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Class WordQuery finds the words of a lexicon that match a pattern and a set of letter constraints.
+ * In a pattern {@code ?} stands for any one letter and {@code *} for any number of letters, so {@code C?T},
+ * {@code *ING} and {@code ?A??} are all patterns. A query may also bound the word length, require letters
+ * ("contains Q"), forbid letters ("without U"), and limit words to those a rack of letters and blanks can make.
+ * <p>
+ * A query walks the DAWG rather than testing every word: it follows an arc only while the pattern and the
+ * constraints can still be met, so whole branches of the lexicon are skipped. Words are produced lazily in
+ * alphabetical order, and the walk stops once the limit is reached.
+ *
+ * @version 1
+ */
+public class WordQuery {
+    public static final char ANY_LETTER = '?';
+    public static final char ANY_LETTERS = '*';
+    private static final int MAX_PATTERN_LENGTH = 63; // pattern positions and the accepting state fit in a long
+
+    private final String pattern;
+    private final long[] letterSteps = new long[26]; // pattern positions each letter can match
+    private long starPositions; // pattern positions holding *
+    private int fixedLetters; // pattern positions that match exactly one letter
+    private int minLength = 1;
+    private int maxLength = Integer.MAX_VALUE;
+    private final int[] required = new int[26];
+    private final boolean[] excluded = new boolean[26];
+    private int[] rack; // null if words may use any letters
+    private int blanks;
+    private int limit = Integer.MAX_VALUE;
+
+    /**
+     * Constructor for class WordQuery
+     *
+     * @param pattern the pattern words must match, made of letters, ? and *
+     */
+    public WordQuery(String pattern) {
+        if (pattern.length() > MAX_PATTERN_LENGTH) {
+            throw new IllegalArgumentException("Pattern is longer than " + MAX_PATTERN_LENGTH + " characters");
+        }
+        this.pattern = pattern;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == ANY_LETTERS) {
+                starPositions |= 1L << i;
+                continue;
+            }
+            fixedLetters++;
+            if (c == ANY_LETTER) {
+                for (int letter = 0; letter < 26; letter++) {
+                    letterSteps[letter] |= 1L << i;
+                }
+            } else if (Lexicon.letterIndex(c) >= 0) {
+                letterSteps[Lexicon.letterIndex(c)] |= 1L << i;
+            } else {
+                throw new IllegalArgumentException("Pattern may only hold letters, ? and *: " + pattern);
+            }
+        }
+    }
+
+    /**
+     * Creates a query for a pattern
+     *
+     * @param pattern the pattern words must match, made of letters, ? and *
+     * @return the query
+     */
+    public static WordQuery matching(String pattern) {
+        return new WordQuery(pattern);
+    }
+
+    /**
+     * Creates a query matching every word, to be narrowed by constraints
+     *
+     * @return the query
+     */
+    public static WordQuery anyWord() {
+        return new WordQuery(String.valueOf(ANY_LETTERS));
+    }
+
+    /**
+     * Bounds the length of the words found
+     *
+     * @param min the shortest length
+     * @param max the longest length
+     * @return this query
+     */
+    public WordQuery length(int min, int max) {
+        minLength = Math.max(1, min);
+        maxLength = max;
+        return this;
+    }
+
+    /**
+     * Requires words to contain letters. A letter given twice must appear at least twice.
+     *
+     * @param letters the letters every word must use
+     * @return this query
+     */
+    public WordQuery mustUse(String letters) {
+        for (int i = 0; i < letters.length(); i++) {
+            int letter = Lexicon.letterIndex(letters.charAt(i));
+            if (letter >= 0) {
+                required[letter]++;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Forbids words from containing letters
+     *
+     * @param letters the letters no word may use
+     * @return this query
+     */
+    public WordQuery without(String letters) {
+        for (int i = 0; i < letters.length(); i++) {
+            int letter = Lexicon.letterIndex(letters.charAt(i));
+            if (letter >= 0) {
+                excluded[letter] = true;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Limits words to those that can be made from a rack
+     *
+     * @param letters the letters on the rack
+     * @param blanks  the number of blank tiles, each of which may stand for any letter
+     * @return this query
+     */
+    public WordQuery fromRack(String letters, int blanks) {
+        rack = new int[26];
+        for (int i = 0; i < letters.length(); i++) {
+            int letter = Lexicon.letterIndex(letters.charAt(i));
+            if (letter >= 0) {
+                rack[letter]++;
+            }
+        }
+        this.blanks = blanks;
+        return this;
+    }
+
+    /**
+     * Stops the query after a number of words
+     *
+     * @param limit the most words to find
+     * @return this query
+     */
+    public WordQuery limit(int limit) {
+        this.limit = limit;
+        return this;
+    }
+
+    /**
+     * Runs the query lazily; the lexicon is only walked as far as the words taken from the iterator need
+     *
+     * @param lexicon the lexicon to search
+     * @return the matching words, in lower case and alphabetical order
+     */
+    public Iterator<String> iterator(Dawg lexicon) {
+        return new Walk(lexicon, limit);
+    }
+
+    /**
+     * Runs the query lazily with a different limit, for merging its words with those of another lexicon
+     *
+     * @param lexicon the lexicon to search
+     * @param limit   the most words to find
+     * @return the matching words, in lower case and alphabetical order
+     */
+    Iterator<String> iterator(Dawg lexicon, int limit) {
+        return new Walk(lexicon, limit);
+    }
+
+    /**
+     * Getter for the most words the query finds
+     *
+     * @return the limit
+     */
+    int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Runs the query and collects the words found, up to the limit
+     *
+     * @param lexicon the lexicon to search
+     * @return the matching words, in lower case and alphabetical order
+     */
+    public List<String> find(WordList lexicon) {
+        List<String> words = new ArrayList<>();
+        lexicon.query(this).forEachRemaining(words::add);
+        return words;
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+
+    /**
+     * Adds the positions reached by letting each * match nothing
+     *
+     * @param states the pattern positions reached
+     * @return the positions reached including those after skipped *
+     */
+    private long skipStars(long states) {
+        long skipped;
+        do {
+            skipped = states;
+            states |= (states & starPositions) << 1;
+        } while (states != skipped);
+        return states;
+    }
+
+    /**
+     * Class Walk is a depth-first walk of the DAWG, kept on an explicit stack so it can stop after any word
+     */
+    private final class Walk implements Iterator<String> {
+        private final Dawg dawg;
+        private final int longest; // the longest word the pattern and bounds allow
+        private final int limit;
+        private final long accept; // the pattern position reached once the whole pattern is matched
+        private final char[] path; // the letters of the current path
+        private final int[] nextArc; // for each depth, the next arc to try, or -1 once the node is done
+        private final long[] states; // for each depth, the pattern positions reached by the path so far
+        private final boolean[] usedBlank; // for each depth, whether the path's letter came from a blank
+        private final int[] rackLeft;
+        private final int[] stillRequired;
+        private int requiredLeft;
+        private int blanksLeft;
+        private int depth;
+        private int found;
+        private String next;
+
+        private Walk(Dawg dawg, int limit) {
+            this.dawg = dawg;
+            this.limit = limit;
+            accept = 1L << pattern.length();
+            int bound = (starPositions == 0) ? fixedLetters : maxLength;
+            if (rack != null) {
+                int tiles = blanks;
+                for (int count : rack) {
+                    tiles += count;
+                }
+                bound = Math.min(bound, tiles);
+            }
+            longest = Math.min(bound, Math.min(maxLength, 64));
+            path = new char[Math.max(0, longest)];
+            nextArc = new int[longest + 1];
+            states = new long[longest + 1];
+            usedBlank = new boolean[longest + 1];
+            rackLeft = (rack != null) ? rack.clone() : null;
+            blanksLeft = blanks;
+            stillRequired = required.clone();
+            for (int count : required) {
+                requiredLeft += count;
+            }
+            nextArc[0] = (longest > 0) ? dawg.getForwardRoot() : -1;
+            if (nextArc[0] == 0) {
+                nextArc[0] = -1; // the lexicon is empty
+            }
+            states[0] = skipStars(1L);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && found < limit) {
+                next = advance();
+                if (next != null) {
+                    found++;
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String word = next;
+            next = null;
+            return word;
+        }
+
+        /**
+         * Continues the walk to the next matching word
+         *
+         * @return the word, or null once the walk is over
+         */
+        private String advance() {
+            while (depth >= 0) {
+                int index = nextArc[depth];
+                if (index < 0) {
+                    depth--;
+                    if (depth >= 0) {
+                        giveBack(depth);
+                    }
+                    continue;
+                }
+                int arc = dawg.arcAt(index);
+                nextArc[depth] = ((arc & Dawg.LAST_ARC) != 0) ? -1 : index + 1;
+
+                int letter = arc & Dawg.LETTER_MASK;
+                long reached = skipStars(((states[depth] & letterSteps[letter]) << 1) | (states[depth] & starPositions));
+                if (excluded[letter] || reached == 0 || !take(depth, letter)) {
+                    continue;
+                }
+                int length = depth + 1;
+                String word = null;
+                if ((arc & Dawg.END_OF_WORD) != 0 && (reached & accept) != 0 && requiredLeft == 0
+                        && length >= minLength) {
+                    word = new String(path, 0, length);
+                }
+                int target = arc >>> Dawg.TARGET_SHIFT;
+                if (target != 0 && length < longest && requiredLeft <= longest - length) {
+                    depth = length;
+                    nextArc[depth] = target;
+                    states[depth] = reached;
+                } else {
+                    giveBack(depth);
+                }
+                if (word != null) {
+                    return word;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Puts a letter on the path, using a rack tile for it if there is one, otherwise a blank
+         *
+         * @param at     the depth of the letter
+         * @param letter the letter index
+         * @return false if the rack has neither the letter nor a blank left
+         */
+        private boolean take(int at, int letter) {
+            if (rackLeft != null) {
+                if (rackLeft[letter] > 0) {
+                    rackLeft[letter]--;
+                    usedBlank[at] = false;
+                } else if (blanksLeft > 0) {
+                    blanksLeft--;
+                    usedBlank[at] = true;
+                } else {
+                    return false;
+                }
+            }
+            if (stillRequired[letter]-- > 0) {
+                requiredLeft--;
+            }
+            path[at] = (char) ('a' + letter);
+            return true;
+        }
+
+        /**
+         * Takes the letter at a depth off the path, returning its tile to the rack
+         *
+         * @param at the depth of the letter
+         */
+        private void giveBack(int at) {
+            int letter = path[at] - 'a';
+            if (++stillRequired[letter] > 0) {
+                requiredLeft++;
+            }
+            if (rackLeft != null) {
+                if (usedBlank[at]) {
+                    blanksLeft++;
+                } else {
+                    rackLeft[letter]++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/**
+ * Interface WordSet answers the one question asked when a play is validated: is this exact word legal.
+ * Queries are case-insensitive, and any character that is not a letter A to Z never matches.
+ *
+ * @version 1
+ */
+public interface WordSet {
+
+    /**
+     * Checks if a word is in the set
+     *
+     * @param word the word to check
+     * @return true if the word is valid, false otherwise
+     */
+    boolean contains(CharSequence word);
+
+    /**
+     * Getter for the number of words in the set
+     *
+     * @return the number of words
+     */
+    int size();
+
+    /**
+     * Checks a batch of words in one call
+     *
+     * @param words the words to check
+     * @return whether each word is valid, in the same order
+     */
+    default boolean[] containsEach(CharSequence[] words) {
+        boolean[] valid = new boolean[words.length];
+        for (int i = 0; i < words.length; i++) {
+            valid[i] = contains(words[i]);
+        }
+        return valid;
+    }
+
+    /**
+     * Checks that every word of a batch is valid, stopping at the first invalid one
+     *
+     * @param words the words to check
+     * @return true if every word is valid
+     */
+    default boolean containsAll(CharSequence[] words) {
+        for (CharSequence word : words) {
+            if (!contains(word)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
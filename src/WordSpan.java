@@ -0,0 +1,79 @@
+/**
+ * Class WordSpan describes a word on the board: the square of its first letter, its direction and its
+ * letters. It is what a play is checked and scored with, in place of a map from positions to tiles.
+ *
+ * @version 1
+ */
+public class WordSpan {
+    private final int row;
+    private final int col;
+    private final boolean horizontal;
+    private final String word;
+
+    /**
+     * Constructor for class WordSpan
+     *
+     * @param row        the row of the first letter
+     * @param col        the column of the first letter
+     * @param horizontal true if the word reads across a row, false if down a column
+     * @param word       the letters of the word
+     */
+    public WordSpan(int row, int col, boolean horizontal, String word) {
+        this.row = row;
+        this.col = col;
+        this.horizontal = horizontal;
+        this.word = word;
+    }
+
+    /**
+     * Getter for the row of a letter
+     *
+     * @param index the index of the letter in the word
+     * @return the row of the letter's square
+     */
+    public int getRow(int index) {
+        return horizontal ? row : row + index;
+    }
+
+    /**
+     * Getter for the column of a letter
+     *
+     * @param index the index of the letter in the word
+     * @return the column of the letter's square
+     */
+    public int getCol(int index) {
+        return horizontal ? col + index : col;
+    }
+
+    /**
+     * Getter for the direction of the word
+     *
+     * @return true if the word reads across a row, false if down a column
+     */
+    public boolean isHorizontal() {
+        return horizontal;
+    }
+
+    /**
+     * Getter for the number of letters
+     *
+     * @return the length of the word
+     */
+    public int length() {
+        return word.length();
+    }
+
+    /**
+     * Getter for the letters of the word
+     *
+     * @return the word
+     */
+    public String getWord() {
+        return word;
+    }
+
+    @Override
+    public String toString() {
+        return word + " at " + new Position(row, col) + (horizontal ? " across" : " down");
+    }
+}
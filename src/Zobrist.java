@@ -0,0 +1,95 @@
+import java.util.SplittableRandom;
+
+/**
+ * Class Zobrist holds the random keys that game positions are hashed with. A position's key is the
+ * exclusive or of the keys of its parts: each tile on a square (its letter and whether it is a blank), each
+ * premium square already used, and each tile on the rack. Adding or taking away a part is then one exclusive
+ * or, so boards and racks keep their keys up to date as they change. The keys come from a fixed seed, so the
+ * same position has the same key in every run and keys can be stored.
+ *
+ * @version 1
+ */
+public final class Zobrist {
+    private static final int KINDS = 27; // the letters A to Z, then a blank not yet given a letter
+    private static final int BLANK = 26;
+    private static final int MAX_COPIES = 16; // copies of one tile kind on a rack told apart
+    private static final long[] TILES = new long[Board.MAX_SIZE * Board.MAX_SIZE * KINDS * 2];
+    private static final long[] USED_PREMIUMS = new long[Board.MAX_SIZE * Board.MAX_SIZE];
+    private static final long[] RACK = new long[KINDS * MAX_COPIES];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5C4AB81EL);
+        fill(TILES, random);
+        fill(USED_PREMIUMS, random);
+        fill(RACK, random);
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Gets the key of a tile on a square
+     *
+     * @param square the square
+     * @param letter the tile's letter, or the letter a blank stands for
+     * @param blank  true if the tile is a blank
+     * @return the key
+     */
+    public static long tile(int square, char letter, boolean blank) {
+        return TILES[(square * KINDS + kind(letter)) * 2 + (blank ? 1 : 0)];
+    }
+
+    /**
+     * Gets the key of a premium square that has been used
+     *
+     * @param square the square
+     * @return the key
+     */
+    public static long usedPremium(int square) {
+        return USED_PREMIUMS[square];
+    }
+
+    /**
+     * Gets the key of one copy of a tile on a rack
+     *
+     * @param tile the tile
+     * @param copy how many tiles of the same kind are on the rack besides this one
+     * @return the key
+     */
+    public static long rackTile(Tile tile, int copy) {
+        return RACK[rackKind(tile) * MAX_COPIES + copy % MAX_COPIES];
+    }
+
+    /**
+     * Gets the kind of a rack tile, all blanks being the same kind whatever letter they were given
+     *
+     * @param tile the tile
+     * @return the letter's index from 0 for A, or 26 for a blank
+     */
+    public static int rackKind(Tile tile) {
+        return tile.isBlank() ? BLANK : kind(tile.getLetter());
+    }
+
+    /**
+     * Gets the index of a letter
+     *
+     * @param letter the letter
+     * @return 0 for A to 25 for Z, or 26 for anything else
+     */
+    private static int kind(char letter) {
+        int index = Lexicon.letterIndex(letter);
+        return (index < 0) ? BLANK : index;
+    }
+
+    /**
+     * Fills a table with random keys
+     *
+     * @param keys   the table
+     * @param random the source of the keys
+     */
+    private static void fill(long[] keys, SplittableRandom random) {
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+        }
+    }
+}